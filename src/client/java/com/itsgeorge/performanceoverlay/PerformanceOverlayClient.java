@@ -1,15 +1,26 @@
 package com.itsgeorge.performanceoverlay;
 
+import com.itsgeorge.performanceoverlay.api.PerformanceOverlayApi;
+import com.itsgeorge.performanceoverlay.api.PerformanceOverlayEntrypoint;
+import com.itsgeorge.performanceoverlay.client.BenchmarkBatch;
+import com.itsgeorge.performanceoverlay.client.BenchmarkLibraryScreen;
 import com.itsgeorge.performanceoverlay.client.ConfigIO;
 import com.itsgeorge.performanceoverlay.client.FpsTracker;
+import com.itsgeorge.performanceoverlay.client.Metric;
+import com.itsgeorge.performanceoverlay.client.MetricsHttpServer;
 import com.itsgeorge.performanceoverlay.client.OverlayConfig;
 import com.itsgeorge.performanceoverlay.client.OverlayRenderer;
+import com.itsgeorge.performanceoverlay.client.PlaceholderIntegration;
+import com.itsgeorge.performanceoverlay.client.SessionGraphScreen;
+import com.itsgeorge.performanceoverlay.client.SpikeClassifier;
 import com.mojang.blaze3d.platform.InputConstants;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.keybinding.v1.KeyBindingHelper;
 import net.fabricmc.fabric.api.client.rendering.v1.hud.HudElementRegistry;
 import net.fabricmc.fabric.api.client.rendering.v1.hud.VanillaHudElements;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.ChatFormatting;
 import net.minecraft.client.KeyMapping;
 import net.minecraft.client.Minecraft;
@@ -18,6 +29,10 @@ import net.minecraft.network.chat.MutableComponent;
 import net.minecraft.resources.Identifier;
 import org.lwjgl.glfw.GLFW;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
 public final class PerformanceOverlayClient implements ClientModInitializer {
     public static final String MOD_ID = "performanceoverlay";
 
@@ -27,9 +42,16 @@ public final class PerformanceOverlayClient implements ClientModInitializer {
     private static OverlayConfig config;
     private static FpsTracker tracker;
 
+    private static MetricsHttpServer metricsServer;
+
     private static KeyMapping toggleKey;
     private static KeyMapping resetKey;
     private static KeyMapping benchmarkKey;
+    private static KeyMapping sessionGraphKey;
+    private static KeyMapping benchmarkLibraryKey;
+
+    // Benchmarks finished from their journal at startup; reported once a player exists
+    private static List<String> recoveredBenchmarks = List.of();
     private static KeyMapping cycleLayoutKey;
 
     private static long benchmarkAutoStopAtNs = 0;
@@ -39,6 +61,10 @@ public final class PerformanceOverlayClient implements ClientModInitializer {
     private static int benchmarkDurationSecActive = 0;
     private static long lastBenchmarkActionbarUpdateNs = 0;
 
+    // Batch mode (config.benchmarkBatchRuns > 1): next run starts at batchNextStartAtNs (0 = none pending)
+    private static BenchmarkBatch batch = null;
+    private static long batchNextStartAtNs = 0;
+
     public static OverlayConfig getConfig() {
         return config;
     }
@@ -48,9 +74,18 @@ public final class PerformanceOverlayClient implements ClientModInitializer {
 
         if (tracker != null) {
             tracker.setConfig(cfg, false);
+            applyMetricsServer();
         }
     }
 
+    public static PerformanceOverlayApi getApi() {
+        return (tracker != null) ? tracker.api() : null;
+    }
+
+    public static List<Metric> getRegisteredMetrics() {
+        return tracker.getRegisteredMetrics();
+    }
+
     public static String getToggleKeyDisplayName() {
         return keyNameOrFallback(toggleKey, "F7");
     }
@@ -78,6 +113,9 @@ public final class PerformanceOverlayClient implements ClientModInitializer {
     public void onInitializeClient() {
         config = ConfigIO.load();
         tracker = new FpsTracker(config);
+        recoveredBenchmarks = tracker.recoverBenchmarkJournals();
+
+        applyMetricsServer();
 
         KeyMapping.Category category = KeyMapping.Category.register(
                 Identifier.fromNamespaceAndPath(MOD_ID, "category")
@@ -120,25 +158,72 @@ public final class PerformanceOverlayClient implements ClientModInitializer {
                 )
         );
 
+        sessionGraphKey = KeyBindingHelper.registerKeyBinding(
+                new KeyMapping(
+                        "key.performanceoverlay.session_graph",
+                        InputConstants.Type.KEYSYM,
+                        GLFW.GLFW_KEY_UNKNOWN,
+                        category
+                )
+        );
+
+        benchmarkLibraryKey = KeyBindingHelper.registerKeyBinding(
+                new KeyMapping(
+                        "key.performanceoverlay.benchmark_library",
+                        InputConstants.Type.KEYSYM,
+                        GLFW.GLFW_KEY_UNKNOWN,
+                        category
+                )
+        );
+
+        ClientTickEvents.START_CLIENT_TICK.register(client -> tracker.onClientTickStart());
+
+        // Integrated server only; feeds the server track of the benchmark trace.
+        ServerTickEvents.START_SERVER_TICK.register(server -> tracker.onServerTickStart());
+        ServerTickEvents.END_SERVER_TICK.register(server -> tracker.onServerTickEnd());
+
         ClientTickEvents.END_CLIENT_TICK.register(client -> {
+            tracker.runPendingCommands();
+            tracker.onClientTickEnd();
+
             long now = System.nanoTime();
 
+            if (!recoveredBenchmarks.isEmpty() && client.player != null) {
+                showBenchmarksRecovered(client, recoveredBenchmarks);
+                recoveredBenchmarks = List.of();
+            }
+
             // ActionBar progress while benchmark is active (no chat spam)
             if (tracker.isBenchmarkActive()) {
                 if (dueNs(now, lastBenchmarkActionbarUpdateNs, 500)) {
                     lastBenchmarkActionbarUpdateNs = now;
                     showBenchmarkProgressActionbar(client, now);
                 }
+            } else if (batch != null && batchNextStartAtNs > 0) {
+                if (now >= batchNextStartAtNs) {
+                    batchNextStartAtNs = 0;
+                    tracker.toggleBenchmark().thenAccept(s -> onBatchRunToggled(client, s));
+                } else if (dueNs(now, lastBenchmarkActionbarUpdateNs, 500)) {
+                    lastBenchmarkActionbarUpdateNs = now;
+                    showBatchWaitActionbar(client, now);
+                }
             }
 
             // Auto-stop benchmark
             if (tracker.isBenchmarkActive() && benchmarkAutoStopAtNs > 0 && now >= benchmarkAutoStopAtNs) {
                 benchmarkAutoStopAtNs = 0;
-                FpsTracker.BenchmarkStatus s = tracker.toggleBenchmark();
-                if (!s.error()) {
-                    clearBenchmarkProgressState();
-                    showBenchmarkStopped(client, s);
-                }
+                tracker.toggleBenchmark().thenAccept(s -> {
+                    if (!s.error()) {
+                        clearBenchmarkProgressState();
+                        if (batch != null) {
+                            onBatchRunStopped(client, s);
+                        } else {
+                            showBenchmarkStopped(client, s);
+                        }
+                    } else if (batch != null) {
+                        abortBatch(client, s.message());
+                    }
+                });
             }
 
             while (toggleKey.consumeClick()) {
@@ -149,6 +234,10 @@ public final class PerformanceOverlayClient implements ClientModInitializer {
                     benchmarkAutoStopAtNs = 0;
                     clearBenchmarkProgressState();
                 }
+                if (!config.enabled && batch != null) {
+                    batch = null;
+                    batchNextStartAtNs = 0;
+                }
 
                 tracker.setConfig(config, false);
                 ConfigIO.save(config);
@@ -167,30 +256,22 @@ public final class PerformanceOverlayClient implements ClientModInitializer {
                     continue;
                 }
 
-                FpsTracker.BenchmarkStatus s = tracker.toggleBenchmark();
-                if (s.error()) {
-                    showActionbarPlain(client, Component.literal(s.message()).withStyle(ChatFormatting.WHITE));
-                    benchmarkAutoStopAtNs = 0;
-                    clearBenchmarkProgressState();
-                    continue;
+                if (batch != null) {
+                    cancelBatch(client);
+                } else if (!tracker.isBenchmarkActive() && config.benchmarkBatchRuns > 1
+                        && config.autoBenchmarkDurationSec > 0) {
+                    startBatch(client, now);
+                } else {
+                    tracker.toggleBenchmark().thenAccept(s -> onBenchmarkToggled(client, s));
                 }
+            }
 
-                if (s.started()) {
-                    int durSec = Math.max(0, config.autoBenchmarkDurationSec);
-
-                    benchmarkStartedAtNs = System.nanoTime();
-                    benchmarkDurationSecActive = durSec;
-                    lastBenchmarkActionbarUpdateNs = 0;
-
-                    benchmarkAutoStopAtNs = (durSec > 0) ? (benchmarkStartedAtNs + (long) durSec * NS_PER_SEC) : 0;
+            while (sessionGraphKey.consumeClick()) {
+                client.setScreen(new SessionGraphScreen(client.screen, tracker.getSessionHistory()));
+            }
 
-                    showBenchmarkStarted(client, durSec);
-                    showBenchmarkProgressActionbar(client, benchmarkStartedAtNs);
-                } else if (s.stopped()) {
-                    benchmarkAutoStopAtNs = 0;
-                    clearBenchmarkProgressState();
-                    showBenchmarkStopped(client, s);
-                }
+            while (benchmarkLibraryKey.consumeClick()) {
+                client.setScreen(new BenchmarkLibraryScreen(client.screen, tracker.getBenchmarkLibrary()));
             }
 
             while (cycleLayoutKey.consumeClick()) {
@@ -215,12 +296,169 @@ public final class PerformanceOverlayClient implements ClientModInitializer {
                         return;
                     }
 
+                    long startNs = System.nanoTime();
+
                     boolean paused = Minecraft.getInstance().isPaused();
                     tracker.onFrame(paused);
 
-                    OverlayRenderer.render(guiGraphics, config, tracker.getSnapshot());
+                    OverlayRenderer.render(guiGraphics, config, tracker.getSnapshot(),
+                            tracker.getGraph(), tracker.getHistogram());
+
+                    tracker.addSelfTime(System.nanoTime() - startNs);
                 }
         );
+
+        if (FabricLoader.getInstance().isModLoaded(PlaceholderIntegration.MOD_ID)) {
+            PlaceholderIntegration.register(MOD_ID, tracker.api());
+        }
+
+        for (PerformanceOverlayEntrypoint e : FabricLoader.getInstance()
+                .getEntrypoints(MOD_ID, PerformanceOverlayEntrypoint.class)) {
+            e.onPerformanceOverlayReady(tracker.api());
+        }
+    }
+
+    // Starts, stops or moves the metrics endpoint to match the config.
+    private static void applyMetricsServer() {
+        boolean want = config.metricsServerEnabled;
+        int port = config.metricsServerPort;
+
+        if (metricsServer != null && (!want || metricsServer.port() != port)) {
+            metricsServer.stop();
+            metricsServer = null;
+        }
+
+        if (want && metricsServer == null) {
+            try {
+                metricsServer = MetricsHttpServer.start(port, tracker::getMetrics);
+            } catch (IOException | RuntimeException e) {
+                // Port in use or not allowed: keep running without the endpoint
+                metricsServer = null;
+            }
+        }
+    }
+
+    private static void onBenchmarkToggled(Minecraft client, FpsTracker.BenchmarkStatus s) {
+        if (s.error()) {
+            showActionbarPlain(client, Component.literal(s.message()).withStyle(ChatFormatting.WHITE));
+            benchmarkAutoStopAtNs = 0;
+            clearBenchmarkProgressState();
+            return;
+        }
+
+        if (s.started()) {
+            int durSec = Math.max(0, config.autoBenchmarkDurationSec);
+
+            benchmarkStartedAtNs = System.nanoTime();
+            benchmarkDurationSecActive = durSec;
+            lastBenchmarkActionbarUpdateNs = 0;
+
+            benchmarkAutoStopAtNs = (durSec > 0) ? (benchmarkStartedAtNs + (long) durSec * NS_PER_SEC) : 0;
+
+            showBenchmarkStarted(client, durSec);
+            showBenchmarkProgressActionbar(client, benchmarkStartedAtNs);
+        } else if (s.stopped()) {
+            benchmarkAutoStopAtNs = 0;
+            clearBenchmarkProgressState();
+            showBenchmarkStopped(client, s);
+        }
+    }
+
+    private static void startBatch(Minecraft client, long nowNs) {
+        batch = new BenchmarkBatch(config.benchmarkBatchRuns, config.autoBenchmarkDurationSec,
+                config.benchmarkBatchWarmupSec, config.benchmarkBatchCooldownSec, config.preset.name());
+
+        batchNextStartAtNs = nowNs + (long) batch.warmupSec() * NS_PER_SEC;
+        lastBenchmarkActionbarUpdateNs = 0;
+
+        showBatchStarted(client, batch);
+    }
+
+    private static void onBatchRunToggled(Minecraft client, FpsTracker.BenchmarkStatus s) {
+        if (batch == null) {
+            // Cancelled while the start was queued
+            if (s.started()) {
+                tracker.toggleBenchmark();
+            }
+            return;
+        }
+
+        if (s.error() || !s.started()) {
+            abortBatch(client, s.error() ? s.message() : "Benchmark did not start");
+            return;
+        }
+
+        int durSec = Math.max(1, config.autoBenchmarkDurationSec);
+
+        benchmarkStartedAtNs = System.nanoTime();
+        benchmarkDurationSecActive = durSec;
+        lastBenchmarkActionbarUpdateNs = 0;
+        benchmarkAutoStopAtNs = benchmarkStartedAtNs + (long) durSec * NS_PER_SEC;
+
+        showBenchmarkProgressActionbar(client, benchmarkStartedAtNs);
+    }
+
+    private static void onBatchRunStopped(Minecraft client, FpsTracker.BenchmarkStatus s) {
+        BenchmarkBatch b = batch;
+        FpsTracker.BenchmarkSummary sum = tracker.getBenchmarkSummary();
+        b.add(s.fileName(), sum);
+
+        showChat(client, Component.literal("Run " + b.completed() + "/" + b.runs() + ": ").withStyle(ChatFormatting.GRAY)
+                .append(Component.literal("avg " + roundInt(sum.avg()) + " | 1% " + roundInt(sum.low1())
+                        + " | 0.1% " + roundInt(sum.low01()) + " | stutters " + sum.stutters()).withStyle(ChatFormatting.WHITE))
+                .append(Component.literal("  " + s.fileName()).withStyle(ChatFormatting.GRAY)));
+
+        if (!b.isComplete()) {
+            long now = System.nanoTime();
+            batchNextStartAtNs = now + (long) b.cooldownSec() * NS_PER_SEC;
+            lastBenchmarkActionbarUpdateNs = 0;
+            return;
+        }
+
+        batch = null;
+        batchNextStartAtNs = 0;
+        finishBatch(client, b);
+    }
+
+    // Benchmark key during a batch: stop the current run, keep what's finished
+    private static void cancelBatch(Minecraft client) {
+        BenchmarkBatch b = batch;
+        batch = null;
+        batchNextStartAtNs = 0;
+
+        if (tracker.isBenchmarkActive()) {
+            benchmarkAutoStopAtNs = 0;
+            clearBenchmarkProgressState();
+            tracker.toggleBenchmark();
+        }
+
+        showActionbarPlain(client, Component.literal("Batch cancelled").withStyle(ChatFormatting.WHITE));
+        if (b.completed() > 0) {
+            finishBatch(client, b);
+        }
+    }
+
+    private static void abortBatch(Minecraft client, String reason) {
+        BenchmarkBatch b = batch;
+        batch = null;
+        batchNextStartAtNs = 0;
+        benchmarkAutoStopAtNs = 0;
+        clearBenchmarkProgressState();
+
+        showActionbarPlain(client, Component.literal(reason).withStyle(ChatFormatting.WHITE));
+        if (b != null && b.completed() > 0) {
+            finishBatch(client, b);
+        }
+    }
+
+    private static void finishBatch(Minecraft client, BenchmarkBatch b) {
+        Path file;
+        try {
+            file = b.write();
+        } catch (IOException e) {
+            file = null;
+        }
+        showBatchFinished(client, b, file);
     }
 
     private static void clearBenchmarkProgressState() {
@@ -284,6 +522,10 @@ public final class PerformanceOverlayClient implements ClientModInitializer {
         long elapsedSec = elapsedNs / NS_PER_SEC;
 
         MutableComponent msg = Component.literal("Benchmark running… ").withStyle(ChatFormatting.GRAY);
+        if (batch != null) {
+            msg = Component.literal("Benchmark run " + (batch.completed() + 1) + "/" + batch.runs() + "… ")
+                    .withStyle(ChatFormatting.GRAY);
+        }
 
         if (benchmarkDurationSecActive > 0) {
             long dur = benchmarkDurationSecActive;
@@ -301,6 +543,60 @@ public final class PerformanceOverlayClient implements ClientModInitializer {
         client.player.displayClientMessage(msg, true);
     }
 
+    private static void showBatchWaitActionbar(Minecraft client, long nowNs) {
+        if (batch == null) {
+            return;
+        }
+
+        long leftSec = Math.max(0, (batchNextStartAtNs - nowNs + NS_PER_SEC - 1) / NS_PER_SEC);
+        String phase = (batch.completed() == 0) ? "Warmup" : "Cooldown";
+
+        showActionbarPlain(client, Component.literal(phase + " " + leftSec + "s… ").withStyle(ChatFormatting.GRAY)
+                .append(Component.literal("next: run " + (batch.completed() + 1) + "/" + batch.runs()).withStyle(ChatFormatting.WHITE)));
+    }
+
+    private static void showBatchStarted(Minecraft client, BenchmarkBatch b) {
+        MutableComponent msg = Component.empty();
+
+        msg = msg.append(Component.literal("------------------------------").withStyle(ChatFormatting.WHITE));
+        msg = msg.append(Component.literal("\nPerformance Overlay — Benchmark Batch Started").withStyle(ChatFormatting.WHITE));
+        msg = msg.append(Component.literal("\n------------------------------\n").withStyle(ChatFormatting.WHITE));
+
+        msg = msg.append(Component.literal("\nRuns: ").withStyle(ChatFormatting.GRAY))
+                .append(Component.literal(b.runs() + " × " + config.autoBenchmarkDurationSec + "s").withStyle(ChatFormatting.WHITE));
+        msg = msg.append(Component.literal("\nWarmup: ").withStyle(ChatFormatting.GRAY))
+                .append(Component.literal(b.warmupSec() + "s").withStyle(ChatFormatting.WHITE))
+                .append(Component.literal("  Cooldown: ").withStyle(ChatFormatting.GRAY))
+                .append(Component.literal(b.cooldownSec() + "s").withStyle(ChatFormatting.WHITE));
+
+        msg = msg.append(Component.literal("\nCancel: ").withStyle(ChatFormatting.GRAY))
+                .append(Component.literal("Press " + getBenchmarkKeyDisplayName()).withStyle(ChatFormatting.WHITE));
+
+        showChat(client, msg);
+    }
+
+    private static void showBatchFinished(Minecraft client, BenchmarkBatch b, Path file) {
+        MutableComponent msg = Component.empty();
+
+        msg = msg.append(Component.literal("------------------------------").withStyle(ChatFormatting.WHITE));
+        msg = msg.append(Component.literal("\nPerformance Overlay — Benchmark Batch Finished").withStyle(ChatFormatting.WHITE));
+        msg = msg.append(Component.literal("\n------------------------------").withStyle(ChatFormatting.WHITE));
+
+        msg = msg.append(Component.literal("\n\nRuns: ").withStyle(ChatFormatting.GRAY))
+                .append(Component.literal(b.completed() + " of " + b.runs() + " (mean ± 95% CI)").withStyle(ChatFormatting.WHITE));
+
+        for (BenchmarkBatch.Stat st : b.stats()) {
+            msg = msg.append(Component.literal("\n" + st.label() + ": ").withStyle(ChatFormatting.GRAY))
+                    .append(Component.literal(st.format()).withStyle(ChatFormatting.WHITE));
+        }
+
+        msg = msg.append(Component.literal("\n\nSaved to:").withStyle(ChatFormatting.GRAY));
+        msg = msg.append(Component.literal("\n" + (file != null ? file.toAbsolutePath().toString() : "(failed to write batch summary)"))
+                .withStyle(ChatFormatting.WHITE));
+
+        showChat(client, msg);
+    }
+
     private static void showBenchmarkStarted(Minecraft client, int durationSec) {
         String key = getBenchmarkKeyDisplayName();
 
@@ -324,6 +620,19 @@ public final class PerformanceOverlayClient implements ClientModInitializer {
         showChat(client, msg);
     }
 
+    private static String kb(long bytes) {
+        return (bytes >= 1024 * 1024) ? ms1(bytes / (1024.0 * 1024.0)) + " MB" : ((bytes + 1023) / 1024) + " KB";
+    }
+
+    private static void showBenchmarksRecovered(Minecraft client, List<String> names) {
+        MutableComponent msg = Component.literal("Recovered interrupted benchmark" + (names.size() == 1 ? "" : "s")
+                + " (summary rebuilt from journal):").withStyle(ChatFormatting.GRAY);
+        for (String name : names) {
+            msg = msg.append(Component.literal("\n" + name).withStyle(ChatFormatting.WHITE));
+        }
+        showChat(client, msg);
+    }
+
     private static void showBenchmarkStopped(Minecraft client, FpsTracker.BenchmarkStatus s) {
         String path = (s.filePath() != null && !s.filePath().isEmpty()) ? s.filePath() : s.fileName();
 
@@ -347,9 +656,69 @@ public final class PerformanceOverlayClient implements ClientModInitializer {
         msg = msg.append(Component.literal("\nMax Spike: ").withStyle(ChatFormatting.GRAY))
                 .append(Component.literal(ms1(sum.maxSpikeMs()) + " ms").withStyle(ChatFormatting.WHITE));
 
+        msg = msg.append(Component.literal("\nPacing: ").withStyle(ChatFormatting.GRAY))
+                .append(Component.literal(roundInt(sum.pacingScore()) + " / 100"
+                        + " (frame-to-frame " + ms1(sum.frameDeltaMs()) + " ms, sd " + ms1(sum.frametimeSdMs()) + " ms)"
+                ).withStyle(ChatFormatting.WHITE));
+
+        StringBuilder causes = new StringBuilder();
+        for (int c = 0; c < SpikeClassifier.CAUSE_COUNT; c++) {
+            int count = sum.spikeCauses()[c];
+            if (count > 0) {
+                if (causes.length() > 0) {
+                    causes.append(" | ");
+                }
+                causes.append(SpikeClassifier.name(c)).append(' ').append(count);
+            }
+        }
+        if (causes.length() > 0) {
+            msg = msg.append(Component.literal("\nSpike causes: ").withStyle(ChatFormatting.GRAY))
+                    .append(Component.literal(causes.toString()).withStyle(ChatFormatting.WHITE));
+        }
+
+        if (sum.hitchPeriodSec() > 0) {
+            msg = msg.append(Component.literal("\nHitch period: ").withStyle(ChatFormatting.GRAY))
+                    .append(Component.literal("every " + ms1(sum.hitchPeriodSec()) + " s ("
+                            + roundInt(sum.hitchPeriodConfidencePct()) + "% confidence)").withStyle(ChatFormatting.WHITE));
+        }
+
+        if (sum.stutters() > 0) {
+            msg = msg.append(Component.literal("\nSpike overlap: ").withStyle(ChatFormatting.GRAY))
+                    .append(Component.literal(
+                            "GC " + roundInt(sum.spikeGcPct()) + "%"
+                                    + " | JIT " + roundInt(sum.spikeJitPct()) + "%"
+                                    + " | Class load " + roundInt(sum.spikeClassLoadPct()) + "%"
+                                    + " | Safepoint " + roundInt(sum.spikeSafepointPct()) + "%"
+                    ).withStyle(ChatFormatting.WHITE));
+        }
+
+        if (sum.budgetsMs().length > 0) {
+            StringBuilder budgets = new StringBuilder();
+            for (int k = 0; k < sum.budgetsMs().length; k++) {
+                if (k > 0) {
+                    budgets.append(" | ");
+                }
+                budgets.append(ms1(sum.budgetsMs()[k])).append(" ms ").append(ms1(sum.budgetPct()[k])).append('%');
+            }
+            msg = msg.append(Component.literal("\nFrames within budget: ").withStyle(ChatFormatting.GRAY))
+                    .append(Component.literal(budgets.toString()).withStyle(ChatFormatting.WHITE));
+        }
+
         msg = msg.append(Component.literal("\n\nSaved to:").withStyle(ChatFormatting.GRAY));
         msg = msg.append(Component.literal("\n" + path).withStyle(ChatFormatting.WHITE));
 
+        if (s.csvBytes() > 0 && s.fileBytes() > 0 && s.fileBytes() < s.csvBytes()) {
+            msg = msg.append(Component.literal("\nCompressed: ").withStyle(ChatFormatting.GRAY))
+                    .append(Component.literal(kb(s.csvBytes()) + " → " + kb(s.fileBytes())
+                            + " (" + ms1((double) s.csvBytes() / s.fileBytes()) + "x)").withStyle(ChatFormatting.WHITE));
+        }
+
+        String tracePath = tracker.getLastTraceFilePath();
+        if (tracePath != null && !tracePath.isEmpty()) {
+            msg = msg.append(Component.literal("\nTrace: ").withStyle(ChatFormatting.GRAY))
+                    .append(Component.literal(tracePath).withStyle(ChatFormatting.WHITE));
+        }
+
         msg = msg.append(Component.literal("\n\nHint: Open the .csv in Excel / Google Sheets or send it to AI").withStyle(ChatFormatting.GRAY));
 
         showChat(client, msg);
@@ -0,0 +1,16 @@
+package com.itsgeorge.performanceoverlay.api;
+
+/**
+ * Called on the render thread once per recorded frame. Must be quick and must not allocate on every
+ * call; the time spent here is shown as part of Performance Overlay's own overhead.
+ *
+ * A listener that throws is removed.
+ */
+@FunctionalInterface
+public interface FrameListener {
+    /**
+     * @param frameNs     duration of the frame that just finished, in nanoseconds
+     * @param timestampNs {@link System#nanoTime()} at the end of that frame
+     */
+    void onFrame(long frameNs, long timestampNs);
+}
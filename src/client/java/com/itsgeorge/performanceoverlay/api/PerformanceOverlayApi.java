@@ -0,0 +1,78 @@
+package com.itsgeorge.performanceoverlay.api;
+
+import com.itsgeorge.performanceoverlay.PerformanceOverlayClient;
+
+/**
+ * Read-only access to Performance Overlay's live metrics for other client mods.
+ *
+ * Getters return primitives and never allocate; they are safe to call from any thread and return the
+ * values last published by the render thread (0 until the first update). Values stop updating while
+ * the overlay is turned off.
+ *
+ * Values not shown on the overlay are only computed while someone reads them: after no reads for
+ * a few seconds, the next read can return a value that is one update interval old.
+ *
+ * Get the instance from {@link #get()} after client initialisation, or declare a
+ * {@code "performanceoverlay"} entrypoint implementing {@link PerformanceOverlayEntrypoint}.
+ */
+public interface PerformanceOverlayApi {
+    /**
+     * Bumped when methods are added; existing methods keep their meaning.
+     */
+    int API_VERSION = 1;
+
+    /**
+     * @throws IllegalStateException if Performance Overlay hasn't initialised yet
+     */
+    static PerformanceOverlayApi get() {
+        PerformanceOverlayApi api = PerformanceOverlayClient.getApi();
+        if (api == null) {
+            throw new IllegalStateException("Performance Overlay is not initialised yet");
+        }
+        return api;
+    }
+
+    /**
+     * Frames recorded since the game started.
+     */
+    long framesTotal();
+
+    /**
+     * Duration of the last recorded frame, in nanoseconds.
+     */
+    long lastFrameNs();
+
+    double fps();
+
+    double frametimeMs();
+
+    double avgFps();
+
+    double low1Fps();
+
+    double low01Fps();
+
+    double frametimeP50Ms();
+
+    double frametimeP99Ms();
+
+    double frametimeP999Ms();
+
+    int stutters();
+
+    double maxSpikeMs();
+
+    /**
+     * Integrated server tick time (ms, 1 s average), or -1 when not in singleplayer.
+     */
+    double mspt();
+
+    boolean isBenchmarkActive();
+
+    /**
+     * Adds a per-frame listener. May be called from any thread.
+     */
+    void addFrameListener(FrameListener listener);
+
+    void removeFrameListener(FrameListener listener);
+}
@@ -0,0 +1,15 @@
+package com.itsgeorge.performanceoverlay.api;
+
+/**
+ * Entrypoint for other mods, declared in their fabric.mod.json:
+ * <pre>
+ * "entrypoints": {
+ *   "performanceoverlay": ["com.example.MyOverlayHook"]
+ * }
+ * </pre>
+ * Called once on the client thread, after Performance Overlay has initialised.
+ * Mods without Performance Overlay installed never load the class.
+ */
+public interface PerformanceOverlayEntrypoint {
+    void onPerformanceOverlayReady(PerformanceOverlayApi api);
+}
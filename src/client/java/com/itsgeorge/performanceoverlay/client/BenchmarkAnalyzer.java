@@ -0,0 +1,73 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Command-line analyzer for benchmark CSVs (plain or .gz). Needs only the JDK.
+ *
+ * <pre>java -cp performanceoverlay.jar com.itsgeorge.performanceoverlay.client.BenchmarkAnalyzer compare a.csv b.csv [--iterations N] [--seed S]</pre>
+ * <pre>java -cp performanceoverlay.jar com.itsgeorge.performanceoverlay.client.BenchmarkAnalyzer summary run.csv</pre>
+ *
+ * {@code compare} exits with 0 for improved or inconclusive and 1 for regressed, so it can gate scripts.
+ */
+public final class BenchmarkAnalyzer {
+    private BenchmarkAnalyzer() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("compare")) {
+            int iterations = BenchmarkComparison.DEFAULT_ITERATIONS;
+            long seed = System.nanoTime();
+            for (int i = 3; i + 1 < args.length; i += 2) {
+                switch (args[i]) {
+                    case "--iterations" -> iterations = Math.max(1, Integer.parseInt(args[i + 1]));
+                    case "--seed" -> seed = Long.parseLong(args[i + 1]);
+                    default -> usage();
+                }
+            }
+
+            BenchmarkComparison.Result r = BenchmarkComparison.compare(
+                    BenchmarkComparison.load(Path.of(args[1])),
+                    BenchmarkComparison.load(Path.of(args[2])),
+                    iterations, seed);
+            System.out.print(format(r));
+            System.exit(r.verdict() == BenchmarkComparison.Verdict.REGRESSED ? 1 : 0);
+        } else if (args.length == 2 && args[0].equals("summary")) {
+            BenchmarkComparison.Run run = BenchmarkComparison.load(Path.of(args[1]));
+            double[] m = BenchmarkComparison.metrics(run);
+            System.out.printf(Locale.ROOT, "%s: %d frames%n", run.name(), run.framesNs().length);
+            System.out.printf(Locale.ROOT, "avg=%.1f 1%%=%.1f 0.1%%=%.1f stutters=%.2f%% pacing=%.1f%n",
+                    m[BenchmarkComparison.AVG], m[BenchmarkComparison.LOW1], m[BenchmarkComparison.LOW01],
+                    m[BenchmarkComparison.STUTTER_PCT], m[BenchmarkComparison.PACING]);
+        } else {
+            usage();
+        }
+    }
+
+    /**
+     * Plain-text table of a comparison, one metric per line.
+     */
+    public static String format(BenchmarkComparison.Result r) {
+        StringBuilder sb = new StringBuilder(512);
+        sb.append(String.format(Locale.ROOT, "A: %s (%d frames)%nB: %s (%d frames)%n",
+                r.nameA(), r.framesA(), r.nameB(), r.framesB()));
+        sb.append(String.format(Locale.ROOT, "%d bootstrap iterations, block length %d frames, 95%% CI%n%n",
+                r.iterations(), r.blockLength()));
+        sb.append(String.format(Locale.ROOT, "%-11s %10s %10s %10s %23s  %s%n",
+                "Metric", "A", "B", "B-A", "95% CI", "Verdict"));
+        for (BenchmarkComparison.Delta d : r.deltas()) {
+            sb.append(String.format(Locale.ROOT, "%-11s %10.2f %10.2f %+10.2f   [%+8.2f, %+8.2f]  %s%n",
+                    d.metric(), d.a(), d.b(), d.delta(), d.low(), d.high(), d.verdict()));
+        }
+        sb.append(String.format(Locale.ROOT, "%nVerdict: %s%n", r.verdict()));
+        return sb.toString();
+    }
+
+    private static void usage() {
+        System.err.println("Usage: BenchmarkAnalyzer compare <a.csv> <b.csv> [--iterations N] [--seed S]");
+        System.err.println("       BenchmarkAnalyzer summary <run.csv>");
+        System.exit(2);
+    }
+}
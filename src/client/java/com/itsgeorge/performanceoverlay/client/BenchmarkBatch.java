@@ -0,0 +1,207 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.itsgeorge.performanceoverlay.client.Fmt.f1;
+import static com.itsgeorge.performanceoverlay.client.Fmt.ms3;
+
+/**
+ * Repeated benchmark runs with one combined summary. Each run keeps its own CSV; once all runs are
+ * in, {@link #write()} saves {@code batch_<timestamp>.csv} with mean, 95% confidence interval,
+ * standard deviation and range per metric, plus every run's value.
+ *
+ * The interval uses Student's t, since batches are small (a handful of runs). The warmup before
+ * the first run is not recorded at all, so it can't leak into any run's numbers.
+ */
+public final class BenchmarkBatch {
+    private static final DateTimeFormatter TS = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final DateTimeFormatter TS_HUMAN = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // Two-sided 95% critical values of Student's t for 1..49 degrees of freedom (batches go up to 50 runs)
+    private static final double[] T95 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042,
+            2.040, 2.037, 2.035, 2.032, 2.030, 2.028, 2.026, 2.024, 2.023, 2.021,
+            2.020, 2.018, 2.017, 2.015, 2.014, 2.013, 2.012, 2.011, 2.010
+    };
+
+    private static final String[] METRICS = {
+            "avg_fps", "low1_fps", "low01_fps", "stutters", "max_spike_ms", "pacing_score", "frametime_sd_ms"
+    };
+    private static final String[] LABELS = {
+            "Avg FPS", "1% Low", "0.1% Low", "Stutters", "Max Spike (ms)", "Pacing", "Frametime SD (ms)"
+    };
+
+    private final int runs;
+    private final int runSec;
+    private final int warmupSec;
+    private final int cooldownSec;
+    private final String preset;
+    private final LocalDateTime started = LocalDateTime.now();
+
+    private final List<String> files = new ArrayList<>();
+    private final List<FpsTracker.BenchmarkSummary> summaries = new ArrayList<>();
+
+    public BenchmarkBatch(int runs, int runSec, int warmupSec, int cooldownSec, String preset) {
+        this.runs = Math.max(1, runs);
+        this.runSec = Math.max(0, runSec);
+        this.warmupSec = Math.max(0, warmupSec);
+        this.cooldownSec = Math.max(0, cooldownSec);
+        this.preset = preset;
+    }
+
+    public int runs() {
+        return runs;
+    }
+
+    public int completed() {
+        return summaries.size();
+    }
+
+    public boolean isComplete() {
+        return summaries.size() >= runs;
+    }
+
+    public int warmupSec() {
+        return warmupSec;
+    }
+
+    public int cooldownSec() {
+        return cooldownSec;
+    }
+
+    public void add(String fileName, FpsTracker.BenchmarkSummary s) {
+        files.add(fileName);
+        summaries.add(s);
+    }
+
+    /**
+     * Mean ± 95% CI per metric over the runs added so far.
+     */
+    public List<Stat> stats() {
+        List<Stat> out = new ArrayList<>(METRICS.length);
+        int n = summaries.size();
+
+        for (int m = 0; m < METRICS.length; m++) {
+            double[] v = new double[n];
+            for (int i = 0; i < n; i++) {
+                v[i] = value(summaries.get(i), m);
+            }
+            out.add(Stat.of(METRICS[m], LABELS[m], v));
+        }
+        return out;
+    }
+
+    /**
+     * Writes the combined summary next to the run files and returns its path.
+     */
+    public Path write() throws IOException {
+        Path dir = FpsTracker.benchmarksDir();
+        Files.createDirectories(dir);
+        Path file = dir.resolve("batch_" + started.format(TS) + ".csv");
+
+        List<Stat> stats = stats();
+
+        try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            w.write("# PerformanceOverlay Benchmark Batch\n");
+            w.write("# Date: " + started.format(TS_HUMAN) + "\n");
+            w.write("# ModVersion: " + FpsTracker.getModVersion() + "\n");
+            w.write("# Minecraft: " + FpsTracker.getMinecraftVersion() + "\n");
+            w.write("# Preset: " + preset + "\n");
+            w.write("# Runs: " + summaries.size() + " of " + runs + "\n");
+            w.write("# RunDurationSec: " + runSec + "\n");
+            w.write("# WarmupSec: " + warmupSec + "\n");
+            w.write("# CooldownSec: " + cooldownSec + "\n");
+            w.write("# Confidence: 95% (Student t)\n");
+            for (int i = 0; i < files.size(); i++) {
+                w.write("# Run" + (i + 1) + ": " + files.get(i) + "\n");
+            }
+
+            StringBuilder sb = new StringBuilder("metric,mean,ci95,sd,min,max");
+            for (int i = 0; i < summaries.size(); i++) {
+                sb.append(",run").append(i + 1);
+            }
+            w.write(sb.append('\n').toString());
+
+            for (Stat s : stats) {
+                sb.setLength(0);
+                sb.append(s.metric())
+                        .append(',').append(ms3(s.mean()))
+                        .append(',').append(ms3(s.ci95()))
+                        .append(',').append(ms3(s.sd()))
+                        .append(',').append(ms3(s.min()))
+                        .append(',').append(ms3(s.max()));
+                for (double v : s.values()) {
+                    sb.append(',').append(ms3(v));
+                }
+                w.write(sb.append('\n').toString());
+            }
+        }
+
+        return file;
+    }
+
+    private static double value(FpsTracker.BenchmarkSummary s, int metric) {
+        return switch (metric) {
+            case 0 -> s.avg();
+            case 1 -> s.low1();
+            case 2 -> s.low01();
+            case 3 -> s.stutters();
+            case 4 -> s.maxSpikeMs();
+            case 5 -> s.pacingScore();
+            default -> s.frametimeSdMs();
+        };
+    }
+
+    static double tCritical95(int df) {
+        if (df < 1) {
+            return 0;
+        }
+        return (df <= T95.length) ? T95[df - 1] : 1.96;
+    }
+
+    /**
+     * One metric across the runs. {@code ci95} is the half-width (mean ± ci95); 0 with a single run.
+     */
+    public record Stat(String metric, String label, double mean, double ci95, double sd, double min, double max,
+                       double[] values) {
+        static Stat of(String metric, String label, double[] v) {
+            int n = v.length;
+            if (n == 0) {
+                return new Stat(metric, label, 0, 0, 0, 0, 0, v);
+            }
+
+            double sum = 0;
+            double min = Double.MAX_VALUE;
+            double max = -Double.MAX_VALUE;
+            for (double x : v) {
+                sum += x;
+                min = Math.min(min, x);
+                max = Math.max(max, x);
+            }
+            double mean = sum / n;
+
+            double ss = 0;
+            for (double x : v) {
+                ss += (x - mean) * (x - mean);
+            }
+            double sd = (n > 1) ? Math.sqrt(ss / (n - 1)) : 0;
+            double ci = (n > 1) ? tCritical95(n - 1) * sd / Math.sqrt(n) : 0;
+
+            return new Stat(metric, label, mean, ci, sd, min, max, v);
+        }
+
+        public String format() {
+            return f1(mean) + " ± " + f1(ci95);
+        }
+    }
+}
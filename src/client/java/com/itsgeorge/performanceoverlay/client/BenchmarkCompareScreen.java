@@ -0,0 +1,130 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.client.gui.components.Button;
+import net.minecraft.client.gui.screens.Screen;
+import net.minecraft.network.chat.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A/B result of two library runs (see {@link BenchmarkComparison}). The bootstrap runs off the render
+ * thread and the table appears once it's done.
+ */
+public final class BenchmarkCompareScreen extends Screen {
+    private static final int COLOR_TEXT = 0xFFFFFFFF;
+    private static final int COLOR_DIM = 0xFFAAAAAA;
+    private static final int COLOR_GOOD = 0xFF55FF55;
+    private static final int COLOR_BAD = 0xFFFF5555;
+
+    private static final int ROW_H = 12;
+
+    private final Screen parent;
+    private final Path fileA;
+    private final Path fileB;
+
+    private CompletableFuture<BenchmarkComparison.Result> job = null;
+
+    public BenchmarkCompareScreen(Screen parent, Path fileA, Path fileB) {
+        super(Component.literal("Compare benchmarks"));
+        this.parent = parent;
+        this.fileA = fileA;
+        this.fileB = fileB;
+    }
+
+    @Override
+    protected void init() {
+        if (job == null) {
+            job = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return BenchmarkComparison.compare(BenchmarkComparison.load(fileA), BenchmarkComparison.load(fileB),
+                            BenchmarkComparison.DEFAULT_ITERATIONS, System.nanoTime());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+
+        addRenderableWidget(Button.builder(Component.literal("Done"), b -> onClose())
+                .bounds(width / 2 - 50, height - 26, 100, 20).build());
+    }
+
+    @Override
+    public void onClose() {
+        minecraft.setScreen(parent);
+    }
+
+    @Override
+    public void render(GuiGraphics g, int mouseX, int mouseY, float partialTick) {
+        super.render(g, mouseX, mouseY, partialTick);
+
+        g.drawCenteredString(font, title, width / 2, 8, COLOR_TEXT);
+
+        int x = Math.max(10, width / 2 - 200);
+        int y = 26;
+
+        g.drawString(font, "A: " + fileA.getFileName(), x, y, COLOR_DIM);
+        g.drawString(font, "B: " + fileB.getFileName(), x, y + ROW_H, COLOR_DIM);
+        y += ROW_H * 3;
+
+        if (!job.isDone()) {
+            g.drawString(font, "Resampling...", x, y, COLOR_DIM);
+            return;
+        }
+
+        BenchmarkComparison.Result r;
+        try {
+            r = job.join();
+        } catch (RuntimeException e) {
+            Throwable cause = (e.getCause() != null) ? e.getCause() : e;
+            if (cause instanceof UncheckedIOException io) {
+                cause = io.getCause();
+            }
+            g.drawString(font, "Comparison failed: " + cause.getMessage(), x, y, COLOR_BAD);
+            return;
+        }
+
+        g.drawString(font, "Metric", x, y, COLOR_DIM);
+        g.drawString(font, "A", x + 80, y, COLOR_DIM);
+        g.drawString(font, "B", x + 130, y, COLOR_DIM);
+        g.drawString(font, "B-A", x + 180, y, COLOR_DIM);
+        g.drawString(font, "95% CI", x + 230, y, COLOR_DIM);
+        g.drawString(font, "Verdict", x + 330, y, COLOR_DIM);
+        y += ROW_H;
+
+        for (BenchmarkComparison.Delta d : r.deltas()) {
+            g.drawString(font, d.metric(), x, y, COLOR_TEXT);
+            g.drawString(font, String.format(Locale.ROOT, "%.1f", d.a()), x + 80, y, COLOR_TEXT);
+            g.drawString(font, String.format(Locale.ROOT, "%.1f", d.b()), x + 130, y, COLOR_TEXT);
+            g.drawString(font, String.format(Locale.ROOT, "%+.1f", d.delta()), x + 180, y, COLOR_TEXT);
+            g.drawString(font, String.format(Locale.ROOT, "[%+.1f, %+.1f]", d.low(), d.high()), x + 230, y, COLOR_DIM);
+            g.drawString(font, verdictLabel(d.verdict()), x + 330, y, verdictColor(d.verdict()));
+            y += ROW_H;
+        }
+
+        y += ROW_H;
+        g.drawString(font, "Overall: " + verdictLabel(r.verdict()), x, y, verdictColor(r.verdict()));
+        g.drawString(font, r.iterations() + " bootstrap iterations, blocks of " + r.blockLength() + " frames",
+                x, y + ROW_H, COLOR_DIM);
+    }
+
+    private static String verdictLabel(BenchmarkComparison.Verdict v) {
+        return switch (v) {
+            case IMPROVED -> "Improved";
+            case REGRESSED -> "Regressed";
+            case INCONCLUSIVE -> "Inconclusive";
+        };
+    }
+
+    private static int verdictColor(BenchmarkComparison.Verdict v) {
+        return switch (v) {
+            case IMPROVED -> COLOR_GOOD;
+            case REGRESSED -> COLOR_BAD;
+            case INCONCLUSIVE -> COLOR_DIM;
+        };
+    }
+}
@@ -0,0 +1,305 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.zip.GZIPInputStream;
+
+import static com.itsgeorge.performanceoverlay.client.FrameMath.NS_PER_MS;
+import static com.itsgeorge.performanceoverlay.client.FrameMath.NS_PER_SEC;
+import static com.itsgeorge.performanceoverlay.client.FrameMath.nsToFps;
+import static com.itsgeorge.performanceoverlay.client.FrameMath.percentileIndex;
+import static com.itsgeorge.performanceoverlay.client.FrameMath.selectNth;
+
+/**
+ * A/B comparison of two benchmark runs with bootstrap confidence intervals.
+ *
+ * Frames are autocorrelated (a hitch drags its neighbours along), so both runs are resampled with a
+ * circular block bootstrap: blocks of ~sqrt(n) consecutive frames drawn with replacement. Every
+ * iteration resamples A and B independently and records B - A per metric; the 2.5th / 97.5th
+ * percentiles of those deltas form the 95% interval. Iterations are split across the fork-join pool.
+ *
+ * A metric counts as improved or regressed only when its interval excludes zero. Lows use the
+ * percentile method, so results match the benchmark summary for PERCENTILE runs.
+ *
+ * Plain JDK only; used in game and by {@link BenchmarkAnalyzer}.
+ */
+public final class BenchmarkComparison {
+    public static final int DEFAULT_ITERATIONS = 1000;
+
+    // Keeps iterations x frames bounded for very long runs
+    private static final long MAX_RESAMPLED_FRAMES = 200_000_000L;
+    private static final int MIN_ITERATIONS = 200;
+    private static final int LEAF_ITERATIONS = 25;
+
+    public static final int AVG = 0;
+    public static final int LOW1 = 1;
+    public static final int LOW01 = 2;
+    public static final int STUTTER_PCT = 3;
+    public static final int PACING = 4;
+    public static final int METRIC_COUNT = 5;
+
+    private static final String[] NAMES = {"Avg FPS", "1% Low", "0.1% Low", "Stutters %", "Pacing"};
+    private static final boolean[] HIGHER_IS_BETTER = {true, true, true, false, true};
+
+    private BenchmarkComparison() {
+    }
+
+    public enum Verdict {
+        IMPROVED, REGRESSED, INCONCLUSIVE
+    }
+
+    /**
+     * Per-frame data of one run.
+     */
+    public record Run(String name, long[] framesNs, int stutterThresholdMs) {
+    }
+
+    /**
+     * B - A for one metric, with its 95% bootstrap interval.
+     */
+    public record Delta(String metric, double a, double b, double delta, double low, double high,
+                        boolean higherIsBetter, Verdict verdict) {
+    }
+
+    public record Result(String nameA, String nameB, int framesA, int framesB, int iterations, int blockLength,
+                         List<Delta> deltas, Verdict verdict) {
+    }
+
+    /**
+     * Reads the frame_ms column of a benchmark CSV (plain or .gz) and its stutter threshold.
+     */
+    public static Run load(Path file) throws IOException {
+        long[] frames = new long[4096];
+        int n = 0;
+        int thresholdMs = 50;
+
+        String name = file.getFileName().toString();
+        try (InputStream raw = Files.newInputStream(file);
+             InputStream in = name.endsWith(".gz") ? new GZIPInputStream(raw, 64 * 1024) : raw;
+             BufferedReader r = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024)) {
+
+            String line;
+            while ((line = r.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                char c = line.charAt(0);
+                if (c == '#') {
+                    if (line.startsWith("# StutterThresholdMs:")) {
+                        try {
+                            thresholdMs = Integer.parseInt(line.substring("# StutterThresholdMs:".length()).trim());
+                        } catch (NumberFormatException ignored) {
+                        }
+                    }
+                    continue;
+                }
+                if (c < '0' || c > '9') {
+                    continue;
+                }
+
+                int a = line.indexOf(',');
+                int b = (a < 0) ? -1 : line.indexOf(',', a + 1);
+                if (b < 0) {
+                    continue;
+                }
+                long ns;
+                try {
+                    ns = Math.round(Double.parseDouble(line.substring(a + 1, b)) * NS_PER_MS);
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (ns <= 0) {
+                    continue;
+                }
+                if (n == frames.length) {
+                    frames = Arrays.copyOf(frames, n * 2);
+                }
+                frames[n++] = ns;
+            }
+        }
+
+        return new Run(name, Arrays.copyOf(frames, n), thresholdMs);
+    }
+
+    /**
+     * Metric values of a run, indexed by {@link #AVG} .. {@link #PACING}.
+     */
+    public static double[] metrics(Run run) {
+        double[] out = new double[METRIC_COUNT];
+        long[] scratch = run.framesNs().clone();
+        compute(scratch, scratch.length, stutterNs(run), out);
+        return out;
+    }
+
+    public static Result compare(Run a, Run b, int iterations, long seed) {
+        int nA = a.framesNs().length;
+        int nB = b.framesNs().length;
+        if (nA < 2 || nB < 2) {
+            throw new IllegalArgumentException("Both runs need at least two frames");
+        }
+
+        long perIteration = (long) nA + nB;
+        int iters = (int) Math.max(Math.min(iterations, MIN_ITERATIONS),
+                Math.min(iterations, MAX_RESAMPLED_FRAMES / perIteration));
+
+        int blockA = blockLength(nA);
+        int blockB = blockLength(nB);
+
+        // Same stutter definition on both sides (A's threshold)
+        long stutterNs = stutterNs(a);
+
+        double[] pointA = new double[METRIC_COUNT];
+        double[] pointB = new double[METRIC_COUNT];
+        compute(a.framesNs().clone(), nA, stutterNs, pointA);
+        compute(b.framesNs().clone(), nB, stutterNs, pointB);
+
+        // deltas[m * iters + i]
+        double[] deltas = new double[METRIC_COUNT * iters];
+        ForkJoinPool.commonPool().invoke(new Resample(a.framesNs(), b.framesNs(), blockA, blockB, stutterNs,
+                deltas, iters, 0, iters, new SplittableRandom(seed)));
+
+        Delta[] out = new Delta[METRIC_COUNT];
+        int improved = 0;
+        int regressed = 0;
+
+        for (int m = 0; m < METRIC_COUNT; m++) {
+            double[] d = Arrays.copyOfRange(deltas, m * iters, (m + 1) * iters);
+            Arrays.sort(d);
+            double lo = d[(int) Math.floor(0.025 * (iters - 1))];
+            double hi = d[(int) Math.ceil(0.975 * (iters - 1))];
+
+            Verdict v = Verdict.INCONCLUSIVE;
+            if (lo > 0 || hi < 0) {
+                boolean up = lo > 0;
+                v = (up == HIGHER_IS_BETTER[m]) ? Verdict.IMPROVED : Verdict.REGRESSED;
+            }
+            if (v == Verdict.IMPROVED) improved++;
+            if (v == Verdict.REGRESSED) regressed++;
+
+            out[m] = new Delta(NAMES[m], pointA[m], pointB[m], pointB[m] - pointA[m], lo, hi, HIGHER_IS_BETTER[m], v);
+        }
+
+        Verdict overall = Verdict.INCONCLUSIVE;
+        if (improved > 0 && regressed == 0) {
+            overall = Verdict.IMPROVED;
+        } else if (regressed > 0 && improved == 0) {
+            overall = Verdict.REGRESSED;
+        }
+
+        return new Result(a.name(), b.name(), nA, nB, iters, Math.max(blockA, blockB), List.of(out), overall);
+    }
+
+    static int blockLength(int n) {
+        return Math.max(1, Math.min(n, (int) Math.round(Math.sqrt(n))));
+    }
+
+    private static long stutterNs(Run run) {
+        return (long) Math.max(1, run.stutterThresholdMs()) * NS_PER_MS;
+    }
+
+    // Reorders frames (select for the lows); pacing is measured before that
+    private static void compute(long[] frames, int n, long stutterNs, double[] out) {
+        long total = 0;
+        long absDelta = 0;
+        int stutters = 0;
+        for (int i = 0; i < n; i++) {
+            long f = frames[i];
+            total += f;
+            if (i > 0) {
+                absDelta += Math.abs(f - frames[i - 1]);
+            }
+            if (f >= stutterNs) {
+                stutters++;
+            }
+        }
+
+        double meanNs = (double) total / n;
+
+        out[AVG] = (total > 0) ? (double) n * NS_PER_SEC / total : 0;
+        out[STUTTER_PCT] = stutters * 100.0 / n;
+        out[PACING] = FrameMath.pacingScore((n > 1) ? (double) absDelta / (n - 1) : 0, meanNs);
+
+        out[LOW1] = nsToFps(selectNth(frames, 0, n - 1, percentileIndex(n, 0.99)));
+        out[LOW01] = nsToFps(selectNth(frames, 0, n - 1, percentileIndex(n, 0.999)));
+    }
+
+    private static final class Resample extends RecursiveAction {
+        private final long[] a;
+        private final long[] b;
+        private final int blockA;
+        private final int blockB;
+        private final long stutterNs;
+        private final double[] deltas;
+        private final int iters;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        Resample(long[] a, long[] b, int blockA, int blockB, long stutterNs, double[] deltas, int iters,
+                 int from, int to, SplittableRandom random) {
+            this.a = a;
+            this.b = b;
+            this.blockA = blockA;
+            this.blockB = blockB;
+            this.stutterNs = stutterNs;
+            this.deltas = deltas;
+            this.iters = iters;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_ITERATIONS) {
+                int mid = (from + to) >>> 1;
+                // split() before forking keeps results independent of scheduling
+                Resample left = new Resample(a, b, blockA, blockB, stutterNs, deltas, iters, from, mid, random.split());
+                Resample right = new Resample(a, b, blockA, blockB, stutterNs, deltas, iters, mid, to, random.split());
+                invokeAll(left, right);
+                return;
+            }
+
+            long[] sa = new long[a.length];
+            long[] sb = new long[b.length];
+            double[] ma = new double[METRIC_COUNT];
+            double[] mb = new double[METRIC_COUNT];
+
+            for (int i = from; i < to; i++) {
+                resample(a, sa, blockA);
+                resample(b, sb, blockB);
+                BenchmarkComparison.compute(sa, sa.length, stutterNs, ma);
+                BenchmarkComparison.compute(sb, sb.length, stutterNs, mb);
+                for (int m = 0; m < METRIC_COUNT; m++) {
+                    deltas[m * iters + i] = mb[m] - ma[m];
+                }
+            }
+        }
+
+        // Circular block bootstrap
+        private void resample(long[] src, long[] dst, int block) {
+            int n = src.length;
+            int p = 0;
+            while (p < n) {
+                int start = random.nextInt(n);
+                int len = Math.min(block, n - p);
+                int first = Math.min(len, n - start);
+                System.arraycopy(src, start, dst, p, first);
+                if (first < len) {
+                    System.arraycopy(src, 0, dst, p + first, len - first);
+                }
+                p += len;
+            }
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Benchmark CSV writer that moves encoding, compression and file I/O to a background daemon thread.
+ * The render thread only copies characters into 16K-char chunks and hands full ones over; when the
+ * disk falls behind, new chunks are allocated instead of waiting, so frames never block on I/O.
+ *
+ * With {@code gzip} the file is a regular .csv.gz whose content is identical to the plain CSV.
+ * {@link #flush()} reaches the file (a gzip sync flush) without closing the stream.
+ *
+ * Errors from the background thread surface as IOExceptions on the next write, flush or close.
+ */
+public final class BenchmarkCsvWriter extends Writer {
+    private static final int CHUNK_CHARS = 16 * 1024;
+    private static final int MAX_FREE_CHUNKS = 8;
+
+    private static final Chunk END = new Chunk();
+
+    private final LinkedBlockingQueue<Chunk> full = new LinkedBlockingQueue<>();
+    private final ConcurrentLinkedQueue<Chunk> free = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private final Path file;
+    private final boolean gzip;
+
+    private Chunk current = new Chunk();
+    private boolean closed = false;
+
+    private volatile IOException failure = null;
+    private volatile long csvBytes = 0;
+
+    private BenchmarkCsvWriter(Path file, boolean gzip, Writer sink, CountingOutputStream counter) {
+        this.file = file;
+        this.gzip = gzip;
+
+        Thread t = new Thread(() -> drain(sink, counter), "PerformanceOverlay-BenchmarkWriter");
+        t.setDaemon(true);
+        this.thread = t;
+    }
+
+    public static BenchmarkCsvWriter open(Path file, boolean gzip) throws IOException {
+        OutputStream fileOut = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024);
+        OutputStream out = fileOut;
+        try {
+            if (gzip) {
+                out = new GZIPOutputStream(fileOut, 64 * 1024, true);
+            }
+        } catch (IOException e) {
+            fileOut.close();
+            throw e;
+        }
+
+        CountingOutputStream counter = new CountingOutputStream(out);
+        Writer sink = new OutputStreamWriter(counter, StandardCharsets.UTF_8);
+
+        BenchmarkCsvWriter w = new BenchmarkCsvWriter(file, gzip, sink, counter);
+        w.thread.start();
+        return w;
+    }
+
+    public boolean isCompressed() {
+        return gzip;
+    }
+
+    /**
+     * Uncompressed CSV size in bytes; final once {@link #close()} returned.
+     */
+    public long csvBytes() {
+        return csvBytes;
+    }
+
+    /**
+     * Size of the file on disk, or -1 if it can't be read. Call after {@link #close()}.
+     */
+    public long fileBytes() {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            int n = Math.min(len, CHUNK_CHARS - current.length);
+            System.arraycopy(cbuf, off, current.chars, current.length, n);
+            current.length += n;
+            off += n;
+            len -= n;
+            if (current.length == CHUNK_CHARS) {
+                handOff(false);
+            }
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            int n = Math.min(len, CHUNK_CHARS - current.length);
+            str.getChars(off, off + n, current.chars, current.length);
+            current.length += n;
+            off += n;
+            len -= n;
+            if (current.length == CHUNK_CHARS) {
+                handOff(false);
+            }
+        }
+    }
+
+    // Copies builders straight into the chunk instead of going through toString()
+    @Override
+    public Writer append(CharSequence csq) throws IOException {
+        if (!(csq instanceof StringBuilder sb)) {
+            return super.append(csq);
+        }
+
+        ensureOpen();
+        int off = 0;
+        int len = sb.length();
+        while (len > 0) {
+            int n = Math.min(len, CHUNK_CHARS - current.length);
+            sb.getChars(off, off + n, current.chars, current.length);
+            current.length += n;
+            off += n;
+            len -= n;
+            if (current.length == CHUNK_CHARS) {
+                handOff(false);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        handOff(true);
+    }
+
+    /**
+     * Hands over what's left, waits for the background thread to finish the file, then rethrows any
+     * error it hit. Safe to call more than once.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        handOff(true);
+        full.add(END);
+
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        IOException e = failure;
+        if (e != null) {
+            throw e;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Benchmark writer closed");
+        }
+        IOException e = failure;
+        if (e != null) {
+            throw e;
+        }
+    }
+
+    private void handOff(boolean flush) {
+        if (current.length == 0 && !flush) {
+            return;
+        }
+
+        current.flush = flush;
+        full.add(current);
+
+        Chunk next = free.poll();
+        current = (next != null) ? next : new Chunk();
+    }
+
+    // Background thread
+    private void drain(Writer sink, CountingOutputStream counter) {
+        try {
+            while (true) {
+                Chunk c = full.take();
+                if (c == END) {
+                    break;
+                }
+
+                if (failure == null) {
+                    try {
+                        sink.write(c.chars, 0, c.length);
+                        if (c.flush) {
+                            sink.flush();
+                        }
+                        csvBytes = counter.count;
+                    } catch (IOException e) {
+                        failure = e;
+                    }
+                }
+
+                c.length = 0;
+                c.flush = false;
+                if (free.size() < MAX_FREE_CHUNKS) {
+                    free.offer(c);
+                }
+            }
+        } catch (InterruptedException ignored) {
+        } finally {
+            try {
+                sink.close(); // finishes the gzip trailer
+                csvBytes = counter.count;
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+    }
+
+    private static final class Chunk {
+        final char[] chars = new char[CHUNK_CHARS];
+        int length = 0;
+        boolean flush = false;
+    }
+
+    // Counts the bytes going into the compressor, i.e. the plain CSV size
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long count = 0;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
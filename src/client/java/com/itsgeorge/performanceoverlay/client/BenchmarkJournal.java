@@ -0,0 +1,273 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only, memory-mapped record of every benchmark frame, kept next to the CSV while a run is
+ * recording. Writes are plain stores into mapped pages, so a crash or kill of the game loses nothing
+ * the kernel already has (an OS crash can still lose unwritten pages). The file grows in
+ * {@link #SEGMENT_SIZE} segments; nothing is flushed from the render thread.
+ *
+ * A clean stop deletes the journal. One left behind on the next launch belongs to an interrupted run
+ * and is replayed to rebuild that run's summary (see {@link FpsTracker#recoverBenchmarkJournals()}).
+ *
+ * Layout (version 1, little-endian):
+ * <pre>
+ * header ({@link #HEADER_SIZE} bytes)
+ *   0  int32   magic 0x4A424F50 ("POBJ")
+ *   4  int32   layout version (1)
+ *   8  int32   record size (32)
+ *  12  int32   state: 0 recording, 1 finished
+ *  16  int64   start, ms since epoch
+ *  24  int64   committed records (published after each record)
+ *  32  int32   stutter threshold (ms)
+ *  64  string  CSV file name
+ * 320  string  frame budgets (ms, comma separated)
+ * 448  string  low method
+ * (string = int32 byte length + UTF-8 bytes)
+ *
+ * records from {@link #HEADER_SIZE}
+ *   0  int64   elapsed since start at the end of the frame (ns)
+ *   8  int64   frametime (ns)
+ *  16  int32   JVM event flags ({@link RuntimeEventSampler})
+ *  20  int32   spike cause ({@link SpikeClassifier}, -1 for none)
+ *  24  int64   reserved (zero)
+ * </pre>
+ */
+public final class BenchmarkJournal {
+    public static final String EXTENSION = ".journal";
+
+    public static final int MAGIC = 0x4A424F50;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 4096;
+    public static final int RECORD_SIZE = 32;
+    public static final int SEGMENT_SIZE = 1 << 20;
+
+    private static final int RECORDS_PER_SEGMENT = SEGMENT_SIZE / RECORD_SIZE;
+
+    private static final int OFF_MAGIC = 0;
+    private static final int OFF_VERSION = 4;
+    private static final int OFF_RECORD_SIZE = 8;
+    private static final int OFF_STATE = 12;
+    private static final int OFF_START_WALL_MS = 16;
+    private static final int OFF_COMMITTED = 24;
+    private static final int OFF_THRESHOLD_MS = 32;
+    private static final int OFF_CSV_NAME = 64;
+    private static final int OFF_BUDGETS = 320;
+    private static final int OFF_LOW_METHOD = 448;
+
+    private static final int MAX_CSV_NAME = OFF_BUDGETS - OFF_CSV_NAME - 4;
+    private static final int MAX_BUDGETS = OFF_LOW_METHOD - OFF_BUDGETS - 4;
+    private static final int MAX_LOW_METHOD = 60;
+
+    private static final int STATE_RECORDING = 0;
+    private static final int STATE_FINISHED = 1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final Path path;
+
+    private MappedByteBuffer segment = null;
+    private long committed = 0;
+
+    private BenchmarkJournal(FileChannel channel, MappedByteBuffer header, Path path) {
+        this.channel = channel;
+        this.header = header;
+        this.path = path;
+    }
+
+    public static BenchmarkJournal create(Path file, Header h) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer b = ch.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            b.order(ByteOrder.LITTLE_ENDIAN);
+
+            b.putInt(OFF_MAGIC, MAGIC);
+            b.putInt(OFF_VERSION, VERSION);
+            b.putInt(OFF_RECORD_SIZE, RECORD_SIZE);
+            b.putInt(OFF_STATE, STATE_RECORDING);
+            b.putLong(OFF_START_WALL_MS, h.startWallMs());
+            b.putLong(OFF_COMMITTED, 0);
+            b.putInt(OFF_THRESHOLD_MS, h.stutterThresholdMs());
+            putString(b, OFF_CSV_NAME, MAX_CSV_NAME, h.csvName());
+            putString(b, OFF_BUDGETS, MAX_BUDGETS, h.frameBudgetsMs());
+            putString(b, OFF_LOW_METHOD, MAX_LOW_METHOD, h.lowMethod());
+
+            BenchmarkJournal j = new BenchmarkJournal(ch, b, file);
+            j.mapSegment(0);
+            return j;
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public long committed() {
+        return committed;
+    }
+
+    public void append(long elapsedNs, long frameNs, int jvmFlags, int spikeCause) throws IOException {
+        int slot = (int) (committed % RECORDS_PER_SEGMENT);
+        if (slot == 0 && committed > 0) {
+            mapSegment(committed / RECORDS_PER_SEGMENT);
+        }
+
+        int off = slot * RECORD_SIZE;
+        segment.putLong(off, elapsedNs);
+        segment.putLong(off + 8, frameNs);
+        segment.putInt(off + 16, jvmFlags);
+        segment.putInt(off + 20, spikeCause);
+
+        // Release: the record is visible before the count that covers it
+        TelemetryFile.LONGS.setRelease(header, OFF_COMMITTED, ++committed);
+    }
+
+    /**
+     * Clean stop: the CSV has its summary, so the journal is no longer needed.
+     */
+    public void finish() {
+        header.putInt(OFF_STATE, STATE_FINISHED);
+        close();
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Windows refuses while pages are still mapped; the finished flag makes the next launch delete it
+        }
+    }
+
+    /**
+     * Closes without deleting, e.g. after a write error; the next launch recovers what was written.
+     */
+    public void close() {
+        segment = null;
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void mapSegment(long index) throws IOException {
+        // Mapping past the end grows the file; the new pages read as zero
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + index * SEGMENT_SIZE, SEGMENT_SIZE);
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Reads the header of a journal left behind by an earlier launch. {@code finished} is set if that
+     * run stopped cleanly; {@code records} is how many frames were committed.
+     */
+    public static Header readHeader(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            return readHeader(ch);
+        }
+    }
+
+    /**
+     * Replays every committed record of a journal, oldest first, and returns its header.
+     */
+    public static Header read(Path file, RecordSink sink) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header h = readHeader(ch);
+            long records = h.records();
+
+            for (long seg = 0; seg * RECORDS_PER_SEGMENT < records; seg++) {
+                long first = seg * RECORDS_PER_SEGMENT;
+                int count = (int) Math.min(RECORDS_PER_SEGMENT, records - first);
+
+                MappedByteBuffer s = ch.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_SIZE + seg * SEGMENT_SIZE, (long) count * RECORD_SIZE);
+                s.order(ByteOrder.LITTLE_ENDIAN);
+
+                for (int i = 0; i < count; i++) {
+                    int off = i * RECORD_SIZE;
+                    sink.accept(s.getLong(off), s.getLong(off + 8), s.getInt(off + 16), s.getInt(off + 20));
+                }
+            }
+
+            return h;
+        }
+    }
+
+    private static Header readHeader(FileChannel ch) throws IOException {
+        long size = ch.size();
+        if (size < HEADER_SIZE) {
+            throw new IOException("Journal too small: " + size);
+        }
+
+        MappedByteBuffer b = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        b.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (b.getInt(OFF_MAGIC) != MAGIC) {
+            throw new IOException("Not a PerformanceOverlay benchmark journal");
+        }
+        int version = b.getInt(OFF_VERSION);
+        if (version != VERSION || b.getInt(OFF_RECORD_SIZE) != RECORD_SIZE) {
+            throw new IOException("Unsupported journal layout version " + version);
+        }
+
+        boolean finished = b.getInt(OFF_STATE) == STATE_FINISHED;
+
+        // Never trust the count past what actually reached the file
+        long committed = Math.max(0, b.getLong(OFF_COMMITTED));
+        committed = Math.min(committed, (size - HEADER_SIZE) / RECORD_SIZE);
+
+        return new Header(
+                getString(b, OFF_CSV_NAME, MAX_CSV_NAME),
+                b.getLong(OFF_START_WALL_MS),
+                b.getInt(OFF_THRESHOLD_MS),
+                getString(b, OFF_BUDGETS, MAX_BUDGETS),
+                getString(b, OFF_LOW_METHOD, MAX_LOW_METHOD),
+                finished,
+                finished ? 0 : committed
+        );
+    }
+
+    private static void putString(MappedByteBuffer b, int off, int max, String s) {
+        byte[] bytes = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
+        int n = Math.min(bytes.length, max);
+        b.putInt(off, n);
+        b.put(off + 4, bytes, 0, n);
+    }
+
+    private static String getString(MappedByteBuffer b, int off, int max) {
+        int n = Math.max(0, Math.min(b.getInt(off), max));
+        byte[] bytes = new byte[n];
+        b.get(off + 4, bytes, 0, n);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    public interface RecordSink {
+        void accept(long elapsedNs, long frameNs, int jvmFlags, int spikeCause);
+    }
+
+    /**
+     * Run settings the summary depends on, recorded at start so recovery doesn't use today's config.
+     */
+    public record Header(
+            String csvName,
+            long startWallMs,
+            int stutterThresholdMs,
+            String frameBudgetsMs,
+            String lowMethod,
+            boolean finished,
+            long records
+    ) {
+        public static Header start(String csvName, long startWallMs, int stutterThresholdMs,
+                                   String frameBudgetsMs, String lowMethod) {
+            return new Header(csvName, startWallMs, stutterThresholdMs, frameBudgetsMs, lowMethod, false, 0);
+        }
+    }
+}
@@ -0,0 +1,518 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Index of finished benchmark runs ({@code benchmarks/index.json}): run metadata, the summary and a
+ * 40-bucket frametime sketch per CSV, so runs can be listed, filtered and sorted without re-reading
+ * the CSVs.
+ *
+ * Stopping a benchmark adds its entry. If the index is missing or unreadable it is rebuilt once, in
+ * the background, by parsing the CSVs (plain and .gz) in the folder. Loading, rebuilding and saving
+ * run on one daemon thread; {@link #query} reads an immutable snapshot from any thread.
+ */
+public final class BenchmarkLibrary {
+    public static final String INDEX_FILE = "index.json";
+    public static final int INDEX_VERSION = 1;
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final DateTimeFormatter TS_HUMAN = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Path dir;
+    private final ExecutorService io = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "PerformanceOverlay-Library");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    private volatile List<Entry> entries = List.of();
+    private volatile boolean ready = false;
+    private boolean loadStarted = false;
+
+    public BenchmarkLibrary(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * Starts loading (or rebuilding) the index in the background; later calls do nothing.
+     */
+    public synchronized void ensureLoaded() {
+        if (loadStarted) {
+            return;
+        }
+        loadStarted = true;
+        io.execute(this::loadNow);
+    }
+
+    /**
+     * False while the index is being loaded or rebuilt.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<Entry> all() {
+        return entries;
+    }
+
+    /**
+     * Adds or replaces the entry for {@code e.file} and saves the index in the background.
+     */
+    public void add(Entry e) {
+        ensureLoaded();
+        io.execute(() -> {
+            List<Entry> next = new ArrayList<>(entries.size() + 1);
+            for (Entry old : entries) {
+                if (!old.file.equals(e.file)) {
+                    next.add(old);
+                }
+            }
+            next.add(e);
+            entries = List.copyOf(next);
+            save();
+        });
+    }
+
+    /**
+     * Parses {@code csv} in the background and adds it, e.g. a run whose summary was recovered.
+     */
+    public void addFile(Path csv) {
+        ensureLoaded();
+        io.execute(() -> {
+            try {
+                Entry e = parseCsv(csv);
+                if (e != null) {
+                    add(e);
+                }
+            } catch (IOException | RuntimeException ignored) {
+            }
+        });
+    }
+
+    public List<Entry> query(Filter filter, Sort sort, boolean descending) {
+        Comparator<Entry> cmp = sort.comparator();
+        if (descending) {
+            cmp = cmp.reversed();
+        }
+
+        List<Entry> out = new ArrayList<>();
+        for (Entry e : entries) {
+            if (filter.matches(e)) {
+                out.add(e);
+            }
+        }
+        out.sort(cmp);
+        return out;
+    }
+
+    public Entry find(String file) {
+        for (Entry e : entries) {
+            if (e.file.equals(file)) {
+                return e;
+            }
+        }
+        return null;
+    }
+
+    public Path dir() {
+        return dir;
+    }
+
+    // ---------- Background work ----------
+
+    private void loadNow() {
+        Path index = dir.resolve(INDEX_FILE);
+
+        List<Entry> loaded = null;
+        boolean dropped = false;
+        if (Files.exists(index)) {
+            try {
+                IndexFile f = GSON.fromJson(Files.readString(index, StandardCharsets.UTF_8), IndexFile.class);
+                if (f != null && f.version == INDEX_VERSION && f.runs != null) {
+                    loaded = new ArrayList<>();
+                    for (Entry e : f.runs) {
+                        // Drop runs whose CSV was deleted since
+                        if (e != null && e.file != null && Files.exists(dir.resolve(e.file))) {
+                            loaded.add(e);
+                        } else {
+                            dropped = true;
+                        }
+                    }
+                }
+            } catch (IOException | RuntimeException ignored) {
+                // Corrupt index: rebuild below
+            }
+        }
+
+        boolean rebuilt = loaded == null;
+        if (rebuilt) {
+            loaded = rebuild();
+        }
+
+        // Adds queue behind this task on the same thread, so nothing was added meanwhile
+        entries = List.copyOf(loaded);
+        ready = true;
+
+        if (rebuilt || dropped) {
+            save();
+        }
+    }
+
+    private List<Entry> rebuild() {
+        List<Entry> out = new ArrayList<>();
+
+        List<Path> files;
+        try (Stream<Path> s = Files.list(dir)) {
+            files = s.filter(BenchmarkLibrary::isBenchmarkCsv).toList();
+        } catch (IOException e) {
+            return out;
+        }
+
+        for (Path f : files) {
+            try {
+                Entry e = parseCsv(f);
+                if (e != null) {
+                    out.add(e);
+                }
+            } catch (IOException | RuntimeException ignored) {
+                // Unreadable file; skip it
+            }
+        }
+
+        return out;
+    }
+
+    private void save() {
+        IndexFile f = new IndexFile();
+        f.runs = new ArrayList<>(entries);
+
+        Path index = dir.resolve(INDEX_FILE);
+        Path tmp = dir.resolve(INDEX_FILE + ".tmp");
+        try {
+            Files.createDirectories(dir);
+            Files.writeString(tmp, GSON.toJson(f), StandardCharsets.UTF_8);
+            Files.move(tmp, index, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ignored) {
+        }
+    }
+
+    static boolean isBenchmarkCsv(Path f) {
+        String name = f.getFileName().toString();
+        return name.startsWith("benchmark_") && (name.endsWith(".csv") || name.endsWith(".csv.gz"))
+                && !name.endsWith(".recovered.csv");
+    }
+
+    /**
+     * Builds an entry from a benchmark CSV: header and {@code # SUMMARY} lines for the values, the
+     * frame_ms column for the sketch. Returns null for a run without a summary.
+     */
+    static Entry parseCsv(Path file) throws IOException {
+        Entry e = new Entry();
+        e.file = file.getFileName().toString();
+        e.sketch = new int[FrametimeHistogram.BUCKETS];
+
+        boolean summary = false;
+
+        try (InputStream raw = Files.newInputStream(file);
+             InputStream in = e.file.endsWith(".gz") ? new GZIPInputStream(raw, 64 * 1024) : raw;
+             BufferedReader r = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024)) {
+
+            String line;
+            while ((line = r.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+
+                if (line.charAt(0) == '#') {
+                    if (line.equals("# SUMMARY")) {
+                        summary = true;
+                        continue;
+                    }
+                    int colon = line.indexOf(':');
+                    if (colon > 2) {
+                        applyField(e, line.substring(2, colon), line.substring(colon + 1).trim(), summary);
+                    }
+                    continue;
+                }
+
+                char c = line.charAt(0);
+                if (c < '0' || c > '9') {
+                    continue; // column header
+                }
+
+                int a = line.indexOf(',');
+                int b = (a < 0) ? -1 : line.indexOf(',', a + 1);
+                if (b < 0) {
+                    continue;
+                }
+                try {
+                    double ms = Double.parseDouble(line.substring(a + 1, b));
+                    e.sketch[FrametimeHistogram.bucketOf(Math.round(ms * FrameMath.NS_PER_MS))]++;
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+
+        if (!summary) {
+            return null;
+        }
+
+        e.dateMs = parseDateMs(e.date);
+        return e;
+    }
+
+    private static void applyField(Entry e, String key, String value, boolean summary) {
+        if (!summary) {
+            switch (key) {
+                case "Date" -> e.date = value;
+                case "ModVersion" -> e.modVersion = value;
+                case "Minecraft" -> e.minecraft = value;
+                case "Preset" -> e.preset = value;
+                case "LowMethod" -> e.lowMethod = value;
+                case "DurationSec" -> e.durationSec = parseInt(value);
+                default -> {
+                }
+            }
+            return;
+        }
+
+        switch (key) {
+            case "FramesLogged" -> e.frames = parseLong(value);
+            case "AvgFPS" -> e.avgFps = parseDouble(value);
+            case "Low1FPS" -> e.low1Fps = parseDouble(value);
+            case "Low01FPS" -> e.low01Fps = parseDouble(value);
+            case "Stutters" -> e.stutters = parseInt(value);
+            case "MaxSpikeMs" -> e.maxSpikeMs = parseDouble(value);
+            case "FrameDeltaMs" -> e.frameDeltaMs = parseDouble(value);
+            case "FrametimeSdMs" -> e.frametimeSdMs = parseDouble(value);
+            case "PacingScore" -> e.pacingScore = parseDouble(value);
+            case "HitchPeriodSec" -> e.hitchPeriodSec = parseDouble(value);
+            default -> {
+            }
+        }
+    }
+
+    private static int parseInt(String s) {
+        try {
+            return Integer.parseInt(s.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static long parseLong(String s) {
+        try {
+            return Long.parseLong(s.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static double parseDouble(String s) {
+        try {
+            return Double.parseDouble(s.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    static long parseDateMs(String date) {
+        if (date == null || date.isEmpty()) {
+            return 0;
+        }
+        try {
+            return LocalDateTime.parse(date, TS_HUMAN).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+
+    // ---------- Model ----------
+
+    private static final class IndexFile {
+        int version = INDEX_VERSION;
+        List<Entry> runs = new ArrayList<>();
+    }
+
+    /**
+     * One indexed run. Plain fields for Gson; treat as read-only once added.
+     */
+    public static final class Entry {
+        public String file = "";
+        public String date = "";
+        public long dateMs = 0;
+        public String minecraft = "";
+        public String modVersion = "";
+        public String preset = "";
+        public String lowMethod = "";
+        public int durationSec = 0;
+        public long frames = 0;
+
+        public double avgFps;
+        public double low1Fps;
+        public double low01Fps;
+        public int stutters;
+        public double maxSpikeMs;
+        public double frameDeltaMs;
+        public double frametimeSdMs;
+        public double pacingScore;
+        public double hitchPeriodSec;
+
+        // Frame counts per quarter-octave bucket from ~1 ms (see FrametimeHistogram)
+        public int[] sketch = new int[0];
+
+        /**
+         * Frametime at quantile {@code q} (0..1) from the sketch, at bucket resolution; 0 if empty.
+         */
+        public double sketchQuantileMs(double q) {
+            long total = 0;
+            for (int c : sketch) {
+                total += c;
+            }
+            if (total == 0) {
+                return 0;
+            }
+
+            long rank = (long) Math.ceil(Math.max(0.0, Math.min(1.0, q)) * total);
+            long acc = 0;
+            for (int b = 0; b < sketch.length; b++) {
+                acc += sketch[b];
+                if (acc >= Math.max(1, rank)) {
+                    return FrametimeHistogram.bucketLowerNs(b + 1) / (double) FrameMath.NS_PER_MS;
+                }
+            }
+            return FrametimeHistogram.bucketLowerNs(sketch.length) / (double) FrameMath.NS_PER_MS;
+        }
+
+        static Entry of(String file, LocalDateTime date, String minecraft, String modVersion, String preset,
+                        String lowMethod, int durationSec, long frames, FpsTracker.BenchmarkSummary s,
+                        int[] sketch) {
+            Entry e = new Entry();
+            e.file = file;
+            e.date = date.format(TS_HUMAN);
+            e.dateMs = date.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            e.minecraft = minecraft;
+            e.modVersion = modVersion;
+            e.preset = preset;
+            e.lowMethod = lowMethod;
+            e.durationSec = durationSec;
+            e.frames = frames;
+            e.avgFps = s.avg();
+            e.low1Fps = s.low1();
+            e.low01Fps = s.low01();
+            e.stutters = s.stutters();
+            e.maxSpikeMs = s.maxSpikeMs();
+            e.frameDeltaMs = s.frameDeltaMs();
+            e.frametimeSdMs = s.frametimeSdMs();
+            e.pacingScore = s.pacingScore();
+            e.hitchPeriodSec = s.hitchPeriodSec();
+            e.sketch = sketch;
+            return e;
+        }
+    }
+
+    public enum Sort {
+        DATE, AVG, LOW1, LOW01, STUTTERS, PACING;
+
+        Comparator<Entry> comparator() {
+            return switch (this) {
+                case DATE -> Comparator.comparingLong(e -> e.dateMs);
+                case AVG -> Comparator.comparingDouble(e -> e.avgFps);
+                case LOW1 -> Comparator.comparingDouble(e -> e.low1Fps);
+                case LOW01 -> Comparator.comparingDouble(e -> e.low01Fps);
+                case STUTTERS -> Comparator.comparingInt(e -> e.stutters);
+                case PACING -> Comparator.comparingDouble(e -> e.pacingScore);
+            };
+        }
+    }
+
+    /**
+     * Run filter. Empty fields match everything; text fields match case-insensitively as substrings,
+     * {@code fromMs}/{@code toMs} bound the run date (0 = open).
+     */
+    public record Filter(String minecraft, String modVersion, String preset, String text, long fromMs, long toMs) {
+        public static final Filter ALL = new Filter("", "", "", "", 0, 0);
+
+        /**
+         * Parses search-box text: {@code mc:1.21 mod:1.2 preset:default date:2026-10} restrict one
+         * field each; other words must appear in any field (file name and date included).
+         */
+        public static Filter parse(String query) {
+            String mc = "";
+            String mod = "";
+            String preset = "";
+            StringBuilder text = new StringBuilder();
+
+            for (String token : query.trim().split("\\s+")) {
+                if (token.isEmpty()) {
+                    continue;
+                }
+                String lower = token.toLowerCase(Locale.ROOT);
+                if (lower.startsWith("mc:")) {
+                    mc = token.substring(3);
+                } else if (lower.startsWith("mod:")) {
+                    mod = token.substring(4);
+                } else if (lower.startsWith("preset:")) {
+                    preset = token.substring(7);
+                } else if (lower.startsWith("date:")) {
+                    text.append(' ').append(token.substring(5));
+                } else {
+                    text.append(' ').append(token);
+                }
+            }
+
+            return new Filter(mc, mod, preset, text.toString().trim(), 0, 0);
+        }
+
+        public boolean matches(Entry e) {
+            if (!contains(e.minecraft, minecraft) || !contains(e.modVersion, modVersion) || !contains(e.preset, preset)) {
+                return false;
+            }
+            if (fromMs > 0 && e.dateMs < fromMs) {
+                return false;
+            }
+            if (toMs > 0 && e.dateMs > toMs) {
+                return false;
+            }
+            if (!text.isEmpty()) {
+                for (String word : text.split(" ")) {
+                    if (!contains(e.file, word) && !contains(e.date, word) && !contains(e.minecraft, word)
+                            && !contains(e.modVersion, word) && !contains(e.preset, word)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private static boolean contains(String value, String needle) {
+            if (needle == null || needle.isEmpty()) {
+                return true;
+            }
+            return value != null && value.toLowerCase(Locale.ROOT).contains(needle.toLowerCase(Locale.ROOT));
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.client.gui.components.Button;
+import net.minecraft.client.gui.components.EditBox;
+import net.minecraft.client.gui.screens.Screen;
+import net.minecraft.network.chat.Component;
+
+import java.util.List;
+
+/**
+ * Lists indexed benchmark runs from {@link BenchmarkLibrary}. The search box takes free words and
+ * {@code mc:}, {@code mod:}, {@code preset:} and {@code date:} terms (see {@link BenchmarkLibrary.Filter#parse}).
+ * Rows are buttons so a click selects a run; its details show under the list. Two runs marked as
+ * A and B open in {@link BenchmarkCompareScreen}.
+ */
+public final class BenchmarkLibraryScreen extends Screen {
+    private static final int MARGIN = 20;
+    private static final int LIST_TOP = 62;
+    private static final int ROW_H = 12;
+
+    private static final int COLOR_TEXT = 0xFFFFFFFF;
+    private static final int COLOR_DIM = 0xFFAAAAAA;
+    private static final int COLOR_SELECTED = 0x6055FF55;
+
+    // Column x offsets from the list's left edge
+    private static final int COL_DATE = 4;
+    private static final int COL_MC = 104;
+    private static final int COL_MOD = 154;
+    private static final int COL_PRESET = 204;
+    private static final int COL_AVG = 264;
+    private static final int COL_LOW1 = 304;
+    private static final int COL_LOW01 = 344;
+    private static final int COL_STUTTERS = 384;
+    private static final int COL_PACING = 420;
+
+    private final Screen parent;
+    private final BenchmarkLibrary library;
+
+    private String query = "";
+    private BenchmarkLibrary.Sort sort = BenchmarkLibrary.Sort.DATE;
+    private boolean descending = true;
+
+    private List<BenchmarkLibrary.Entry> results = List.of();
+    private List<BenchmarkLibrary.Entry> resultsSource = null;
+    private boolean resultsDirty = true;
+
+    private int scroll = 0;
+    private String selected = null;
+    private String compareA = null;
+    private String compareB = null;
+
+    private Button[] rows = new Button[0];
+    private Button compareButton = null;
+
+    public BenchmarkLibraryScreen(Screen parent, BenchmarkLibrary library) {
+        super(Component.literal("Benchmark library"));
+        this.parent = parent;
+        this.library = library;
+    }
+
+    @Override
+    protected void init() {
+        int listW = width - MARGIN * 2;
+
+        EditBox search = new EditBox(font, MARGIN, 22, listW - 150, 18, Component.literal("Search"));
+        search.setHint(Component.literal("mc:1.21 mod:1.2 preset:default date:2026-10 ..."));
+        search.setValue(query);
+        search.setResponder(v -> {
+            query = v;
+            resultsDirty = true;
+            scroll = 0;
+        });
+        addRenderableWidget(search);
+
+        addRenderableWidget(Button.builder(sortLabel(), b -> {
+            sort = BenchmarkLibrary.Sort.values()[(sort.ordinal() + 1) % BenchmarkLibrary.Sort.values().length];
+            b.setMessage(sortLabel());
+            resultsDirty = true;
+        }).bounds(MARGIN + listW - 146, 21, 100, 20).build());
+
+        addRenderableWidget(Button.builder(orderLabel(), b -> {
+            descending = !descending;
+            b.setMessage(orderLabel());
+            resultsDirty = true;
+        }).bounds(MARGIN + listW - 42, 21, 42, 20).build());
+
+        int visible = Math.max(0, (height - 64 - LIST_TOP) / ROW_H);
+        rows = new Button[visible];
+        for (int i = 0; i < visible; i++) {
+            int row = i;
+            rows[i] = addRenderableWidget(Button.builder(Component.empty(), b -> select(row))
+                    .bounds(MARGIN, LIST_TOP + i * ROW_H, listW, ROW_H).build());
+        }
+
+        int w = 80;
+        int gap = 4;
+        int bx = (width - (w * 4 + gap * 3)) / 2;
+        int by = height - 26;
+
+        addRenderableWidget(Button.builder(Component.literal("Set A"), b -> compareA = selected)
+                .bounds(bx, by, w, 20).build());
+        addRenderableWidget(Button.builder(Component.literal("Set B"), b -> compareB = selected)
+                .bounds(bx + (w + gap), by, w, 20).build());
+        compareButton = addRenderableWidget(Button.builder(Component.literal("Compare"), b -> compare())
+                .bounds(bx + (w + gap) * 2, by, w, 20).build());
+        addRenderableWidget(Button.builder(Component.literal("Done"), b -> onClose())
+                .bounds(bx + (w + gap) * 3, by, w, 20).build());
+
+        setFocused(search);
+    }
+
+    @Override
+    public void onClose() {
+        minecraft.setScreen(parent);
+    }
+
+    @Override
+    public boolean mouseScrolled(double mouseX, double mouseY, double scrollX, double scrollY) {
+        int max = Math.max(0, results.size() - rows.length);
+        scroll = Math.max(0, Math.min(max, scroll - (int) Math.signum(scrollY) * 3));
+        return true;
+    }
+
+    @Override
+    public void render(GuiGraphics g, int mouseX, int mouseY, float partialTick) {
+        refreshResults();
+
+        for (int i = 0; i < rows.length; i++) {
+            rows[i].visible = scroll + i < results.size();
+        }
+        compareButton.active = compareA != null && compareB != null && !compareA.equals(compareB);
+
+        super.render(g, mouseX, mouseY, partialTick);
+
+        g.drawCenteredString(font, title, width / 2, 8, COLOR_TEXT);
+
+        int x = MARGIN;
+        int headerY = LIST_TOP - 11;
+        g.drawString(font, "Date", x + COL_DATE, headerY, COLOR_DIM);
+        g.drawString(font, "MC", x + COL_MC, headerY, COLOR_DIM);
+        g.drawString(font, "Mod", x + COL_MOD, headerY, COLOR_DIM);
+        g.drawString(font, "Preset", x + COL_PRESET, headerY, COLOR_DIM);
+        g.drawString(font, "Avg", x + COL_AVG, headerY, COLOR_DIM);
+        g.drawString(font, "1%", x + COL_LOW1, headerY, COLOR_DIM);
+        g.drawString(font, "0.1%", x + COL_LOW01, headerY, COLOR_DIM);
+        g.drawString(font, "Stut", x + COL_STUTTERS, headerY, COLOR_DIM);
+        g.drawString(font, "Pacing", x + COL_PACING, headerY, COLOR_DIM);
+
+        for (int i = 0; i < rows.length && scroll + i < results.size(); i++) {
+            BenchmarkLibrary.Entry e = results.get(scroll + i);
+            int y = LIST_TOP + i * ROW_H + 2;
+
+            if (e.file.equals(selected)) {
+                g.fill(x, y - 2, width - MARGIN, y - 2 + ROW_H, COLOR_SELECTED);
+            }
+
+            g.drawString(font, shortDate(e.date), x + COL_DATE, y, COLOR_TEXT);
+            g.drawString(font, e.minecraft, x + COL_MC, y, COLOR_TEXT);
+            g.drawString(font, e.modVersion, x + COL_MOD, y, COLOR_TEXT);
+            g.drawString(font, e.preset, x + COL_PRESET, y, COLOR_TEXT);
+            g.drawString(font, String.valueOf(Fmt.roundInt(e.avgFps)), x + COL_AVG, y, COLOR_TEXT);
+            g.drawString(font, String.valueOf(Fmt.roundInt(e.low1Fps)), x + COL_LOW1, y, COLOR_TEXT);
+            g.drawString(font, String.valueOf(Fmt.roundInt(e.low01Fps)), x + COL_LOW01, y, COLOR_TEXT);
+            g.drawString(font, String.valueOf(e.stutters), x + COL_STUTTERS, y, COLOR_TEXT);
+            g.drawString(font, String.valueOf(Fmt.roundInt(e.pacingScore)), x + COL_PACING, y, COLOR_TEXT);
+        }
+
+        int infoY = height - 58;
+        String status = library.isReady()
+                ? results.size() + " of " + library.all().size() + " runs"
+                : "Indexing benchmarks folder...";
+        if (compareA != null || compareB != null) {
+            status += "    A: " + (compareA != null ? compareA : "-") + "  B: " + (compareB != null ? compareB : "-");
+        }
+        g.drawString(font, status, MARGIN, infoY, COLOR_DIM);
+
+        BenchmarkLibrary.Entry sel = (selected != null) ? library.find(selected) : null;
+        if (sel != null) {
+            g.drawString(font, sel.file + "  (" + sel.frames + " frames, " + sel.lowMethod + ")",
+                    MARGIN, infoY + 11, COLOR_TEXT);
+            g.drawString(font, "p50 " + Fmt.ms1(sel.sketchQuantileMs(0.50))
+                            + " ms  p99 " + Fmt.ms1(sel.sketchQuantileMs(0.99))
+                            + " ms  max " + Fmt.ms1(sel.maxSpikeMs)
+                            + " ms  sd " + Fmt.ms1(sel.frametimeSdMs)
+                            + " ms  hitch period " + (sel.hitchPeriodSec > 0 ? Fmt.f1(sel.hitchPeriodSec) + " s" : "none"),
+                    MARGIN, infoY + 22, COLOR_DIM);
+        }
+    }
+
+    private void refreshResults() {
+        List<BenchmarkLibrary.Entry> source = library.all();
+        if (!resultsDirty && source == resultsSource) {
+            return;
+        }
+        resultsSource = source;
+        resultsDirty = false;
+
+        results = library.query(BenchmarkLibrary.Filter.parse(query), sort, descending);
+        scroll = Math.max(0, Math.min(scroll, results.size() - rows.length));
+    }
+
+    private void select(int row) {
+        int idx = scroll + row;
+        if (idx < results.size()) {
+            String file = results.get(idx).file;
+            selected = file.equals(selected) ? null : file;
+        }
+    }
+
+    private void compare() {
+        if (compareA != null && compareB != null) {
+            minecraft.setScreen(new BenchmarkCompareScreen(this,
+                    library.dir().resolve(compareA), library.dir().resolve(compareB)));
+        }
+    }
+
+    private Component sortLabel() {
+        return Component.literal("Sort: " + switch (sort) {
+            case DATE -> "Date";
+            case AVG -> "Avg FPS";
+            case LOW1 -> "1% Low";
+            case LOW01 -> "0.1% Low";
+            case STUTTERS -> "Stutters";
+            case PACING -> "Pacing";
+        });
+    }
+
+    private Component orderLabel() {
+        return Component.literal(descending ? "Desc" : "Asc");
+    }
+
+    private static String shortDate(String date) {
+        return (date != null && date.length() >= 16) ? date.substring(0, 16) : String.valueOf(date);
+    }
+}
@@ -0,0 +1,1988 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import static com.itsgeorge.performanceoverlay.client.FrameMath.NS_PER_MS;
+import static com.itsgeorge.performanceoverlay.client.FrameMath.NS_PER_SEC;
+import static com.itsgeorge.performanceoverlay.client.FrameMath.nsToFps;
+import static com.itsgeorge.performanceoverlay.client.FrameMath.nsToMs;
+
+/**
+ * The metrics shipped with the mod, in overlay / CSV order. Typed fields let the tracker read
+ * values it needs outside the registry (colouring, published metrics, benchmark attribution).
+ */
+final class BuiltinMetrics {
+    final Fps fps = new Fps();
+    final Avg avg = new Avg();
+    final Low low1 = new Low("low1", "1%", 0.01);
+    final Low low01 = new Low("low01", "0.1%", 0.001);
+    final Frametime frametime = new Frametime();
+    final Mspt mspt = new Mspt();
+    final Stutters stutters = new Stutters();
+    final MaxSpike maxSpike = new MaxSpike();
+    final Budgets budgets = new Budgets();
+    final Pacing pacing = new Pacing();
+    final HitchPeriod hitchPeriod = new HitchPeriod();
+    final Quantiles quantiles = new Quantiles();
+    final FrametimeHistogram histogram = new FrametimeHistogram();
+    final Gc gc = new Gc();
+    final Memory memory = new Memory();
+    final SystemLoad systemLoad = new SystemLoad();
+    final JvmEvents jvmEvents = new JvmEvents();
+    final SpikeCauses spikeCauses = new SpikeCauses(jvmEvents);
+    final Contention contention = new Contention();
+    final ThreadCpu threadCpu = new ThreadCpu();
+    final Proc proc = new Proc();
+    final SelfOverhead selfOverhead = new SelfOverhead();
+
+    // Registry order is also the CSV column order: new metrics with CSV columns go at the end,
+    // so existing columns never move
+    final MetricRegistry registry = new MetricRegistry()
+            .register(fps)
+            .register(avg)
+            .register(low1)
+            .register(low01)
+            .register(frametime)
+            .register(stutters)
+            .register(maxSpike)
+            .register(hitchPeriod)
+            .register(quantiles)
+            .register(histogram)
+            .register(gc)
+            .register(memory)
+            .register(systemLoad)
+            .register(jvmEvents)
+            .register(contention)
+            .register(threadCpu)
+            .register(proc)
+            .register(selfOverhead)
+            .register(mspt)
+            .register(budgets)
+            .register(pacing)
+            .register(spikeCauses);
+
+    private static long secToNs(int sec) {
+        return (long) sec * NS_PER_SEC;
+    }
+
+    private static boolean colorTarget(OverlayConfig cfg, OverlayConfig.ColorTarget target) {
+        return cfg.colorThresholds && cfg.colorTarget == target;
+    }
+
+    // ---------- Frame window metrics ----------
+
+    static final class Fps implements Metric {
+        private double value = 0;
+
+        double value() {
+            return value;
+        }
+
+        public String id() {
+            return "fps";
+        }
+
+        public String label() {
+            return "Show FPS";
+        }
+
+        public String[] tooltip() {
+            return new String[]{"Show current FPS (smoothed)."};
+        }
+
+        public boolean isShown(OverlayConfig cfg) {
+            return cfg.showFps;
+        }
+
+        public void setShown(OverlayConfig cfg, boolean shown) {
+            cfg.showFps = shown;
+        }
+
+        public int row() {
+            return 0;
+        }
+
+        public long windowNs(OverlayConfig cfg) {
+            return (long) cfg.fpsWindowMs * NS_PER_MS;
+        }
+
+        public int updateIntervalMs(OverlayConfig cfg) {
+            return Fmt.clamp(cfg.fpsUpdateMs, 50, 5000);
+        }
+
+        public boolean isRequired(MetricContext ctx) {
+            return ctx.exporting() || ctx.apiReading() || colorTarget(ctx.config(), OverlayConfig.ColorTarget.FPS);
+        }
+
+        public void update(MetricContext ctx, FrameWindow w) {
+            value = (w.count() >= 2 && w.sumNs() > 0)
+                    ? (double) w.count() * (double) NS_PER_SEC / (double) w.sumNs()
+                    : nsToFps(ctx.lastFrameNs());
+        }
+
+        public void format(StringBuilder sb) {
+            sb.append("FPS: ").append(Fmt.roundInt(value));
+        }
+
+        public String[] csvColumns() {
+            return new String[]{"fps_smoothed"};
+        }
+
+        public void appendCsv(StringBuilder sb) {
+            sb.append(',').append(Fmt.f1(value));
+        }
+
+        public void reset() {
+            value = 0;
+        }
+    }
+
+    static final class Frametime implements Metric {
+        private double valueMs = 0;
+
+        double valueMs() {
+            return valueMs;
+        }
+
+        public String id() {
+            return "frametime";
+        }
+
+        public String label() {
+            return "Show Frametime (ms)";
+        }
+
+        public String[] tooltip() {
+            return new String[]{"Show frametime in milliseconds. Lower = smoother."};
+        }
+
+        public boolean isShown(OverlayConfig cfg) {
+            return cfg.showFrametime;
+        }
+
+        public void setShown(OverlayConfig cfg, boolean shown) {
+            cfg.showFrametime = shown;
+        }
+
+        public int row() {
+            return 0;
+        }
+
+        public long windowNs(OverlayConfig cfg) {
+            return (long) cfg.fpsWindowMs * NS_PER_MS;
+        }
+
+        public int updateIntervalMs(OverlayConfig cfg) {
+            return Fmt.clamp(cfg.frametimeUpdateMs, 50, 5000);
+        }
+
+        public boolean isRequired(MetricContext ctx) {
+            return ctx.exporting() || ctx.apiReading();
+        }
+
+        public void update(MetricContext ctx, FrameWindow w) {
+            valueMs = (w.count() >= 2 && w.sumNs() > 0)
+                    ? ((double) w.sumNs() / (double) w.count()) / (double) NS_PER_MS
+                    : nsToMs(ctx.lastFrameNs());
+        }
+
+        public void format(StringBuilder sb) {
+            sb.append("FT: ").append(Fmt.ms1(valueMs)).append("ms");
+        }
+
+        public void reset() {
+            valueMs = 0;
+        }
+    }
+
+    /**
+     * Integrated server tick time, averaged over the last second. -1 when no server ticked
+     * (multiplayer, main menu).
+     */
+    static final class Mspt implements Metric {
+        private long accNs = 0;
+        private int accTicks = 0;
+
+        private double valueMs = -1;
+
+        void addTick(long tickNs) {
+            accNs += tickNs;
+            accTicks++;
+        }
+
+        double valueMs() {
+            return valueMs;
+        }
+
+        public String id() {
+            return "mspt";
+        }
+
+        public String label() {
+            return "Show MSPT (singleplayer)";
+        }
+
+        public String[] tooltip() {
+            return new String[]{
+                    "Average integrated server tick time (ms). Over 50 = the server can't keep up.",
+                    "N/A on multiplayer servers."
+            };
+        }
+
+        public boolean isShown(OverlayConfig cfg) {
+            return cfg.showMspt;
+        }
+
+        public void setShown(OverlayConfig cfg, boolean shown) {
+            cfg.showMspt = shown;
+        }
+
+        public int row() {
+            return 0;
+        }
+
+        public int updateIntervalMs(OverlayConfig cfg) {
+            return 1000;
+        }
+
+        public boolean isRequired(MetricContext ctx) {
+            return ctx.exporting() || ctx.apiReading();
+        }
+
+        public void update(MetricContext ctx, FrameWindow w) {
+            valueMs = (accTicks > 0) ? nsToMs(accNs / accTicks) : -1;
+            accNs = 0;
+            accTicks = 0;
+        }
+
+        public void format(StringBuilder sb) {
+            sb.append("MSPT: ").append(valueMs >= 0 ? Fmt.ms1(valueMs) : "N/A");
+        }
+
+        public String[] csvColumns() {
+            return new String[]{"mspt"};
+        }
+
+        public void appendCsv(StringBuilder sb) {
+            sb.append(',').append(valueMs >= 0 ? Fmt.ms3(valueMs) : "-1");
+        }
+
+        public void reset() {
+            accNs = 0;
+            accTicks = 0;
+            valueMs = -1;
+        }
+    }
+
+    static final class Avg implements Metric {
+        private double value = 0;
+
+        double value() {
+            return value;
+        }
+
+        public String id() {
+            return "avg";
+        }
+
+        public String label() {
+            return "Show Avg FPS";
+        }
+
+        public String[] tooltip() {
+            return new String[]{"Show average FPS over the Avg window."};
+        }
+
+        public boolean isShown(OverlayConfig cfg) {
+            return cfg.showAvg;
+        }
+
+        public void setShown(OverlayConfig cfg, boolean shown) {
+            cfg.showAvg = shown;
+        }
+
+        public int row() {
+            return 0;
+        }
+
+        public long windowNs(OverlayConfig cfg) {
+            return secToNs(cfg.avgWindowSec);
+        }
+
+        public int updateIntervalMs(OverlayConfig cfg) {
+            return Fmt.clamp(cfg.avgUpdateMs, 100, 10000);
+        }
+
+        public boolean isRequired(MetricContext ctx) {
+            return ctx.exporting() || ctx.apiReading();
+        }
+
+        public void update(MetricContext ctx, FrameWindow w) {
+            value = (w.count() >= 2 && w.sumNs() > 0)
+                    ? (double) w.count() * (double) NS_PER_SEC / (double) w.sumNs()
+                    : 0;
+        }
+
+        public void format(StringBuilder sb) {
+            sb.append("Avg: ").append(Fmt.roundInt(value));
+        }
+
+        public String[] csvColumns() {
+            return new String[]{"avg_fps"};
+        }
+
+        public void appendCsv(StringBuilder sb) {
+            sb.append(',').append(Fmt.f1(value));
+        }
+
+        public void reset() {
+            value = 0;
+        }
+    }
+
+    static final class Low implements Metric {
+        private final String id;
+        private final String name;
+        private final double worstFraction;
+
+        private double value = 0;
+
+        // TIME_WEIGHTED only: kept up to date per frame
+        private final DurationHistogram durations = new DurationHistogram();
+        private final SlidingWindow window = new SlidingWindow(new SlidingWindow.Sink() {
+            public void add(long frameNs) {
+                durations.add(frameNs);
+            }
+
+            public void remove(long frameNs) {
+                durations.remove(frameNs);
+            }
+
+            public void clear() {
+                durations.clear();
+            }
+        });
+
+        Low(String id, String name, double worstFraction) {
+            this.id = id;
+            this.name = name;
+            this.worstFraction = worstFraction;
+        }
+
+        double value() {
+            return value;
+        }
+
+        private boolean isOnePercent() {
+            return worstFraction >= 0.01;
+        }
+
+        public String id() {
+            return id;
+        }
+
+        public String label() {
+            return "Show " + name + " Low";
+        }
+
+        public String[] tooltip() {
+            return new String[]{isOnePercent()
+                    ? "Show 1% Low FPS (stutter indicator)."
+                    : "Show 0.1% Low FPS (micro-freeze indicator)."};
+        }
+
+        public boolean isShown(OverlayConfig cfg) {
+            return isOnePercent() ? cfg.show1Low : cfg.show01Low;
+        }
+
+        public void setShown(OverlayConfig cfg, boolean shown) {
+            if (isOnePercent()) {
+                cfg.show1Low = shown;
+            } else {
+                cfg.show01Low = shown;
+            }
+        }
+
+        public int row() {
+            return 1;
+        }
+
+        public long windowNs(OverlayConfig cfg) {
+            return secToNs(isOnePercent() ? cfg.low1WindowSec : cfg.low01WindowSec);
+        }
+
+        public int updateIntervalMs(OverlayConfig cfg) {
+            return Fmt.clamp(isOnePercent() ? cfg.low1UpdateMs : cfg.low01UpdateMs, 100, 10000);
+        }
+
+        public boolean isRequired(MetricContext ctx) {
+            OverlayConfig.ColorTarget target = isOnePercent()
+                    ? OverlayConfig.ColorTarget.LOW_1
+                    : OverlayConfig.ColorTarget.LOW_01;
+            return ctx.exporting() || ctx.apiReading() || colorTarget(ctx.config(), target);
+        }
+
+        public void setActive(boolean active) {
+            if (!active) {
+                window.invalidate();
+            }
+        }
+
+        public void onFrame(MetricContext ctx, FrameWindow ring) {
+            if (ctx.config().lowMethod == OverlayConfig.LowMethod.TIME_WEIGHTED) {
+                window.advance(ring, ctx.nowNs(), windowNs(ctx.config()));
+            } else {
+                window.invalidate();
+            }
+        }
+
+        public void update(MetricContext ctx, FrameWindow w) {
+            if (ctx.config().lowMethod == OverlayConfig.LowMethod.TIME_WEIGHTED) {
+                value = nsToFps(durations.worstTimeNs(worstFraction));
+                return;
+            }
+
+            int n = w.count();
+            if (n <= 0) {
+                value = 0;
+                return;
+            }
+
+            long[] a = w.values();
+
+            if (ctx.config().lowMethod == OverlayConfig.LowMethod.MEAN_WORST) {
+                int k = Math.max(1, (int) Math.ceil(n * worstFraction));
+                value = nsToFps(FrameMath.meanWorstK(a, n, k));
+                return;
+            }
+
+            int index = FrameMath.percentileIndex(n, 1.0 - worstFraction);
+            value = nsToFps(FrameMath.selectNth(a, 0, n - 1, index));
+        }
+
+        public void format(StringBuilder sb) {
+            sb.append(name).append(": ").append(Fmt.roundInt(value));
+        }
+
+        public String[] csvColumns() {
+            return new String[]{isOnePercent() ? "low1_fps" : "low01_fps"};
+        }
+
+        public void appendCsv(StringBuilder sb) {
+            sb.append(',').append(Fmt.f1(value));
+        }
+
+        public void reset() {
+            window.invalidate();
+            value = 0;
+        }
+    }
+
+    static final class Stutters implements Metric {
+        private int count = 0;
+        private int percent = 0;
+
+        int count() {
+            return count;
+        }
+
+        int percent() {
+            return percent;
+        }
+
+        public String id() {
+            return "stutters";
+        }
+
+        public String label() {
+            return "Show Stutters (count)";
+        }
+
+        public String[] tooltip() {
+            return new String[]{"Count stutters in the last window (frame >= threshold ms)."};
+        }
+
+        public boolean isShown(OverlayConfig cfg) {
+            return cfg.showStutters;
+        }
+
+        public void setShown(OverlayConfig cfg, boolean shown) {
+            cfg.showStutters = shown;
+        }
+
+        public int row() {
+            return 1;
+        }
+
+        public long windowNs(OverlayConfig cfg) {
+            return secToNs(cfg.stutterWindowSec);
+        }
+
+        public int updateIntervalMs(OverlayConfig cfg) {
+            return Fmt.clamp(cfg.stuttersUpdateMs, 100, 10000);
+        }
+
+        public boolean isRequired(MetricContext ctx) {
+            return ctx.exporting() || ctx.apiReading();
+        }
+
+        public void update(MetricContext ctx, FrameWindow w) {
+            long thresholdNs = (long) Math.max(1, ctx.config().stutterThresholdMs) * NS_PER_MS;
+            int frames = w.count();
+
+            count = w.countAtLeast(thresholdNs);
+            percent = (frames > 0) ? (int) Math.round((count * 100.0) / frames) : 0;
+        }
+
+        public void format(StringBuilder sb) {
+            sb.append("St: ").append(count).append(" (").append(percent).append("%)");
+        }
+
+        public String[] csvColumns() {
+            return new String[]{"stutters", "stutter_percent"};
+        }
+
+        public void appendCsv(StringBuilder sb) {
+            sb.append(',').append(count).append(',').append(percent);
+        }
+
+        public void reset() {
+            count = 0;
+            percent = 0;
+        }
+    }
+
+    static final class MaxSpike implements Metric {
+        private double valueMs = 0;
+
+        double valueMs() {
+            return valueMs;
+        }
+
+        public String id() {
+            return "max_spike";
+        }
+
+        public String label() {
+            return "Show Max Spike (ms)";
+        }
+
+        public String[] tooltip() {
+            return new String[]{"Show max frametime spike (ms) within the stutter window."};
+        }
+
+        public boolean isShown(OverlayConfig cfg) {
+            return cfg.showMaxSpike;
+        }
+
+        public void setShown(OverlayConfig cfg, boolean shown) {
+            cfg.showMaxSpike = shown;
+        }
+
+        public int row() {
+            return 1;
+        }
+
+        public long windowNs(OverlayConfig cfg) {
+            return secToNs(cfg.stutterWindowSec);
+        }
+
+        public int updateIntervalMs(OverlayConfig cfg) {
+            return Fmt.clamp(cfg.stuttersUpdateMs, 100, 10000);
+        }
+
+        public boolean isRequired(MetricContext ctx) {
+            return ctx.exporting() || ctx.apiReading();
+        }
+
+        public void update(MetricContext ctx, FrameWindow w) {
+            valueMs = nsToMs(w.maxNs());
+        }
+
+        public void format(StringBuilder sb) {
+            sb.append("Spike: ").append(Fmt.ms1(valueMs)).append("ms");
+        }
+
+        public String[] csvColumns() {
+            return new String[]{"max_spike_ms"};
+        }
+
+        public void appendCsv(StringBuilder sb) {
+            sb.append(',').append(Fmt.ms3(valueMs));
+        }
+
+        public void reset() {
+            valueMs = 0;
+        }
+    }
+
+    /**
+     * Share of frames in the Avg window at or under each configured frame budget, e.g. 6.9 ms for
+     * 144 Hz. Per-budget counters are kept up to date per frame through a {@link SlidingWindow}.
+     */
+    static final class Budgets implements Metric {
+        static final int MAX_BUDGETS = 4;
+        static final String DEFAULT_SPEC = "6.9,8.3,16.7,33.3";
+
+        private static final String[] COLUMNS = {"budget1_pct", "budget2_pct", "budget3_pct", "budget4_pct"};
+
+        private String spec = null;
+        private double[] budgetMs = new double[0];
+        private long[] budgetNs = new long[0];
+
+        private final int[] under = new int[MAX_BUDGETS];
+        private final double[] percent = new double[MAX_BUDGETS];
+
+        private final SlidingWindow window = new SlidingWindow(new SlidingWindow.Sink() {
+            // Budgets are ascending, so a frame under budget k is also under every larger one
+            public void add(long frameNs) {
+                for (int k = budgetNs.length - 1; k >= 0 && frameNs <= budgetNs[k]; k--) {
+                    under[k]++;
+                }
+            }
+
+            public void remove(long frameNs) {
+                for (int k = budgetNs.length - 1; k >= 0 && frameNs <= budgetNs[k]; k--) {
+                    under[k]--;
+                }
+            }
+
+            public void clear() {
+                Arrays.fill(under, 0);
+            }
+        });
+
+        /**
+         * Parses "6.9, 8.3 16.7;33.3" into ascending, distinct budgets in ms (0.1 ms precision,
+         * 0.5..1000 ms, at most {@link #MAX_BUDGETS}). Invalid entries are skipped.
+         */
+        static double[] parse(String spec) {
+            if (spec == null) {
+                return new double[0];
+            }
+
+            double[] tmp = new double[MAX_BUDGETS];
+            int n = 0;
+
+            for (String part : spec.split("[,;\\s]+")) {
+                if (part.isEmpty()) {
+                    continue;
+                }
+
+                double v;
+                try {
+                    v = Math.round(Double.parseDouble(part) * 10.0) / 10.0;
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (!(v >= 0.5 && v <= 1000)) {
+                    continue;
+                }
+
+                boolean dup = false;
+                for (int i = 0; i < n; i++) {
+                    if (tmp[i] == v) {
+                        dup = true;
+                        break;
+                    }
+                }
+                if (!dup && n < MAX_BUDGETS) {
+                    tmp[n++] = v;
+                }
+            }
+
+            double[] out = Arrays.copyOf(tmp, n);
+            Arrays.sort(out);
+            return out;
+        }
+
+        /**
+         * Canonical form of {@link #parse}'s result, e.g. "6.9,8.3,16.7,33.3".
+         */
+        static String format(double[] budgetsMs) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < budgetsMs.length; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append(Fmt.ms1(budgetsMs[i]));
+            }
+            return sb.toString();
+        }
+
+        public String id() {
+            return "frame_budgets";
+        }
+
+        public String label() {
+            return "Show Frame budgets (%)";
+        }
+
+        public String[] tooltip() {
+            return new String[]{
+                    "Share of frames in the Avg window at or under each budget (Advanced → Frame budgets).",
+                    "e.g. 6.9 ms = 144 Hz, 16.7 ms = 60 Hz."
+            };
+        }
+
+        public boolean isShown(OverlayConfig cfg) {
+            return cfg.showFrameBudgets;
+        }
+
+        public void setShown(OverlayConfig cfg, boolean shown) {
+            cfg.showFrameBudgets = shown;
+        }
+
+        public int row() {
+            return 1;
+        }
+
+        public int updateIntervalMs(OverlayConfig cfg) {
+            return Fmt.clamp(cfg.avgUpdateMs, 100, 10000);
+        }
+
+        public void setActive(boolean active) {
+            if (!active) {
+                window.invalidate();
+            }
+        }
+
+        public void onFrame(MetricContext ctx, FrameWindow ring) {
+            OverlayConfig cfg = ctx.config();
+
+            // Reference check: only re-parse when a new config was applied
+            if (cfg.frameBudgetsMs != spec) {
+                spec = cfg.frameBudgetsMs;
+                double[] parsed = parse(spec);
+                if (!Arrays.equals(parsed, budgetMs)) {
+                    budgetMs = parsed;
+                    budgetNs = new long[parsed.length];
+                    for (int i = 0; i < parsed.length; i++) {
+                        budgetNs[i] = Math.round(parsed[i] * NS_PER_MS);
+                    }
+                    Arrays.fill(percent, 0);
+                    window.invalidate();
+                }
+            }
+
+            window.advance(ring, ctx.nowNs(), secToNs(cfg.avgWindowSec));
+        }
+
+        public void update(MetricContext ctx, FrameWindow w) {
+            int n = window.count();
+            for (int k = 0; k < budgetMs.length; k++) {
+                percent[k] = (n > 0) ? (under[k] * 100.0) / n : 0;
+            }
+        }
+
+        public void format(StringBuilder sb) {
+            sb.append("Hit");
+            if (budgetMs.length == 0) {
+                sb.append(": N/A");
+                return;
+            }
+            for (int k = 0; k < budgetMs.length; k++) {
+                sb.append(' ').append(Fmt.ms1(budgetMs[k])).append(": ").append(Fmt.f1(percent[k])).append('%');
+            }
+        }
+
+        /**
+         * Fixed slots in ascending budget order (see the "# FrameBudgetsMs" header); -1 for unused slots.
+         */
+        public String[] csvColumns() {
+            return COLUMNS;
+        }
+
+        public void appendCsv(StringBuilder sb) {
+            for (int k = 0; k < MAX_BUDGETS; k++) {
+                sb.append(',').append(k < budgetMs.length ? Fmt.f1(percent[k]) : "-1");
+            }
+        }
+
+        public void reset() {
+            window.invalidate();
+            Arrays.fill(percent, 0);
+        }
+    }
+
+    /**
+     * Frame pacing over the Avg window: mean absolute change between consecutive frames, frametime
+     * standard deviation and a 0..100 score ({@link FrameMath#pacingScore}). Sums are exact integers
+     * kept up to date per frame through a {@link SlidingWindow}.
+     */
+    static final class Pacing implements Metric {
+        private long sumNs = 0;
+        private long sumSqUs = 0;          // µs² so long doesn't overflow
+        private long sumAbsDeltaNs = 0;
+        private int deltas = 0;
+
+        // Each frame owns the delta to the frame before it; the oldest frame after a refill owns none
+        private boolean hasLastAdded = false;
+        private long lastAddedNs = 0;
+        private boolean oldestOwnsDelta = false;
+        private long lastRemovedNs = 0;
+
+        private double deltaMs = 0;
+        private double sdMs = 0;
+        private double score = 0;
+
+        private final SlidingWindow window = new SlidingWindow(new SlidingWindow.Sink() {
+            public void add(long frameNs) {
+                long us = frameNs / 1000;
+                sumNs += frameNs;
+                sumSqUs += us * us;
+
+                if (hasLastAdded) {
+                    sumAbsDeltaNs += Math.abs(frameNs - lastAddedNs);
+                    deltas++;
+                }
+                hasLastAdded = true;
+                lastAddedNs = frameNs;
+            }
+
+            public void remove(long frameNs) {
+                long us = frameNs / 1000;
+                sumNs -= frameNs;
+                sumSqUs -= us * us;
+
+                if (oldestOwnsDelta) {
+                    sumAbsDeltaNs -= Math.abs(frameNs - lastRemovedNs);
+                    deltas--;
+                }
+                oldestOwnsDelta = true;
+                lastRemovedNs = frameNs;
+            }
+
+            public void clear() {
+                sumNs = 0;
+                sumSqUs = 0;
+                sumAbsDeltaNs = 0;
+                deltas = 0;
+                hasLastAdded = false;
+                oldestOwnsDelta = false;
+            }
+        });
+
+        double deltaMs() {
+            return deltaMs;
+        }
+
+        double sdMs() {
+            return sdMs;
+        }
+
+        double score() {
+            return score;
+        }
+
+        public String id() {
+            return "pacing";
+        }
+
+        public String label() {
+            return "Show Frame pacing";
+        }
+
+        public String[] tooltip() {
+            return new String[]{
+                    "Pacing score (100 = perfectly even frames), average frame-to-frame change",
+                    "and frametime standard deviation over the Avg window."
+            };
+        }
+
+        public boolean isShown(OverlayConfig cfg) {
+            return cfg.showPacing;
+        }
+
+        public void setShown(OverlayConfig cfg, boolean shown) {
+            cfg.showPacing = shown;
+        }
+
+        public int row() {
+            return 1;
+        }
+
+        public int updateIntervalMs(OverlayConfig cfg) {
+            return Fmt.clamp(cfg.avgUpdateMs, 100, 10000);
+        }
+
+        public void setActive(boolean active) {
+            if (!active) {
+                window.invalidate();
+            }
+        }
+
+        public void onFrame(MetricContext ctx, FrameWindow ring) {
+            window.advance(ring, ctx.nowNs(), secToNs(ctx.config().avgWindowSec));
+        }
+
+        public void update(MetricContext ctx, FrameWindow w) {
+            int n = window.count();
+            if (n < 2) {
+                deltaMs = 0;
+                sdMs = 0;
+                score = 0;
+                return;
+            }
+
+            double meanNs = (double) sumNs / n;
+            double meanUs = meanNs / 1000.0;
+            double varUs = Math.max(0.0, (double) sumSqUs / n - meanUs * meanUs);
+            double deltaNs = (deltas > 0) ? (double) sumAbsDeltaNs / deltas : 0;
+
+            deltaMs = deltaNs / NS_PER_MS;
+            sdMs = Math.sqrt(varUs) / 1000.0;
+            score = FrameMath.pacingScore(deltaNs, meanNs);
+        }
+
+        public void format(StringBuilder sb) {
+            sb.append("Pace: ").append(Fmt.roundInt(score))
+                    .append(" (jit ").append(Fmt.ms1(deltaMs)).append("ms, sd ").append(Fmt.ms1(sdMs)).append("ms)");
+        }
+
+        public String[] csvColumns() {
+            return new String[]{"frame_delta_ms", "frametime_sd_ms", "pacing_score"};
+        }
+
+        public void appendCsv(StringBuilder sb) {
+            sb.append(',').append(Fmt.ms3(deltaMs))
+                    .append(',').append(Fmt.ms3(sdMs))
+                    .append(',').append(Fmt.f1(score));
+        }
+
+        public void reset() {
+            window.invalidate();
+            deltaMs = 0;
+            sdMs = 0;
+            score = 0;
+        }
+    }
+
+    /**
+     * Dominant hitch periods over the last minute ({@link HitchPeriodAnalyzer}); the analysis runs on
+     * a background thread, this only feeds it frames and submits a new pass on each update.
+     */
+    static final class HitchPeriod implements Metric {
+        private final HitchPeriodAnalyzer analyzer = new HitchPeriodAnalyzer();
+
+        public String id() {
+            return "hitch_period";
+        }
+
+        public String label() {
+            return "Show Hitch period";
+        }
+
+        public String[] tooltip() {
+            return new String[]{
+                    "Detects hitches that repeat at a regular interval (autosave, scheduled tasks, GC)",
+                    "over the last minute, with confidence. Needs ~20 s of frames to start."
+            };
+        }
+
+        public boolean isShown(OverlayConfig cfg) {
+            return cfg.showHitchPeriod;
+        }
+
+        public void setShown(OverlayConfig cfg, boolean shown) {
+            cfg.showHitchPeriod = shown;
+        }
+
+        public int row() {
+            return 1;
+        }
+
+        public int updateIntervalMs(OverlayConfig cfg) {
+            return 5000;
+        }
+
+        public void setActive(boolean active) {
+            analyzer.setActive(active);
+        }
+
+        public void onFrame(MetricContext ctx, FrameWindow ring) {
+            analyzer.addFrame(ctx.nowNs(), ctx.lastFrameNs());
+        }
+
+        public void update(MetricContext ctx, FrameWindow w) {
+            // Shows the previous pass; the new one is picked up on the next update
+            analyzer.submit();
+        }
+
+        public void format(StringBuilder sb) {
+            HitchPeriodAnalyzer.Result r = analyzer.latest();
+            sb.append("Period: ");
+            if (!r.valid()) {
+                sb.append('-');
+                return;
+            }
+            sb.append(Fmt.f1(r.periodSec())).append("s (").append(Fmt.roundInt(r.confidence() * 100)).append("%)");
+            if (r.secondaryPeriodSec() > 0) {
+                sb.append(", ").append(Fmt.f1(r.secondaryPeriodSec())).append("s (")
+                        .append(Fmt.roundInt(r.secondaryConfidence() * 100)).append("%)");
+            }
+        }
+
+        public void reset() {
+            analyzer.clear();
+        }
+    }
+
+    /**
+     * Spikes relative to recent frametimes ({@link SpikeClassifier}) over the stutter window, broken
+     * down by likely cause. Classification runs every frame; spikes are rare, so they are kept in a
+     * small ring of recent events and counted on update.
+     */
+    static final class SpikeCauses implements Metric {
+        private static final int MAX_EVENTS = 256;
+        private static final long SERVER_OVERRUN_NS = 50 * NS_PER_MS;
+
+        private final JvmEvents jvmEvents;
+        private final SpikeClassifier classifier = new SpikeClassifier();
+        private final com.sun.management.ThreadMXBean threads = allocationBean();
+
+        private long lastAllocBytes = -1;
+        private boolean serverOverrun = false;
+        private int lastCause = SpikeClassifier.NONE;
+
+        private final long[] eventNs = new long[MAX_EVENTS];
+        private final byte[] eventCause = new byte[MAX_EVENTS];
+        private int eventHead = 0;
+        private int eventCount = 0;
+
+        private final int[] counts = new int[SpikeClassifier.CAUSE_COUNT];
+        private int total = 0;
+
+        SpikeCauses(JvmEvents jvmEvents) {
+            this.jvmEvents = jvmEvents;
+        }
+
+        void addServerTick(long tickNs) {
+            if (tickNs > SERVER_OVERRUN_NS) {
+                serverOverrun = true;
+            }
+        }
+
+        /**
+         * Cause of the current frame's spike, or {@link SpikeClassifier#NONE}.
+         */
+        int lastCause() {
+            return lastCause;
+        }
+
+        public String id() {
+            return "spike_causes";
+        }
+
+        public String label() {
+            return "Show Spike causes";
+        }
+
+        public String[] tooltip() {
+            return new String[]{
+                    "Frames much slower than the recent average (not a fixed threshold) in the stutter window,",
+                    "by likely cause: GC, server tick, safepoint, JIT, class loading, allocation burst, other."
+            };
+        }
+
+        public boolean isShown(OverlayConfig cfg) {
+            return cfg.showSpikeCauses;
+        }
+
+        public void setShown(OverlayConfig cfg, boolean shown) {
+            cfg.showSpikeCauses = shown;
+        }
+
+        public int row() {
+            return 1;
+        }
+
+        public int updateIntervalMs(OverlayConfig cfg) {
+            return Fmt.clamp(cfg.stuttersUpdateMs, 100, 10000);
+        }
+
+        public void setActive(boolean active) {
+            if (!active) {
+                classifier.reset();
+                lastAllocBytes = -1;
+                lastCause = SpikeClassifier.NONE;
+            }
+        }
+
+        public void onFrame(MetricContext ctx, FrameWindow ring) {
+            // The tracker already samples every frame while recording
+            if (!ctx.recording()) {
+                jvmEvents.sampleFrame();
+            }
+
+            long allocDelta = -1;
+            if (threads != null) {
+                long allocated = threads.getCurrentThreadAllocatedBytes();
+                if (allocated >= 0 && lastAllocBytes >= 0) {
+                    allocDelta = Math.max(0, allocated - lastAllocBytes);
+                }
+                lastAllocBytes = allocated;
+            }
+
+            lastCause = classifier.onFrame(ctx.lastFrameNs(), jvmEvents.sampler().flags(), allocDelta, serverOverrun);
+            serverOverrun = false;
+
+            if (lastCause != SpikeClassifier.NONE) {
+                int idx = (eventHead + eventCount) % MAX_EVENTS;
+                if (eventCount == MAX_EVENTS) {
+                    eventHead = (eventHead + 1) % MAX_EVENTS;
+                } else {
+                    eventCount++;
+                }
+                eventNs[idx] = ctx.nowNs();
+                eventCause[idx] = (byte) lastCause;
+            }
+        }
+
+        public void update(MetricContext ctx, FrameWindow w) {
+            long minNs = ctx.nowNs() - secToNs(ctx.config().stutterWindowSec);
+
+            Arrays.fill(counts, 0);
+            total = 0;
+            for (int i = 0; i < eventCount; i++) {
+                int idx = (eventHead + i) % MAX_EVENTS;
+                if (eventNs[idx] >= minNs) {
+                    counts[eventCause[idx]]++;
+                    total++;
+                }
+            }
+        }
+
+        public void format(StringBuilder sb) {
+            sb.append("Spikes: ").append(total);
+            if (total == 0) {
+                return;
+            }
+            sb.append(" (");
+            boolean first = true;
+            for (int c = 0; c < SpikeClassifier.CAUSE_COUNT; c++) {
+                if (counts[c] == 0) {
+                    continue;
+                }
+                if (!first) {
+                    sb.append(' ');
+                }
+                sb.append(SpikeClassifier.name(c)).append(' ').append(counts[c]);
+                first = false;
+            }
+            sb.append(')');
+        }
+
+        public String[] csvColumns() {
+            return new String[]{"spike_cause"};
+        }
+
+        public void appendCsv(StringBuilder sb) {
+            sb.append(',');
+            if (lastCause != SpikeClassifier.NONE) {
+                sb.append(SpikeClassifier.csvName(lastCause));
+            }
+        }
+
+        public void reset() {
+            classifier.reset();
+            lastAllocBytes = -1;
+            serverOverrun = false;
+            lastCause = SpikeClassifier.NONE;
+            eventHead = 0;
+            eventCount = 0;
+            Arrays.fill(counts, 0);
+            total = 0;
+        }
+
+        private static com.sun.management.ThreadMXBean allocationBean() {
+            try {
+                if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean b
+                        && b.isThreadAllocatedMemorySupported()) {
+                    if (!b.isThreadAllocatedMemoryEnabled()) {
+                        b.setThreadAllocatedMemoryEnabled(true);
+                    }
+                    return b;
+                }
+            } catch (Throwable ignored) {
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Frametime p50 / p99 / p99.9 over the 1% Low window; exporters only, never shown.
+     */
+    static final class Quantiles implements Metric {
+        private double p50Ms = 0;
+        private double p99Ms = 0;
+        private double p999Ms = 0;
+
+        double p50Ms() {
+            return p50Ms;
+        }
+
+        double p99Ms() {
+            return p99Ms;
+        }
+
+        double p999Ms() {
+            return p999Ms;
+        }
+
+        public String id() {
+            return "frametime_quantiles";
+        }
+
+        public String label() {
+            return "Frametime quantiles";
+        }
+
+        public boolean hasToggle() {
+            return false;
+        }
+
+        public boolean isShown(OverlayConfig cfg) {
+            return false;
+        }
+
+        public void setShown(OverlayConfig cfg, boolean shown) {
+        }
+
+        public int row() {
+            return 1;
+        }
+
+        public long windowNs(OverlayConfig cfg) {
+            return secToNs(cfg.low1WindowSec);
+        }
+
+        public int updateIntervalMs(OverlayConfig cfg) {
+            return Fmt.clamp(cfg.low1UpdateMs, 100, 10000);
+        }
+
+        public boolean isRequired(MetricContext ctx) {
+            return ctx.exporting() || ctx.apiReadingQuantiles();
+        }
+
+        public void update(MetricContext ctx, FrameWindow w) {
+            int n = w.count();
+            if (n <= 0) {
+                return;
+            }
+
+            long[] a = w.values();
+
+            // Highest rank first: after each select, [0..idx] holds the idx+1 smallest frames,
+            // so the next (lower) rank only has to look at that prefix.
+            int i999 = FrameMath.percentileIndex(n, 0.999);
+            int i99 = Math.min(FrameMath.percentileIndex(n, 0.99), i999);
+            int i50 = Math.min(FrameMath.percentileIndex(n, 0.50), i99);
+
+            p999Ms = nsToMs(FrameMath.selectNth(a, 0, n - 1, i999));
+            p99Ms = nsToMs(FrameMath.selectNth(a, 0, i999, i99));
+            p50Ms = nsToMs(FrameMath.selectNth(a, 0, i99, i50));
+        }
+
+        public void format(StringBuilder sb) {
+        }
+
+        public void reset() {
+            p50Ms = 0;
+            p99Ms = 0;
+            p999Ms = 0;
+        }
+    }
+
+    // ---------- JVM / system metrics ----------
+
+    static final class Gc implements Metric {
+        private long pauseMs = -1;
+        private long lastTotalGcTimeMs = 0;
+
+        long pauseMs() {
+            return pauseMs;
+        }
+
+        public String id() {
+            return "gc";
+        }
+
+        public String label() {
+            return "Show GC pauses";
+        }
+
+        public String[] tooltip() {
+            return new String[]{"Show garbage collection pauses (ms)."};
+        }
+
+        public boolean isShown(OverlayConfig cfg) {
+            return cfg.showGc;
+        }
+
+        public void setShown(OverlayConfig cfg, boolean shown) {
+            cfg.showGc = shown;
+        }
+
+        public int row() {
+            return 2;
+        }
+
+        public int updateIntervalMs(OverlayConfig cfg) {
+            return 1000;
+        }
+
+        public boolean isRequired(MetricContext ctx) {
+            return ctx.exporting();
+        }
+
+        public void update(MetricContext ctx, FrameWindow w) {
+            long total = RuntimeEventSampler.totalGcTimeMs();
+
+            long delta = Math.max(total - lastTotalGcTimeMs, 0);
+            lastTotalGcTimeMs = total;
+
+            pauseMs = (delta > 0) ? delta : -1;
+        }
+
+        public void format(StringBuilder sb) {
+            sb.append("GC: ").append(pauseMs > 0 ? pauseMs + "ms" : "NaN");
+        }
+
+        public String[] csvColumns() {
+            return new String[]{"gc_pause_ms"};
+        }
+
+        public void appendCsv(StringBuilder sb) {
+            sb.append(',').append(Fmt.ms1((double) pauseMs));
+        }
+
+        public void reset() {
+            pauseMs = -1;
+        }
+    }
+
+    static final class Memory implements Metric {
+        private long usedMb = 0;
+        private long maxMb = 0;
+
+        long usedMb() {
+            return usedMb;
+        }
+
+        long maxMb() {
+            return maxMb;
+        }
+
+        public String id() {
+            return "memory";
+        }
+
+        public String label() {
+            return "Show Memory usage";
+        }
+
+        public String[] tooltip() {
+            return new String[]{"Show used / max JVM memory (MB)."};
+        }
+
+        public boolean isShown(OverlayConfig cfg) {
+            return cfg.showMemory;
+        }
+
+        public void setShown(OverlayConfig cfg, boolean shown) {
+            cfg.showMemory = shown;
+        }
+
+        public int row() {
+            return 2;
+        }
+
+        public int updateIntervalMs(OverlayConfig cfg) {
+            return 250;
+        }
+
+        public boolean isRequired(MetricContext ctx) {
+            return ctx.exporting();
+        }
+
+        public void update(MetricContext ctx, FrameWindow w) {
+            Runtime rt = Runtime.getRuntime();
+            long used = rt.totalMemory() - rt.freeMemory();
+
+            usedMb = used / (1024 * 1024);
+            maxMb = rt.maxMemory() / (1024 * 1024);
+        }
+
+        public void format(StringBuilder sb) {
+            sb.append("Mem: ").append(usedMb).append(" / ").append(maxMb).append("M");
+        }
+
+        public String[] csvColumns() {
+            return new String[]{"mem_used_mb", "mem_max_mb"};
+        }
+
+        public void appendCsv(StringBuilder sb) {
+            sb.append(',').append(usedMb).append(',').append(maxMb);
+        }
+
+        public void reset() {
+            usedMb = 0;
+            maxMb = 0;
+        }
+    }
+
+    static final class SystemLoad implements Metric {
+        private static final com.sun.management.OperatingSystemMXBean OS_BEAN = osBean();
+
+        private int procCpuPct = -1;
+        private int sysCpuPct = -1;
+        private long freePhysMb = -1;
+
+        public String id() {
+            return "system_load";
+        }
+
+        public String label() {
+            return "Show system load";
+        }
+
+        public String[] tooltip() {
+            return new String[]{
+                    "Minecraft CPU %, whole-system CPU % and free physical memory.",
+                    "High Sys with low CPU = other programs competing for the CPU."
+            };
+        }
+
+        public boolean isShown(OverlayConfig cfg) {
+            return cfg.showSystemLoad;
+        }
+
+        public void setShown(OverlayConfig cfg, boolean shown) {
+            cfg.showSystemLoad = shown;
+        }
+
+        public int row() {
+            return 2;
+        }
+
+        public int updateIntervalMs(OverlayConfig cfg) {
+            return 1000;
+        }
+
+        public void update(MetricContext ctx, FrameWindow w) {
+            if (OS_BEAN == null) {
+                return;
+            }
+
+            // Both loads are 0..1, negative when not available yet (first call) or not supported
+            double procLoad = OS_BEAN.getProcessCpuLoad();
+            double sysLoad = OS_BEAN.getCpuLoad();
+            long free = OS_BEAN.getFreeMemorySize();
+
+            procCpuPct = (procLoad >= 0) ? (int) Math.round(procLoad * 100.0) : -1;
+            sysCpuPct = (sysLoad >= 0) ? (int) Math.round(sysLoad * 100.0) : -1;
+            freePhysMb = (free >= 0) ? free / (1024 * 1024) : -1;
+        }
+
+        public void format(StringBuilder sb) {
+            sb.append("CPU: ").append(procCpuPct >= 0 ? procCpuPct + "%" : "NaN")
+                    .append(" Sys: ").append(sysCpuPct >= 0 ? sysCpuPct + "%" : "NaN")
+                    .append(" Free: ").append(freePhysMb >= 0 ? freePhysMb + "M" : "NaN");
+        }
+
+        public String[] csvColumns() {
+            return new String[]{"proc_cpu_pct", "sys_cpu_pct", "free_phys_mb"};
+        }
+
+        public void appendCsv(StringBuilder sb) {
+            sb.append(',').append(procCpuPct).append(',').append(sysCpuPct).append(',').append(freePhysMb);
+        }
+
+        public void reset() {
+            procCpuPct = -1;
+            sysCpuPct = -1;
+            freePhysMb = -1;
+        }
+
+        private static com.sun.management.OperatingSystemMXBean osBean() {
+            try {
+                if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean b) {
+                    return b;
+                }
+            } catch (Throwable ignored) {
+            }
+            return null;
+        }
+    }
+
+    /**
+     * JIT / class loading / safepoint time per second on the overlay. While a benchmark records,
+     * the tracker samples every frame ({@link #sampleFrame()}) and the CSV gets per-frame deltas.
+     */
+    static final class JvmEvents implements Metric {
+        private final RuntimeEventSampler sampler = new RuntimeEventSampler();
+
+        private long accJitMs = 0;
+        private long accClasses = 0;
+        private long accSafepointMs = 0;
+
+        private long jitMs = 0;
+        private long classesLoaded = 0;
+        private long safepointMs = 0;
+
+        RuntimeEventSampler sampler() {
+            return sampler;
+        }
+
+        void sampleFrame() {
+            sampler.sample();
+            accJitMs += sampler.jitMs();
+            accClasses += sampler.classesLoaded();
+            accSafepointMs += sampler.safepointMs();
+        }
+
+        public String id() {
+            return "jvm_events";
+        }
+
+        public String label() {
+            return "Show JVM events";
+        }
+
+        public String[] tooltip() {
+            return new String[]{
+                    "Show JIT compile time, classes loaded and safepoint time per second.",
+                    "Safepoints are only shown when the JVM exposes them."
+            };
+        }
+
+        public boolean isShown(OverlayConfig cfg) {
+            return cfg.showJvmEvents;
+        }
+
+        public void setShown(OverlayConfig cfg, boolean shown) {
+            cfg.showJvmEvents = shown;
+        }
+
+        public int row() {
+            return 2;
+        }
+
+        public int updateIntervalMs(OverlayConfig cfg) {
+            return 1000;
+        }
+
+        public void update(MetricContext ctx, FrameWindow w) {
+            if (!ctx.recording()) {
+                sampleFrame();
+            }
+
+            jitMs = accJitMs;
+            classesLoaded = accClasses;
+            safepointMs = accSafepointMs;
+
+            accJitMs = 0;
+            accClasses = 0;
+            accSafepointMs = 0;
+        }
+
+        public void format(StringBuilder sb) {
+            sb.append("JIT: ").append(jitMs).append("ms")
+                    .append(" CL: ").append(classesLoaded);
+            if (sampler.isSafepointSupported()) {
+                sb.append(" SP: ").append(safepointMs).append("ms");
+            }
+        }
+
+        public String[] csvColumns() {
+            return new String[]{"jit_ms", "classes_loaded", "safepoints", "safepoint_ms", "jvm_flags"};
+        }
+
+        public void appendCsv(StringBuilder sb) {
+            sb.append(',').append(sampler.jitMs())
+                    .append(',').append(sampler.classesLoaded())
+                    .append(',').append(sampler.safepoints())
+                    .append(',').append(sampler.safepointMs())
+                    .append(',').append(RuntimeEventSampler.flagString(sampler.flags()));
+        }
+
+        public void reset() {
+            sampler.reset();
+            accJitMs = 0;
+            accClasses = 0;
+            accSafepointMs = 0;
+            jitMs = 0;
+            classesLoaded = 0;
+            safepointMs = 0;
+        }
+    }
+
+    /**
+     * Render-thread blocked / waited time, twice per second (window = time since last sample).
+     */
+    static final class Contention implements Metric {
+        // Created on first use: enabling contention monitoring is not free
+        private ContentionSampler sampler = null;
+
+        // A sample was taken this frame; only that CSV row carries the window's deltas
+        private boolean sampledThisFrame = false;
+
+        private ContentionSampler sampler() {
+            if (sampler == null) {
+                sampler = new ContentionSampler();
+            }
+            return sampler;
+        }
+
+        public String id() {
+            return "contention";
+        }
+
+        public String label() {
+            return "Show render thread blocking";
+        }
+
+        public String[] tooltip() {
+            return new String[]{
+                    "Time the render thread spent blocked on locks or waiting",
+                    "(chunk builds, uploads, server sync), plus its CPU %.",
+                    "High wait with low CPU = contention, not heavy rendering."
+            };
+        }
+
+        public boolean isShown(OverlayConfig cfg) {
+            return cfg.showContention;
+        }
+
+        public void setShown(OverlayConfig cfg, boolean shown) {
+            cfg.showContention = shown;
+        }
+
+        public int row() {
+            return 2;
+        }
+
+        public int updateIntervalMs(OverlayConfig cfg) {
+            return 500;
+        }
+
+        public void setActive(boolean active) {
+            if (active) {
+                sampler().start();
+            } else if (sampler != null) {
+                sampler.stop();
+            }
+            sampledThisFrame = false;
+        }
+
+        public void onFrame(MetricContext ctx, FrameWindow ring) {
+            sampledThisFrame = false;
+        }
+
+        public void update(MetricContext ctx, FrameWindow w) {
+            sampler().sample(ctx.nowNs());
+            sampledThisFrame = true;
+        }
+
+        public void format(StringBuilder sb) {
+            ContentionSampler c = sampler();
+            if (!c.isSupported()) {
+                sb.append("Blk: N/A");
+                return;
+            }
+            sb.append("Blk: ").append(c.blockedMs()).append("ms/").append(c.blockedCount())
+                    .append(" Wait: ").append(c.waitedMs()).append("ms")
+                    .append(" CPU: ").append(c.cpuPercent()).append('%');
+        }
+
+        public String[] csvColumns() {
+            return new String[]{"rt_blocked_ms", "rt_blocked_count", "rt_waited_ms", "rt_waited_count", "rt_cpu_pct"};
+        }
+
+        // Deltas since the previous sample, on the row that took it; empty on the rows in between
+        public void appendCsv(StringBuilder sb) {
+            if (!sampledThisFrame) {
+                sb.append(",,,,,");
+                return;
+            }
+            ContentionSampler c = sampler();
+            sb.append(',').append(c.blockedMs())
+                    .append(',').append(c.blockedCount())
+                    .append(',').append(c.waitedMs())
+                    .append(',').append(c.waitedCount())
+                    .append(',').append(c.cpuPercent());
+        }
+
+        public void reset() {
+            if (sampler != null) {
+                sampler.reset();
+            }
+        }
+    }
+
+    static final class ThreadCpu implements Metric {
+        // Created on first use
+        private ThreadCpuSampler sampler = null;
+
+        private ThreadCpuSampler sampler() {
+            if (sampler == null) {
+                sampler = new ThreadCpuSampler();
+            }
+            return sampler;
+        }
+
+        public String id() {
+            return "thread_cpu";
+        }
+
+        public String label() {
+            return "Show CPU per thread";
+        }
+
+        public String[] tooltip() {
+            return new String[]{
+                    "CPU use of Render (R), Server (S), Worker (W) threads and GC/JIT (VM).",
+                    "100% = one full core."
+            };
+        }
+
+        public boolean isShown(OverlayConfig cfg) {
+            return cfg.showThreadCpu;
+        }
+
+        public void setShown(OverlayConfig cfg, boolean shown) {
+            cfg.showThreadCpu = shown;
+        }
+
+        public int row() {
+            return 2;
+        }
+
+        public int updateIntervalMs(OverlayConfig cfg) {
+            return 1000;
+        }
+
+        // Re-baseline, so the first sample after a pause doesn't average over the idle time
+        public void setActive(boolean active) {
+            if (active && sampler != null) {
+                sampler.reset();
+            }
+        }
+
+        public void update(MetricContext ctx, FrameWindow w) {
+            sampler().sample(ctx.nowNs());
+        }
+
+        public void format(StringBuilder sb) {
+            ThreadCpuSampler t = sampler();
+            if (!t.isSupported()) {
+                sb.append("CPU: N/A");
+                return;
+            }
+            sb.append("CPU R: ").append(t.percent(ThreadCpuSampler.GROUP_RENDER)).append('%')
+                    .append(" S: ").append(t.percent(ThreadCpuSampler.GROUP_SERVER)).append('%')
+                    .append(" W: ").append(t.percent(ThreadCpuSampler.GROUP_WORKERS)).append('%')
+                    .append(" VM: ").append(t.percent(ThreadCpuSampler.GROUP_VM)).append('%');
+        }
+
+        public String[] csvColumns() {
+            return new String[]{"cpu_render_pct", "cpu_server_pct", "cpu_workers_pct", "cpu_other_pct", "cpu_vm_pct"};
+        }
+
+        public void appendCsv(StringBuilder sb) {
+            ThreadCpuSampler t = sampler();
+            sb.append(',').append(t.percent(ThreadCpuSampler.GROUP_RENDER))
+                    .append(',').append(t.percent(ThreadCpuSampler.GROUP_SERVER))
+                    .append(',').append(t.percent(ThreadCpuSampler.GROUP_WORKERS))
+                    .append(',').append(t.percent(ThreadCpuSampler.GROUP_OTHER))
+                    .append(',').append(t.percent(ThreadCpuSampler.GROUP_VM));
+        }
+
+        public void reset() {
+            if (sampler != null) {
+                sampler.reset();
+            }
+        }
+    }
+
+    /**
+     * Time the mod itself spends per frame (tracking, overlay drawing and API frame listeners),
+     * averaged over the last second.
+     */
+    static final class SelfOverhead implements Metric {
+        private long accSelfNs = 0;
+        private long accListenerNs = 0;
+        private long accFrameNs = 0;
+        private int accFrames = 0;
+
+        private long selfUs = 0;
+        private long listenerUs = 0;
+        private double percent = 0;
+
+        void addSelfTime(long ns) {
+            accSelfNs += ns;
+        }
+
+        void addListenerTime(long ns) {
+            accListenerNs += ns;
+        }
+
+        void addFrame(long frameNs) {
+            accFrameNs += frameNs;
+            accFrames++;
+        }
+
+        public String id() {
+            return "self_overhead";
+        }
+
+        public String label() {
+            return "Show self overhead";
+        }
+
+        public String[] tooltip() {
+            return new String[]{
+                    "Time Performance Overlay itself takes per frame (µs) and its share of the frame,",
+                    "including other mods' frame listeners (L)."
+            };
+        }
+
+        public boolean isShown(OverlayConfig cfg) {
+            return cfg.showSelfOverhead;
+        }
+
+        public void setShown(OverlayConfig cfg, boolean shown) {
+            cfg.showSelfOverhead = shown;
+        }
+
+        public int row() {
+            return 2;
+        }
+
+        public int updateIntervalMs(OverlayConfig cfg) {
+            return 1000;
+        }
+
+        public void update(MetricContext ctx, FrameWindow w) {
+            if (accFrames > 0) {
+                selfUs = accSelfNs / accFrames / 1000;
+                listenerUs = accListenerNs / accFrames / 1000;
+                percent = (accFrameNs > 0) ? (accSelfNs * 100.0) / accFrameNs : 0;
+            }
+
+            accSelfNs = 0;
+            accListenerNs = 0;
+            accFrameNs = 0;
+            accFrames = 0;
+        }
+
+        public void format(StringBuilder sb) {
+            sb.append("Self: ").append(selfUs).append("us (").append(Fmt.f1(percent)).append("%)");
+            if (listenerUs > 0) {
+                sb.append(" L: ").append(listenerUs).append("us");
+            }
+        }
+
+        public String[] csvColumns() {
+            return new String[]{"self_us", "listener_us"};
+        }
+
+        public void appendCsv(StringBuilder sb) {
+            sb.append(',').append(selfUs).append(',').append(listenerUs);
+        }
+
+        public void reset() {
+            accSelfNs = 0;
+            accListenerNs = 0;
+            accFrameNs = 0;
+            accFrames = 0;
+            selfUs = 0;
+            listenerUs = 0;
+            percent = 0;
+        }
+    }
+
+    /**
+     * Linux /proc stats, sampled on a background thread that only runs while the metric is active.
+     */
+    static final class Proc implements Metric {
+        private final ProcSampler sampler = new ProcSampler();
+
+        public String id() {
+            return "proc";
+        }
+
+        public String label() {
+            return "Show process stats (Linux)";
+        }
+
+        public String[] tooltip() {
+            return new String[]{
+                    "From /proc: resident memory, page faults (major/minor),",
+                    "render thread context switches (voluntary/involuntary)",
+                    "and disk I/O per second.",
+                    "Hidden on other systems."
+            };
+        }
+
+        public boolean isShown(OverlayConfig cfg) {
+            return cfg.showProcStats;
+        }
+
+        public void setShown(OverlayConfig cfg, boolean shown) {
+            cfg.showProcStats = shown;
+        }
+
+        public int row() {
+            return 2;
+        }
+
+        public int updateIntervalMs(OverlayConfig cfg) {
+            return 1000;
+        }
+
+        public void setActive(boolean active) {
+            sampler.setActive(active);
+        }
+
+        public boolean isAvailable() {
+            return sampler.isAvailable();
+        }
+
+        public void update(MetricContext ctx, FrameWindow w) {
+            // Values come from the background thread; this only marks the overlay for a refresh
+        }
+
+        public void format(StringBuilder sb) {
+            ProcSampler.Sample ps = sampler.latest();
+            sb.append("RSS: ").append(ps.rssMb()).append('M')
+                    .append(" PF: ").append(ps.majorFaults()).append('/').append(ps.minorFaults());
+            if (ps.voluntaryCs() >= 0) {
+                sb.append(" CS: ").append(ps.voluntaryCs()).append('/').append(ps.involuntaryCs());
+            }
+            if (ps.readKb() >= 0) {
+                sb.append(" IO: ").append(ps.readKb()).append("K/").append(ps.writeKb()).append('K');
+            }
+        }
+
+        public String[] csvColumns() {
+            return new String[]{"rss_mb", "maj_faults", "min_faults", "vol_cs", "invol_cs", "read_kb", "write_kb"};
+        }
+
+        public void appendCsv(StringBuilder sb) {
+            ProcSampler.Sample ps = sampler.latest();
+            sb.append(',').append(ps.rssMb())
+                    .append(',').append(ps.majorFaults())
+                    .append(',').append(ps.minorFaults())
+                    .append(',').append(ps.voluntaryCs())
+                    .append(',').append(ps.involuntaryCs())
+                    .append(',').append(ps.readKb())
+                    .append(',').append(ps.writeKb());
+        }
+
+        public void reset() {
+        }
+    }
+}
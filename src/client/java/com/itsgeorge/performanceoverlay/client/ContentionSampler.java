@@ -0,0 +1,166 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Blocking / waiting time of the render thread, from thread contention monitoring.
+ * Must be sampled from the render thread itself; the first sample binds the owner thread.
+ *
+ * Blocked = waiting to enter a monitor. Waited = Object.wait / LockSupport.park (futures, joins, queues).
+ * CPU is the thread's own CPU time over the same window, so a slow window can be split into
+ * "busy" vs "stuck waiting for someone else".
+ *
+ * Contention monitoring is JVM-wide and has a cost on every monitor enter, so it is only switched on
+ * between {@link #start()} and {@link #stop()}, and only switched off again if it was off before.
+ */
+public final class ContentionSampler {
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private boolean supported;
+    private final boolean cpuSupported;
+
+    // Monitoring was off and we turned it on; stop() turns it back off
+    private boolean enabledByUs = false;
+
+    // Reused for every getThreadInfo call
+    private final long[] ids = new long[1];
+
+    private long lastSampleNs = 0;
+    private long lastBlockedMs;
+    private long lastBlockedCount;
+    private long lastWaitedMs;
+    private long lastWaitedCount;
+    private long lastCpuNs;
+
+    // Deltas over the last window
+    private long blockedMs;
+    private long blockedCount;
+    private long waitedMs;
+    private long waitedCount;
+    private int cpuPercent;
+
+    public ContentionSampler() {
+        boolean ok = false;
+        try {
+            ok = threads.isThreadContentionMonitoringSupported();
+        } catch (UnsupportedOperationException ignored) {
+        }
+        this.supported = ok;
+
+        boolean cpu = false;
+        try {
+            cpu = threads.isCurrentThreadCpuTimeSupported() && threads.isThreadCpuTimeEnabled();
+        } catch (UnsupportedOperationException ignored) {
+        }
+        this.cpuSupported = cpu;
+    }
+
+    public boolean isSupported() {
+        return supported;
+    }
+
+    /**
+     * Enables contention monitoring if needed and re-baselines, so the first sample after this
+     * only records the starting point instead of a delta over the idle time.
+     */
+    public void start() {
+        reset();
+        if (!supported) {
+            return;
+        }
+        try {
+            if (!threads.isThreadContentionMonitoringEnabled()) {
+                threads.setThreadContentionMonitoringEnabled(true);
+                enabledByUs = true;
+            }
+        } catch (SecurityException | UnsupportedOperationException e) {
+            supported = false;
+        }
+    }
+
+    /**
+     * Disables contention monitoring again if {@link #start()} was the one that enabled it.
+     */
+    public void stop() {
+        if (!enabledByUs) {
+            return;
+        }
+        enabledByUs = false;
+        try {
+            threads.setThreadContentionMonitoringEnabled(false);
+        } catch (SecurityException | UnsupportedOperationException ignored) {
+        }
+    }
+
+    public void reset() {
+        lastSampleNs = 0;
+        blockedMs = 0;
+        blockedCount = 0;
+        waitedMs = 0;
+        waitedCount = 0;
+        cpuPercent = 0;
+    }
+
+    public void sample(long nowNs) {
+        if (!supported) {
+            return;
+        }
+
+        if (ids[0] == 0) {
+            ids[0] = Thread.currentThread().threadId();
+        }
+
+        ThreadInfo[] info = threads.getThreadInfo(ids, 0);
+        ThreadInfo ti = (info.length > 0) ? info[0] : null;
+        if (ti == null) {
+            return;
+        }
+
+        long bMs = Math.max(0, ti.getBlockedTime());
+        long bCount = ti.getBlockedCount();
+        long wMs = Math.max(0, ti.getWaitedTime());
+        long wCount = ti.getWaitedCount();
+        long cpuNs = cpuSupported ? threads.getCurrentThreadCpuTime() : 0;
+
+        if (lastSampleNs != 0) {
+            blockedMs = Math.max(0, bMs - lastBlockedMs);
+            blockedCount = Math.max(0, bCount - lastBlockedCount);
+            waitedMs = Math.max(0, wMs - lastWaitedMs);
+            waitedCount = Math.max(0, wCount - lastWaitedCount);
+
+            long wallNs = nowNs - lastSampleNs;
+            if (cpuSupported && wallNs > 0) {
+                long pct = Math.round(((cpuNs - lastCpuNs) * 100.0) / wallNs);
+                cpuPercent = (int) Math.max(0, Math.min(100, pct));
+            }
+        }
+
+        lastSampleNs = nowNs;
+        lastBlockedMs = bMs;
+        lastBlockedCount = bCount;
+        lastWaitedMs = wMs;
+        lastWaitedCount = wCount;
+        lastCpuNs = cpuNs;
+    }
+
+    public long blockedMs() {
+        return blockedMs;
+    }
+
+    public long blockedCount() {
+        return blockedCount;
+    }
+
+    public long waitedMs() {
+        return waitedMs;
+    }
+
+    public long waitedCount() {
+        return waitedCount;
+    }
+
+    public int cpuPercent() {
+        return cpuPercent;
+    }
+}
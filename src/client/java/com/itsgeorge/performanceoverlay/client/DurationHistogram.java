@@ -0,0 +1,96 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import java.util.Arrays;
+
+/**
+ * Frametime histogram weighted by duration: each bucket holds the total time spent in frames of that
+ * length, so a 500 ms hitch weighs as much as thirty 16.7 ms frames. Answers "how slow were frames
+ * during the worst X% of wall-clock time" without sorting.
+ *
+ * Buckets are 1/16 octave (~4.4% wide) from 64 µs to ~17 s; values inside a bucket are
+ * interpolated. Plain JDK only.
+ */
+public final class DurationHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int FIRST_OCTAVE = 16;   // 2^16 ns ~ 65 µs
+    private static final int OCTAVES = 18;        // up to 2^34 ns ~ 17 s
+    static final int BUCKETS = OCTAVES << SUB_BITS;
+
+    private final long[] weightNs = new long[BUCKETS];
+    private long totalNs = 0;
+
+    public void add(long frameNs) {
+        if (frameNs <= 0) {
+            return;
+        }
+        weightNs[bucketOf(frameNs)] += frameNs;
+        totalNs += frameNs;
+    }
+
+    public void remove(long frameNs) {
+        if (frameNs <= 0) {
+            return;
+        }
+        weightNs[bucketOf(frameNs)] -= frameNs;
+        totalNs -= frameNs;
+    }
+
+    public void clear() {
+        Arrays.fill(weightNs, 0);
+        totalNs = 0;
+    }
+
+    public long totalNs() {
+        return totalNs;
+    }
+
+    /**
+     * Smallest frametime T such that frames of at least T cover {@code worstFraction} of the total
+     * time (e.g. 0.01 for the time-weighted 1% low). 0 when empty.
+     */
+    public long worstTimeNs(double worstFraction) {
+        if (totalNs <= 0) {
+            return 0;
+        }
+
+        double target = Math.max(0.0, Math.min(1.0, worstFraction)) * totalNs;
+        long acc = 0;
+
+        for (int b = BUCKETS - 1; b >= 0; b--) {
+            long w = weightNs[b];
+            if (w <= 0) {
+                continue;
+            }
+
+            if (acc + w >= target) {
+                // Assume time is spread evenly over the bucket and take the part we still need from its top
+                long lo = lowerNs(b);
+                long hi = lowerNs(b + 1);
+                double need = (target - acc) / (double) w;
+                return Math.max(lo, Math.round(hi - (hi - lo) * need));
+            }
+
+            acc += w;
+        }
+
+        return lowerNs(0);
+    }
+
+    static int bucketOf(long ns) {
+        int msb = 63 - Long.numberOfLeadingZeros(ns);
+        if (msb < FIRST_OCTAVE) {
+            return 0;
+        }
+        if (msb >= FIRST_OCTAVE + OCTAVES) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) (ns >>> (msb - SUB_BITS)) & ((1 << SUB_BITS) - 1);
+        return ((msb - FIRST_OCTAVE) << SUB_BITS) + sub;
+    }
+
+    static long lowerNs(int bucket) {
+        int octave = FIRST_OCTAVE + (bucket >> SUB_BITS);
+        int sub = bucket & ((1 << SUB_BITS) - 1);
+        return (1L << octave) + ((long) sub << (octave - SUB_BITS));
+    }
+}
@@ -0,0 +1,60 @@
+package com.itsgeorge.performanceoverlay.client;
+
+/**
+ * Number formatting for the overlay and the benchmark CSV (no String.format, no locale).
+ */
+final class Fmt {
+    private Fmt() {
+    }
+
+    static int roundInt(double v) {
+        if (v <= 0 || Double.isNaN(v) || Double.isInfinite(v)) {
+            return 0;
+        }
+        return (int) Math.round(v);
+    }
+
+    static String ms1(double ms) {
+        if (ms <= 0 || Double.isNaN(ms) || Double.isInfinite(ms)) {
+            return "0.0";
+        }
+
+        long t = Math.round(ms * 10.0);
+        long whole = t / 10;
+        long frac = Math.abs(t % 10);
+        return whole + "." + frac;
+    }
+
+    static String ms3(double ms) {
+        long t = Math.round(ms * 1000.0);
+        long whole = t / 1000;
+        long frac = Math.abs(t % 1000);
+        String f = String.valueOf(frac);
+        if (frac < 10) {
+            f = "00" + f;
+        } else if (frac < 100) {
+            f = "0" + f;
+        }
+        return whole + "." + f;
+    }
+
+    static String f1(double v) {
+        if (v <= 0 || Double.isNaN(v) || Double.isInfinite(v)) {
+            return "0.0";
+        }
+        long t = Math.round(v * 10.0);
+        long whole = t / 10;
+        long frac = Math.abs(t % 10);
+        return whole + "." + frac;
+    }
+
+    static int clamp(int v, int min, int max) {
+        if (v < min) {
+            return min;
+        }
+        if (v > max) {
+            return max;
+        }
+        return v;
+    }
+}
@@ -1,27 +1,69 @@
 package com.itsgeorge.performanceoverlay.client;
 
+import com.itsgeorge.performanceoverlay.api.FrameListener;
+import com.itsgeorge.performanceoverlay.api.PerformanceOverlayApi;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.SharedConstants;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.Writer;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+import static com.itsgeorge.performanceoverlay.client.FrameMath.meanWorstK;
+import static com.itsgeorge.performanceoverlay.client.FrameMath.nsToFps;
+import static com.itsgeorge.performanceoverlay.client.FrameMath.nsToMs;
+import static com.itsgeorge.performanceoverlay.client.FrameMath.percentileIndex;
+import static com.itsgeorge.performanceoverlay.client.FrameMath.selectNth;
+import static com.itsgeorge.performanceoverlay.client.Fmt.f1;
+import static com.itsgeorge.performanceoverlay.client.Fmt.ms1;
+import static com.itsgeorge.performanceoverlay.client.Fmt.ms3;
+
+/**
+ * Frame statistics, overlay text and benchmark recording.
+ *
+ * Single writer: the ring buffer and every cached value belong to the owner thread (the thread that
+ * created the tracker, i.e. the render thread). Other threads only read the published snapshots
+ * ({@link #getSnapshot()}, {@link #getMetrics()}, benchmark status), which are immutable and swapped
+ * through volatile references. Commands (config, reset, benchmark start/stop) are queued and run by
+ * the owner in {@link #runPendingCommands()}; when called on the owner thread they run right away.
+ *
+ * What gets computed is driven by the {@link MetricRegistry}: overlay text, exported values and
+ * benchmark CSV columns all come from the registered {@link Metric}s.
+ */
 public final class FpsTracker {
-    private static final long NS_PER_SEC = 1_000_000_000L;
-    private static final long NS_PER_MS = 1_000_000L;
+    private static final long NS_PER_SEC = FrameMath.NS_PER_SEC;
+    private static final long NS_PER_MS = FrameMath.NS_PER_MS;
 
     private static final int COLOR_WHITE = 0xFFFFFFFF;
     private static final int COLOR_YELLOW = 0xFFFFFF55;
     private static final int COLOR_RED = 0xFFFF5555;
 
+    private static final int MAX_PERIOD_BINS = 4000;
+
+    private static final long API_READ_TTL_NS = 5 * NS_PER_SEC;
+
     private static final DateTimeFormatter TS = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
     private static final DateTimeFormatter TS_HUMAN = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    private final Thread owner;
+    private final ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<>();
+
     private OverlayConfig config;
 
     private long[] timeNs;
@@ -33,46 +75,53 @@ public final class FpsTracker {
 
     private long lastFrameStartNs = 0;
 
-    private long lastFpsUpdateNs = 0;
-    private long lastFtUpdateNs = 0;
-    private long lastAvgUpdateNs = 0;
-    private long lastLow1UpdateNs = 0;
-    private long lastLow01UpdateNs = 0;
-    private long lastStuttersUpdateNs = 0;
+    // Metrics (registry order = overlay order = CSV column order)
+    private final BuiltinMetrics builtins = new BuiltinMetrics();
+    private final List<Metric> metrics = builtins.registry.all();
+    private final MetricScheduler scheduler = new MetricScheduler(metrics);
+    private final MetricContext metricContext = new MetricContext();
 
-    private double cachedFps = 0;
-    private double cachedFtMs = 0;
-    private double cachedAvg = 0;
-    private double cachedLow1 = 0;
-    private double cachedLow01 = 0;
+    private final StringBuilder csvRow = new StringBuilder(256);
 
-    private int cachedStutters = 0;
-    private int cachedStutterPercent = 0;
-    private double cachedMaxSpikeMs = 0;
+    private final FrametimeGraph graph = new FrametimeGraph();
+    private final SessionHistory sessionHistory = new SessionHistory();
 
-    private Snapshot cached = Snapshot.empty();
+    private volatile Snapshot cached = Snapshot.empty();
 
-    private boolean wasEnabled = false;
-    private boolean wasPaused = false;
+    // Published for readers on other threads (metrics endpoint); replaced, never mutated
+    private volatile Metrics published = Metrics.empty();
+    private long framesTotal = 0;
 
-    // GC / Memory
-    private long cachedGcPauseMs = 0;
-    private long lastGcUpdateNs = 0;
+    // Public API (other mods): listeners are copy-on-write so dispatch never locks or allocates
+    private final PerformanceOverlayApi api = new Api();
+    private final Object listenersLock = new Object();
+    private volatile FrameListener[] frameListeners = new FrameListener[0];
+    private volatile long lastFrameNs = 0;
+    // nanoTime of the last API read (0 = never); hidden values read through the API are kept fresh
+    // for API_READ_TTL_NS after it, so an idle API user costs nothing
+    private volatile long apiReadNs = 0;
+    private volatile long apiQuantilesReadNs = 0;
 
-    private long cachedMemUsedMb = 0;
-    private long cachedMemMaxMb = 0;
-    private long lastMemUpdateNs = 0;
+    // Live telemetry file (memory-mapped, rewritten every frame)
+    private TelemetryFile telemetry = null;
+
+    private boolean wasEnabled = false;
+    private boolean wasPaused = false;
 
     // Benchmark
-    private boolean benchmarkActive = false;
+    private volatile boolean benchmarkActive = false;
     private long benchmarkStartNs = 0;
-    private BufferedWriter benchmarkWriter = null;
+    private BenchmarkCsvWriter benchmarkWriter = null;
     private String benchmarkFileName = "";
     private String benchmarkFilePath = "";
     private int benchmarkFlushCounter = 0;
     private long benchmarkFrameCount = 0;
 
     private boolean benchmarkHadWriteError = false;
+    private BenchmarkJournal benchmarkJournal = null;
+    private LocalDateTime benchmarkStartDate = null;
+
+    private final BenchmarkLibrary library = new BenchmarkLibrary(benchmarksDir());
 
     // Benchmark (full-run stats)
     private long[] benchmarkFramesNs = null;
@@ -81,74 +130,169 @@ public final class FpsTracker {
     private long benchmarkTotalNs = 0;
     private long benchmarkMaxFrameNs = 0;
 
-    private BenchmarkSummary lastBenchmarkSummary = new BenchmarkSummary(0, 0, 0, 0, 0, 0);
+    // Benchmark (spike time overlapping JVM events)
+    private long benchmarkSpikeNs = 0;
+    private long benchmarkSpikeGcNs = 0;
+    private long benchmarkSpikeJitNs = 0;
+    private long benchmarkSpikeClassLoadNs = 0;
+    private long benchmarkSpikeSafepointNs = 0;
+    private final int[] benchmarkSpikeCauses = new int[SpikeClassifier.CAUSE_COUNT];
+
+    private volatile BenchmarkSummary lastBenchmarkSummary = BenchmarkSummary.empty();
+
+    // Benchmark (trace export)
+    private TraceExporter traceExporter = null;
+    private String traceFilePath = "";
+    private volatile String lastTraceFilePath = "";
+
+    private final TickRing serverTicks = new TickRing(256);
+    private final TickRing.Consumer serverTickSink = this::onServerTick;
+    private long clientTickStartNs = 0;
 
     public FpsTracker(OverlayConfig config) {
-        setConfig(config, true);
+        this.owner = Thread.currentThread();
+        applyConfig(config, true);
     }
 
+    // ---------- Commands (any thread; run by the owner) ----------
+
     public void setConfig(OverlayConfig cfg, boolean forceReset) {
+        submit(() -> applyConfig(cfg, forceReset));
+    }
+
+    public void reset() {
+        submit(this::resetNow);
+    }
+
+    /**
+     * Starts or stops a benchmark. Completes on the owner thread once the command has run
+     * (immediately when called from the owner thread).
+     */
+    public CompletableFuture<BenchmarkStatus> toggleBenchmark() {
+        CompletableFuture<BenchmarkStatus> result = new CompletableFuture<>();
+        submit(() -> result.complete(toggleBenchmarkNow()));
+        return result;
+    }
+
+    /**
+     * Runs queued commands. Owner thread only; called every frame and every client tick
+     * (so commands still run while the overlay is hidden).
+     */
+    public void runPendingCommands() {
+        if (Thread.currentThread() != owner) {
+            return;
+        }
+
+        Runnable cmd;
+        while ((cmd = commands.poll()) != null) {
+            cmd.run();
+        }
+    }
+
+    private void submit(Runnable cmd) {
+        commands.add(cmd);
+        runPendingCommands();
+    }
+
+    private void applyConfig(OverlayConfig cfg, boolean forceReset) {
         boolean enabledChangedToTrue = cfg.enabled && !wasEnabled;
         wasEnabled = cfg.enabled;
 
         this.config = cfg;
 
+        if (!cfg.enabled) {
+            scheduler.deactivateAll();
+        }
+
+        applyTelemetry(cfg.enabled && cfg.telemetryFileEnabled);
+
         ensureCapacity();
 
         if (forceReset || enabledChangedToTrue) {
-            reset();
+            resetNow();
         }
     }
 
-    public void reset() {
+    private void resetNow() {
         head = 0;
         size = 0;
 
         lastFrameStartNs = 0;
 
-        lastFpsUpdateNs = 0;
-        lastFtUpdateNs = 0;
-        lastAvgUpdateNs = 0;
-        lastLow1UpdateNs = 0;
-        lastLow01UpdateNs = 0;
-        lastStuttersUpdateNs = 0;
+        scheduler.reset();
+        graph.clear();
 
-        cachedFps = 0;
-        cachedFtMs = 0;
-        cachedAvg = 0;
-        cachedLow1 = 0;
-        cachedLow01 = 0;
-
-        cachedStutters = 0;
-        cachedStutterPercent = 0;
-        cachedMaxSpikeMs = 0;
+        wasPaused = false;
 
-        cachedGcPauseMs = -1;
-        lastGcUpdateNs = 0;
+        cached = buildSnapshot(COLOR_WHITE);
+        publishMetrics(System.nanoTime());
+    }
 
-        cachedMemUsedMb = 0;
-        cachedMemMaxMb = 0;
-        lastMemUpdateNs = 0;
+    /**
+     * Registered metrics in overlay order. Read-only; descriptors are safe to use from the config screen.
+     */
+    public List<Metric> getRegisteredMetrics() {
+        return metrics;
+    }
 
-        wasPaused = false;
+    /**
+     * Public API view of this tracker (see {@link PerformanceOverlayApi}).
+     */
+    public PerformanceOverlayApi api() {
+        return api;
+    }
 
-        cached = buildSnapshot(COLOR_WHITE);
+    /**
+     * Adds time spent by the mod outside the tracker (overlay drawing) to the self-overhead metric.
+     * Owner thread only.
+     */
+    public void addSelfTime(long ns) {
+        builtins.selfOverhead.addSelfTime(ns);
     }
 
     public Snapshot getSnapshot() {
         return cached;
     }
 
+    /**
+     * Frametime graph fed by {@link #onFrame}. Render thread only.
+     */
+    public FrametimeGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Whole-session history fed by {@link #onFrame}; not cleared by reset. Render thread only.
+     */
+    public SessionHistory getSessionHistory() {
+        return sessionHistory;
+    }
+
+    /**
+     * Frametime histogram panel. Render thread only.
+     */
+    public FrametimeHistogram getHistogram() {
+        return builtins.histogram;
+    }
+
+    /**
+     * Latest published metric values. Safe to call from any thread.
+     */
+    public Metrics getMetrics() {
+        return published;
+    }
+
     public String getText() {
-        if (cached == null || cached.isEmpty()) {
+        Snapshot snap = cached;
+        if (snap == null || snap.isEmpty()) {
             return "";
         }
         StringBuilder sb = new StringBuilder(96);
-        for (int i = 0; i < cached.count; i++) {
+        for (int i = 0; i < snap.count; i++) {
             if (i > 0) {
                 sb.append('\n');
             }
-            sb.append(cached.lines[i]);
+            sb.append(snap.lines[i]);
         }
         return sb.toString();
     }
@@ -159,7 +303,7 @@ public final class FpsTracker {
         return benchmarkActive;
     }
 
-    public BenchmarkStatus toggleBenchmark() {
+    private BenchmarkStatus toggleBenchmarkNow() {
         if (benchmarkActive) {
             return stopBenchmark();
         }
@@ -173,10 +317,53 @@ public final class FpsTracker {
         return startBenchmark();
     }
 
+    /**
+     * Index of finished runs; the first call starts loading it in the background.
+     */
+    public BenchmarkLibrary getBenchmarkLibrary() {
+        library.ensureLoaded();
+        return library;
+    }
+
     public BenchmarkSummary getBenchmarkSummary() {
         return lastBenchmarkSummary;
     }
 
+    /**
+     * Path of the trace written by the last finished benchmark, or empty if trace export was off.
+     */
+    public String getLastTraceFilePath() {
+        return lastTraceFilePath;
+    }
+
+    // ---------- Tick hooks (for PerformanceOverlayClient) ----------
+
+    public void onClientTickStart() {
+        clientTickStartNs = System.nanoTime();
+    }
+
+    public void onClientTickEnd() {
+        if (traceExporter == null || clientTickStartNs == 0) {
+            return;
+        }
+
+        try {
+            traceExporter.clientTick(clientTickStartNs, System.nanoTime());
+        } catch (IOException e) {
+            closeTrace();
+        }
+    }
+
+    // Called from the integrated server thread.
+    public void onServerTickStart() {
+        serverTicks.tickStart(System.nanoTime());
+    }
+
+    // Called from the integrated server thread.
+    public void onServerTickEnd() {
+        serverTicks.tickEnd(System.nanoTime());
+    }
+
     private BenchmarkStatus startBenchmark() {
         // Defensive: close any leftover writer
         if (benchmarkWriter != null) {
@@ -190,21 +377,23 @@ public final class FpsTracker {
         benchmarkHadWriteError = false;
 
         try {
-            Path dir = FabricLoader.getInstance().getConfigDir().resolve("performanceoverlay").resolve("benchmarks");
+            Path dir = benchmarksDir();
             Files.createDirectories(dir);
 
             LocalDateTime now = LocalDateTime.now();
+            benchmarkStartDate = now;
 
-            benchmarkFileName = "benchmark_" + now.format(TS) + ".csv";
+            benchmarkFileName = "benchmark_" + now.format(TS) + (config.benchmarkCompress ? ".csv.gz" : ".csv");
             Path file = dir.resolve(benchmarkFileName);
             benchmarkFilePath = file.toAbsolutePath().toString();
 
-            benchmarkWriter = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            benchmarkWriter = BenchmarkCsvWriter.open(file, config.benchmarkCompress);
 
             benchmarkWriter.write("# PerformanceOverlay Benchmark\n");
             benchmarkWriter.write("# Date: " + now.format(TS_HUMAN) + "\n");
             benchmarkWriter.write("# ModVersion: " + getModVersion() + "\n");
             benchmarkWriter.write("# Minecraft: " + getMinecraftVersion() + "\n");
+            benchmarkWriter.write("# Preset: " + config.preset.name() + "\n");
             benchmarkWriter.write("# DurationSec: " + Math.max(0, config.autoBenchmarkDurationSec) + "\n");
             benchmarkWriter.write("# PauseHandling: " + config.pauseHandling.name() + "\n");
             benchmarkWriter.write("# StutterThresholdMs: " + config.stutterThresholdMs + "\n");
@@ -212,25 +401,62 @@ public final class FpsTracker {
             benchmarkWriter.write("# Low1WindowSec: " + config.low1WindowSec + "\n");
             benchmarkWriter.write("# Low01WindowSec: " + config.low01WindowSec + "\n");
             benchmarkWriter.write("# FpsWindowMs: " + config.fpsWindowMs + "\n");
+            benchmarkWriter.write("# LowMethod: " + config.lowMethod.name() + "\n");
+            benchmarkWriter.write("# FrameBudgetsMs: " + BuiltinMetrics.Budgets.format(BuiltinMetrics.Budgets.parse(config.frameBudgetsMs)) + "\n");
+
+            long startNs = System.nanoTime();
+            lastTraceFilePath = "";
+
+            if (config.benchmarkTraceExport) {
+                String traceName = "benchmark_" + now.format(TS) + ".trace.json";
+                try {
+                    Path traceFile = dir.resolve(traceName);
+                    traceExporter = TraceExporter.open(traceFile, startNs);
+                    traceExporter.marker(startNs, "Benchmark start");
+                    traceFilePath = traceFile.toAbsolutePath().toString();
+                    serverTicks.skipPending();
+
+                    benchmarkWriter.write("# TraceFile: " + traceName + "\n");
+                } catch (IOException e) {
+                    // Trace is optional; keep the CSV run going without it
+                    closeTrace();
+                }
+            }
 
-            benchmarkWriter.write(
-                    "elapsed_ms,frame_ms,inst_fps,fps_smoothed,avg_fps,low1_fps,low01_fps,stutters,stutter_percent,max_spike_ms,gc_pause_ms,mem_used_mb,mem_max_mb\n"
-            );
+            benchmarkWriter.write("# SafepointStats: " + (builtins.jvmEvents.sampler().isSafepointSupported() ? "yes" : "unavailable") + "\n");
+
+            benchmarkWriter.write(csvHeader());
+
+            if (config.benchmarkJournal) {
+                try {
+                    benchmarkJournal = BenchmarkJournal.create(
+                            dir.resolve("benchmark_" + now.format(TS) + BenchmarkJournal.EXTENSION),
+                            BenchmarkJournal.Header.start(benchmarkFileName, System.currentTimeMillis(),
+                                    config.stutterThresholdMs, config.frameBudgetsMs, config.lowMethod.name()));
+                } catch (IOException e) {
+                    // Journal is a safety net; run without it
+                    closeJournal();
+                }
+            }
 
             benchmarkActive = true;
-            benchmarkStartNs = System.nanoTime();
+            benchmarkStartNs = startNs;
             benchmarkFlushCounter = 0;
             benchmarkFrameCount = 0;
 
             benchmarkFramesSize = 0;
             benchmarkTotalNs = 0;
             benchmarkMaxFrameNs = 0;
+            clearSpikeAttribution();
+
+            // Re-baseline so the first row only covers the first frame
+            builtins.jvmEvents.sampleFrame();
 
             if (benchmarkFramesNs == null) {
                 benchmarkFramesNs = new long[6000];
             }
 
-            lastBenchmarkSummary = new BenchmarkSummary(0, 0, 0, 0, 0, 0);
+            lastBenchmarkSummary = BenchmarkSummary.empty();
 
             return BenchmarkStatus.started(benchmarkFileName, benchmarkFilePath);
         } catch (IOException e) {
@@ -239,6 +465,117 @@ public final class FpsTracker {
         }
     }
 
+    /**
+     * Finishes benchmarks interrupted by a crash or kill: replays each journal left in the benchmarks
+     * folder, appends the rebuilt {@code # SUMMARY} to its CSV and deletes the journal. Call once at
+     * startup, before the first frame. Returns the CSV names that were recovered.
+     */
+    public List<String> recoverBenchmarkJournals() {
+        List<String> recovered = new ArrayList<>();
+        Path dir = benchmarksDir();
+
+        List<Path> journals;
+        try (Stream<Path> files = Files.list(dir)) {
+            journals = files.filter(f -> f.getFileName().toString().endsWith(BenchmarkJournal.EXTENSION)).toList();
+        } catch (IOException e) {
+            return recovered;
+        }
+
+        for (Path journal : journals) {
+            try {
+                String name = recoverJournal(dir, journal);
+                if (name != null) {
+                    recovered.add(name);
+                }
+                Files.deleteIfExists(journal);
+            } catch (IOException ignored) {
+                // Unreadable or foreign file; leave it for the user
+            } finally {
+                clearBenchmarkStateKeepSummary();
+            }
+        }
+
+        return recovered;
+    }
+
+    private String recoverJournal(Path dir, Path journal) throws IOException {
+        benchmarkFramesSize = 0;
+        benchmarkTotalNs = 0;
+        benchmarkMaxFrameNs = 0;
+        clearSpikeAttribution();
+
+        BenchmarkJournal.Header h = BenchmarkJournal.readHeader(journal);
+        if (h.finished() || h.csvName().isEmpty()) {
+            return null;
+        }
+
+        long thresholdNs = (long) Math.max(1, h.stutterThresholdMs()) * NS_PER_MS;
+        BenchmarkJournal.read(journal, (elapsedNs, frameNs, flags, cause) -> {
+            benchPushFrame(frameNs);
+            benchAttributeSpike(frameNs, flags, thresholdNs);
+            if (cause >= 0 && cause < SpikeClassifier.CAUSE_COUNT) {
+                benchmarkSpikeCauses[cause]++;
+            }
+        });
+
+        // A cut-off gzip stream can't be appended to; its summary goes to a plain file next to it
+        String csvName = h.csvName();
+        if (csvName.endsWith(".csv.gz")) {
+            csvName = csvName.substring(0, csvName.length() - ".csv.gz".length()) + ".recovered.csv";
+        }
+
+        Path csv = dir.resolve(csvName);
+        if (Files.exists(csv) && hasSummary(csv)) {
+            return null;
+        }
+
+        OverlayConfig.LowMethod lowMethod;
+        try {
+            lowMethod = OverlayConfig.LowMethod.valueOf(h.lowMethod());
+        } catch (IllegalArgumentException e) {
+            lowMethod = config.lowMethod;
+        }
+
+        BenchmarkSummary summary = buildBenchmarkSummaryFullRun(lowMethod, h.stutterThresholdMs(),
+                BuiltinMetrics.Budgets.parse(h.frameBudgetsMs()));
+
+        boolean newline = Files.exists(csv) && !endsWithNewline(csv);
+        try (BufferedWriter w = Files.newBufferedWriter(csv, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (newline) {
+                w.write("\n"); // the last row was cut off mid-line
+            }
+            w.write("# Recovered: " + h.records() + " frames from " + journal.getFileName() + "\n");
+            writeSummary(w, summary, h.records(), benchmarkFramesSize);
+        }
+
+        if (BenchmarkLibrary.isBenchmarkCsv(csv)) {
+            library.addFile(csv);
+        }
+
+        return csvName;
+    }
+
+    private static boolean hasSummary(Path csv) throws IOException {
+        try (Stream<String> lines = Files.lines(csv, StandardCharsets.UTF_8)) {
+            return lines.anyMatch(l -> l.equals("# SUMMARY"));
+        } catch (UncheckedIOException e) {
+            return false;
+        }
+    }
+
+    private static boolean endsWithNewline(Path csv) throws IOException {
+        try (FileChannel ch = FileChannel.open(csv, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size == 0) {
+                return true;
+            }
+            ByteBuffer b = ByteBuffer.allocate(1);
+            ch.read(b, size - 1);
+            return b.get(0) == '\n';
+        }
+    }
+
     private BenchmarkStatus stopBenchmark() {
         try {
             benchmarkActive = false;
@@ -246,22 +583,39 @@ public final class FpsTracker {
             String name = benchmarkFileName;
             String path = benchmarkFilePath;
 
-            lastBenchmarkSummary = buildBenchmarkSummaryFullRun();
+            lastBenchmarkSummary = buildBenchmarkSummaryFullRun(config.lowMethod, config.stutterThresholdMs,
+                    BuiltinMetrics.Budgets.parse(config.frameBudgetsMs));
+
+            if (traceExporter != null) {
+                try {
+                    traceExporter.marker(System.nanoTime(), "Benchmark stop");
+                    traceExporter.close();
+                    lastTraceFilePath = traceFilePath;
+                } catch (IOException ignored) {
+                }
+                traceExporter = null;
+                traceFilePath = "";
+            }
 
+            long csvBytes = -1;
+            long fileBytes = -1;
             if (benchmarkWriter != null) {
-                benchmarkWriter.write("# SUMMARY\n");
-
-                // Avoid lying if we hit the in-memory cap:
-                benchmarkWriter.write("# FramesLogged: " + benchmarkFrameCount + "\n");
-                benchmarkWriter.write("# FramesSummary: " + benchmarkFramesSize + "\n");
-
-                benchmarkWriter.write("# AvgFPS: " + f1(lastBenchmarkSummary.avg()) + "\n");
-                benchmarkWriter.write("# Low1FPS: " + f1(lastBenchmarkSummary.low1()) + "\n");
-                benchmarkWriter.write("# Low01FPS: " + f1(lastBenchmarkSummary.low01()) + "\n");
-                benchmarkWriter.write("# Stutters: " + lastBenchmarkSummary.stutters() + "\n");
-                benchmarkWriter.write("# MaxSpikeMs: " + ms1(lastBenchmarkSummary.maxSpikeMs()) + "\n");
-                benchmarkWriter.flush();
+                writeSummary(benchmarkWriter, lastBenchmarkSummary, benchmarkFrameCount, benchmarkFramesSize);
                 benchmarkWriter.close();
+
+                csvBytes = benchmarkWriter.csvBytes();
+                fileBytes = benchmarkWriter.fileBytes();
+            }
+
+            if (benchmarkJournal != null) {
+                benchmarkJournal.finish();
+                benchmarkJournal = null;
+            }
+
+            if (benchmarkStartDate != null) {
+                library.add(BenchmarkLibrary.Entry.of(name, benchmarkStartDate, getMinecraftVersion(), getModVersion(),
+                        config.preset.name(), config.lowMethod.name(), Math.max(0, config.autoBenchmarkDurationSec),
+                        benchmarkFrameCount, lastBenchmarkSummary, benchmarkSketch()));
             }
 
             // FIX #1: on successful stop, clear the write-error flag
@@ -269,13 +623,44 @@ public final class FpsTracker {
 
             clearBenchmarkStateKeepSummary();
 
-            return BenchmarkStatus.stopped(name, path);
+            return BenchmarkStatus.stopped(name, path, csvBytes, fileBytes);
         } catch (IOException e) {
             clearBenchmarkStateKeepSummary();
             return BenchmarkStatus.error("Failed to stop benchmark: " + e.getMessage());
         }
     }
 
+    private static void writeSummary(Writer w, BenchmarkSummary s, long framesLogged, int framesSummary)
+            throws IOException {
+        w.write("# SUMMARY\n");
+
+        // Avoid lying if we hit the in-memory cap:
+        w.write("# FramesLogged: " + framesLogged + "\n");
+        w.write("# FramesSummary: " + framesSummary + "\n");
+
+        w.write("# AvgFPS: " + f1(s.avg()) + "\n");
+        w.write("# Low1FPS: " + f1(s.low1()) + "\n");
+        w.write("# Low01FPS: " + f1(s.low01()) + "\n");
+        w.write("# Stutters: " + s.stutters() + "\n");
+        w.write("# MaxSpikeMs: " + ms1(s.maxSpikeMs()) + "\n");
+        w.write("# SpikeOverlapGcPct: " + f1(s.spikeGcPct()) + "\n");
+        w.write("# SpikeOverlapJitPct: " + f1(s.spikeJitPct()) + "\n");
+        w.write("# SpikeOverlapClassLoadPct: " + f1(s.spikeClassLoadPct()) + "\n");
+        w.write("# SpikeOverlapSafepointPct: " + f1(s.spikeSafepointPct()) + "\n");
+        w.write("# FrameDeltaMs: " + ms3(s.frameDeltaMs()) + "\n");
+        w.write("# FrametimeSdMs: " + ms3(s.frametimeSdMs()) + "\n");
+        w.write("# PacingScore: " + f1(s.pacingScore()) + "\n");
+        w.write("# HitchPeriodSec: " + f1(s.hitchPeriodSec()) + "\n");
+        w.write("# HitchPeriodConfidencePct: " + f1(s.hitchPeriodConfidencePct()) + "\n");
+        for (int c = 0; c < SpikeClassifier.CAUSE_COUNT; c++) {
+            w.write("# SpikeCause." + SpikeClassifier.csvName(c) + ": " + s.spikeCauses()[c] + "\n");
+        }
+        for (int k = 0; k < s.budgetsMs().length; k++) {
+            w.write("# FramesUnder" + ms1(s.budgetsMs()[k]) + "MsPct: "
+                    + f1(s.budgetPct()[k]) + "\n");
+        }
+    }
+
     private void clearBenchmarkState() {
         benchmarkActive = false;
         benchmarkHadWriteError = false;
@@ -288,6 +673,8 @@ public final class FpsTracker {
         }
 
         benchmarkWriter = null;
+        benchmarkStartDate = null;
+        closeJournal();
         benchmarkFileName = "";
         benchmarkFilePath = "";
         benchmarkStartNs = 0;
@@ -297,14 +684,26 @@ public final class FpsTracker {
         benchmarkFramesSize = 0;
         benchmarkTotalNs = 0;
         benchmarkMaxFrameNs = 0;
+        clearSpikeAttribution();
+
+        closeTrace();
 
-        lastBenchmarkSummary = new BenchmarkSummary(0, 0, 0, 0, 0, 0);
+        lastBenchmarkSummary = BenchmarkSummary.empty();
     }
 
     private void clearBenchmarkStateKeepSummary() {
         benchmarkActive = false;
 
+        if (benchmarkWriter != null) {
+            try {
+                benchmarkWriter.close(); // no-op after a clean stop; stops the writer thread after an error
+            } catch (IOException ignored) {
+            }
+        }
+
         benchmarkWriter = null;
+        benchmarkStartDate = null;
+        closeJournal();
         benchmarkFileName = "";
         benchmarkFilePath = "";
         benchmarkStartNs = 0;
@@ -314,9 +713,39 @@ public final class FpsTracker {
         benchmarkFramesSize = 0;
         benchmarkTotalNs = 0;
         benchmarkMaxFrameNs = 0;
+        clearSpikeAttribution();
+
+        closeTrace();
+    }
+
+    private void clearSpikeAttribution() {
+        benchmarkSpikeNs = 0;
+        benchmarkSpikeGcNs = 0;
+        benchmarkSpikeJitNs = 0;
+        benchmarkSpikeClassLoadNs = 0;
+        benchmarkSpikeSafepointNs = 0;
+        Arrays.fill(benchmarkSpikeCauses, 0);
+    }
+
+    // Keeps the file: a journal that wasn't finished is recovered on the next launch
+    private void closeJournal() {
+        if (benchmarkJournal != null) {
+            benchmarkJournal.close();
+        }
+        benchmarkJournal = null;
+    }
+
+    private void closeTrace() {
+        if (traceExporter != null) {
+            traceExporter.closeQuietly();
+        }
+        traceExporter = null;
+        traceFilePath = "";
     }
 
     public void onFrame(boolean paused) {
+        runPendingCommands();
+
         long nowNs = System.nanoTime();
 
         if (!config.enabled) {
@@ -328,7 +757,7 @@ public final class FpsTracker {
         if (paused) {
             if (config.pauseHandling == OverlayConfig.PauseHandling.RESET) {
                 if (!wasPaused) {
-                    reset();
+                    resetNow();
                 }
                 wasPaused = true;
                 lastFrameStartNs = nowNs;
@@ -362,67 +791,42 @@ public final class FpsTracker {
         push(nowNs, dtNs);
         pruneOld(nowNs);
 
-        boolean changed = false;
-
-        boolean needFpsForColor = config.colorThresholds && config.colorTarget == OverlayConfig.ColorTarget.FPS;
-        boolean needLow1ForColor = config.colorThresholds && config.colorTarget == OverlayConfig.ColorTarget.LOW_1;
-        boolean needLow01ForColor = config.colorThresholds && config.colorTarget == OverlayConfig.ColorTarget.LOW_01;
-
-        boolean dueFps = (config.showFps || needFpsForColor) && due(nowNs, lastFpsUpdateNs, clamp(config.fpsUpdateMs, 50, 5000));
-        boolean dueFt = config.showFrametime && due(nowNs, lastFtUpdateNs, clamp(config.frametimeUpdateMs, 50, 5000));
-
-        if (dueFps || dueFt) {
-            Smoothed s = computeSmoothed(nowNs, dtNs);
-
-            if (dueFps) {
-                cachedFps = s.fps;
-                lastFpsUpdateNs = nowNs;
-                changed = true;
-            }
-            if (dueFt) {
-                cachedFtMs = s.ftMs;
-                lastFtUpdateNs = nowNs;
-                changed = true;
-            }
-        }
+        lastFrameNs = dtNs;
+        builtins.selfOverhead.addFrame(dtNs);
 
-        if (config.showAvg && due(nowNs, lastAvgUpdateNs, clamp(config.avgUpdateMs, 100, 10000))) {
-            cachedAvg = windowFps(nowNs, (long) config.avgWindowSec * NS_PER_SEC);
-            lastAvgUpdateNs = nowNs;
-            changed = true;
-        }
-
-        if ((config.show1Low || needLow1ForColor) && due(nowNs, lastLow1UpdateNs, clamp(config.low1UpdateMs, 100, 10000))) {
-            cachedLow1 = lowValue(nowNs, (long) config.low1WindowSec * NS_PER_SEC, 0.01);
-            lastLow1UpdateNs = nowNs;
-            changed = true;
+        if (config.showFrametimeGraph) {
+            graph.push(dtNs, config);
+        } else {
+            graph.clear();
         }
 
-        if ((config.show01Low || needLow01ForColor) && due(nowNs, lastLow01UpdateNs, clamp(config.low01UpdateMs, 100, 10000))) {
-            cachedLow01 = lowValue(nowNs, (long) config.low01WindowSec * NS_PER_SEC, 0.001);
-            lastLow01UpdateNs = nowNs;
-            changed = true;
+        if (config.sessionHistoryEnabled) {
+            sessionHistory.onFrame(nowNs, dtNs);
         }
 
-        if ((config.showStutters || config.showMaxSpike) && due(nowNs, lastStuttersUpdateNs, clamp(config.stuttersUpdateMs, 100, 10000))) {
-            long windowNs = (long) config.stutterWindowSec * NS_PER_SEC;
-            long thresholdNs = (long) Math.max(1, config.stutterThresholdMs) * NS_PER_MS;
+        boolean benchmarkRecording = benchmarkActive && benchmarkWriter != null;
 
-            WindowStats w = windowStats(nowNs, windowNs);
-            int frames = w.count;
+        // External readers (endpoint / telemetry file) need every exported value, shown or not
+        boolean exporting = config.metricsServerEnabled || telemetry != null;
+        long apiNs = apiReadNs;
+        long apiQuantilesNs = apiQuantilesReadNs;
+        boolean apiReading = apiNs != 0 && nowNs - apiNs < API_READ_TTL_NS;
+        boolean apiReadingQuantiles = apiQuantilesNs != 0 && nowNs - apiQuantilesNs < API_READ_TTL_NS;
 
-            cachedStutters = countAboveThreshold(nowNs, windowNs, thresholdNs);
-            cachedStutterPercent = (frames > 0) ? (int) Math.round((cachedStutters * 100.0) / frames) : 0;
+        // Integrated server ticks since the last frame (MSPT, trace)
+        serverTicks.drain(serverTickSink);
 
-            long maxFrameNs = maxFrameInWindow(nowNs, windowNs);
-            cachedMaxSpikeMs = nsToMs(maxFrameNs);
-
-            lastStuttersUpdateNs = nowNs;
-            changed = true;
+        // JVM runtime events: per frame while recording (for per-row deltas and spike attribution)
+        if (benchmarkRecording) {
+            builtins.jvmEvents.sampleFrame();
         }
 
+        scheduler.window().bind(timeNs, frameNs, scratch, head, size, framesTotal);
+        metricContext.set(config, nowNs, dtNs, benchmarkRecording, exporting, apiReading, apiReadingQuantiles);
+        boolean changed = scheduler.run(metricContext);
+
         // Benchmark write (per-frame)
-        if (benchmarkActive && benchmarkWriter != null) {
+        if (benchmarkRecording) {
             try {
                 long elapsedMs = (nowNs - benchmarkStartNs) / NS_PER_MS;
                 double frameMs = (double) dtNs / (double) NS_PER_MS;
@@ -430,27 +834,35 @@ public final class FpsTracker {
 
                 // Collect full-run frametimes for end-of-run summary
                 benchPushFrame(dtNs);
+                int jvmFlags = builtins.jvmEvents.sampler().flags();
+                int spikeCause = builtins.spikeCauses.lastCause();
+                benchAttributeSpike(dtNs, jvmFlags, (long) Math.max(1, config.stutterThresholdMs) * NS_PER_MS);
+                if (spikeCause != SpikeClassifier.NONE) {
+                    benchmarkSpikeCauses[spikeCause]++;
+                }
 
-                benchmarkWriter.write(
-                        elapsedMs + "," +
-                                ms3(frameMs) + "," +
-                                f1(instFps) + "," +
-                                f1(cachedFps) + "," +
-                                f1(cachedAvg) + "," +
-                                f1(cachedLow1) + "," +
-                                f1(cachedLow01) + "," +
-                                cachedStutters + "," +
-                                cachedStutterPercent + "," +
-                                ms3(cachedMaxSpikeMs) + "," +
-                                ms1((double) cachedGcPauseMs) + "," +
-                                cachedMemUsedMb + "," +
-                                cachedMemMaxMb + "\n"
-                );
+                if (benchmarkJournal != null) {
+                    benchmarkJournal.append(nowNs - benchmarkStartNs, dtNs, jvmFlags, spikeCause);
+                }
+
+                StringBuilder row = csvRow;
+                row.setLength(0);
+                row.append(elapsedMs).append(',').append(ms3(frameMs)).append(',').append(f1(instFps));
+                for (Metric m : metrics) {
+                    m.appendCsv(row);
+                }
+                row.append('\n');
+                benchmarkWriter.append(row);
 
                 benchmarkFrameCount++;
 
+                if (traceExporter != null) {
+                    writeTraceFrame(nowNs, dtNs);
+                }
+
+                // With a journal the CSV only needs flushing when its buffer fills
                 benchmarkFlushCounter++;
-                if (benchmarkFlushCounter >= 120) {
+                if (benchmarkJournal == null && benchmarkFlushCounter >= 120) {
                     benchmarkWriter.flush();
                     benchmarkFlushCounter = 0;
                 }
@@ -461,29 +873,141 @@ public final class FpsTracker {
             }
         }
 
-        // GC pause (once per second)
-        if (config.showGc && due(nowNs, lastGcUpdateNs, 1000)) {
-            long gcMs = readLastGcPauseMs();
-            cachedGcPauseMs = (gcMs > 0) ? gcMs : -1;
-            lastGcUpdateNs = nowNs;
-            changed = true;
+        if (changed) {
+            int color = pickColor(builtins.fps.value(), builtins.low1.value(), builtins.low01.value());
+            cached = buildSnapshot(color);
+            publishMetrics(nowNs);
+        }
+
+        FrameListener[] listeners = frameListeners;
+        if (listeners.length > 0) {
+            dispatchFrame(listeners, dtNs, nowNs);
         }
 
-        // Memory (once per second)
-        if (config.showMemory && due(nowNs, lastMemUpdateNs, 250)) {
-            Runtime rt = Runtime.getRuntime();
-            long used = rt.totalMemory() - rt.freeMemory();
+        if (telemetry != null) {
+            telemetry.publish(published, dtNs);
+        }
+    }
 
-            cachedMemUsedMb = used / (1024 * 1024);
-            cachedMemMaxMb = rt.maxMemory() / (1024 * 1024);
+    private void dispatchFrame(FrameListener[] listeners, long dtNs, long nowNs) {
+        long startNs = System.nanoTime();
 
-            lastMemUpdateNs = nowNs;
-            changed = true;
+        for (FrameListener l : listeners) {
+            try {
+                l.onFrame(dtNs, nowNs);
+            } catch (RuntimeException e) {
+                // A broken listener must not take the render thread down with it
+                removeFrameListener(l);
+            }
         }
 
-        if (changed) {
-            int color = pickColor(cachedFps, cachedLow1, cachedLow01);
-            cached = buildSnapshot(color);
+        builtins.selfOverhead.addListenerTime(System.nanoTime() - startNs);
+    }
+
+    private void addFrameListener(FrameListener listener) {
+        synchronized (listenersLock) {
+            FrameListener[] cur = frameListeners;
+            FrameListener[] next = new FrameListener[cur.length + 1];
+            System.arraycopy(cur, 0, next, 0, cur.length);
+            next[cur.length] = listener;
+            frameListeners = next;
+        }
+    }
+
+    private void removeFrameListener(FrameListener listener) {
+        synchronized (listenersLock) {
+            FrameListener[] cur = frameListeners;
+            for (int i = 0; i < cur.length; i++) {
+                if (cur[i] == listener) {
+                    FrameListener[] next = new FrameListener[cur.length - 1];
+                    System.arraycopy(cur, 0, next, 0, i);
+                    System.arraycopy(cur, i + 1, next, i, cur.length - i - 1);
+                    frameListeners = next;
+                    return;
+                }
+            }
+        }
+    }
+
+    private void applyTelemetry(boolean want) {
+        if (!want) {
+            if (telemetry != null) {
+                telemetry.close();
+                telemetry = null;
+            }
+            return;
+        }
+
+        if (telemetry != null) {
+            return;
+        }
+
+        try {
+            Path file = FabricLoader.getInstance().getConfigDir()
+                    .resolve("performanceoverlay")
+                    .resolve("telemetry.bin");
+            telemetry = TelemetryFile.open(file);
+        } catch (IOException | RuntimeException e) {
+            telemetry = null;
+        }
+    }
+
+    private void publishMetrics(long nowNs) {
+        BuiltinMetrics b = builtins;
+        published = new Metrics(
+                nowNs,
+                framesTotal,
+                b.fps.value(),
+                b.frametime.valueMs(),
+                b.avg.value(),
+                b.low1.value(),
+                b.low01.value(),
+                b.quantiles.p50Ms(),
+                b.quantiles.p99Ms(),
+                b.quantiles.p999Ms(),
+                b.stutters.count(),
+                b.stutters.percent(),
+                b.maxSpike.valueMs(),
+                Math.max(0, b.gc.pauseMs()),
+                b.memory.usedMb(),
+                b.memory.maxMb(),
+                b.mspt.valueMs(),
+                benchmarkActive
+        );
+    }
+
+    private String csvHeader() {
+        StringBuilder sb = new StringBuilder(512);
+        sb.append("elapsed_ms,frame_ms,inst_fps");
+        for (Metric m : metrics) {
+            for (String column : m.csvColumns()) {
+                sb.append(',').append(column);
+            }
+        }
+        return sb.append('\n').toString();
+    }
+
+    private void writeTraceFrame(long nowNs, long dtNs) {
+        try {
+            long thresholdNs = (long) Math.max(1, config.stutterThresholdMs) * NS_PER_MS;
+            traceExporter.frame(nowNs, dtNs, dtNs >= thresholdNs);
+        } catch (IOException e) {
+            // Losing the trace should not abort the CSV run
+            closeTrace();
+        }
+    }
+
+    private void onServerTick(long startNs, long endNs) {
+        builtins.mspt.addTick(endNs - startNs);
+        builtins.spikeCauses.addServerTick(endNs - startNs);
+
+        if (traceExporter == null) {
+            return;
+        }
+        try {
+            traceExporter.serverTick(startNs, endNs);
+        } catch (IOException e) {
+            closeTrace();
         }
     }
 
@@ -495,149 +1019,43 @@ public final class FpsTracker {
 
         if (mode == OverlayConfig.TextLayout.ONE_LINE) {
             StringBuilder sb = new StringBuilder(120);
+            appendRow(sb, -1);
 
-            if (config.showFps) {
-                sb.append("FPS: ").append(roundInt(cachedFps));
-            }
-            if (config.showAvg) {
-                appendSep(sb);
-                sb.append("Avg: ").append(roundInt(cachedAvg));
-            }
-            if (config.show1Low) {
-                appendSep(sb);
-                sb.append("1%: ").append(roundInt(cachedLow1));
-            }
-            if (config.show01Low) {
-                appendSep(sb);
-                sb.append("0.1%: ").append(roundInt(cachedLow01));
-            }
-            if (config.showFrametime) {
-                appendSep(sb);
-                sb.append("FT: ").append(ms1(cachedFtMs)).append("ms");
-            }
-            if (config.showStutters) {
-                appendSep(sb);
-                sb.append("St: ").append(cachedStutters).append(" (").append(cachedStutterPercent).append("%)");
-            }
-            if (config.showMaxSpike) {
-                appendSep(sb);
-                sb.append("Spike: ").append(ms1(cachedMaxSpikeMs)).append("ms");
-            }
-            if (config.showGc) {
-                appendSep(sb);
-                sb.append("GC: ").append(cachedGcPauseMs > 0 ? cachedGcPauseMs + "ms" : "NaN");
-            }
-            if (config.showMemory) {
-                appendSep(sb);
-                sb.append("Mem: ")
-                        .append(cachedMemUsedMb)
-                        .append(" / ")
-                        .append(cachedMemMaxMb)
-                        .append("M");
-            }
-
-            String t = sb.toString();
-            if (t.isEmpty()) {
+            if (sb.length() == 0) {
                 return Snapshot.empty();
             }
 
-            lines[0] = t;
+            lines[0] = sb.toString();
             return new Snapshot(lines, 1, color);
         }
 
         if (mode == OverlayConfig.TextLayout.THREE_LINES) {
-            StringBuilder a = new StringBuilder(80); // FPS Avg FT
-            StringBuilder b = new StringBuilder(80); // 1% 0.1% St
-            StringBuilder c = new StringBuilder(80); // Spike GC Mem
-
-            // --- LINE 1 ---
-            if (config.showFps) {
-                a.append("FPS: ").append(roundInt(cachedFps));
-            }
-            if (config.showAvg) {
-                appendSep(a);
-                a.append("Avg: ").append(roundInt(cachedAvg));
-            }
-            if (config.showFrametime) {
-                appendSep(a);
-                a.append("FT: ").append(ms1(cachedFtMs)).append("ms");
-            }
-
-            // --- LINE 2 ---
-            if (config.show1Low) {
-                b.append("1%: ").append(roundInt(cachedLow1));
-            }
-            if (config.show01Low) {
-                appendSep(b);
-                b.append("0.1%: ").append(roundInt(cachedLow01));
-            }
-            if (config.showStutters) {
-                appendSep(b);
-                b.append("St: ").append(cachedStutters)
-                        .append(" (").append(cachedStutterPercent).append("%)");
-            }
-            if (config.showMaxSpike) {
-                b.append("Spike: ").append(ms1(cachedMaxSpikeMs)).append("ms");
-            }
-
-            // --- LINE 3 ---
-            if (config.showGc) {
-                appendSep(c);
-                c.append("GC: ").append(cachedGcPauseMs > 0 ? cachedGcPauseMs + "ms" : "NaN");
-            }
-            if (config.showMemory) {
-                appendSep(c);
-                c.append("Mem: ")
-                        .append(cachedMemUsedMb)
-                        .append(" / ")
-                        .append(cachedMemMaxMb)
-                        .append("M");
+            for (int row = 0; row < 3; row++) {
+                StringBuilder sb = new StringBuilder(80);
+                appendRow(sb, row);
+                if (sb.length() > 0) {
+                    lines[n++] = sb.toString();
+                }
             }
 
-            if (a.length() == 0 && b.length() == 0 && c.length() == 0) {
+            if (n == 0) {
                 return Snapshot.empty();
             }
 
-            if (a.length() > 0) {
-                lines[n++] = a.toString();
-            }
-            if (b.length() > 0) {
-                lines[n++] = b.toString();
-            }
-            if (c.length() > 0) {
-                lines[n++] = c.toString();
-            }
-
             return new Snapshot(lines, n, color);
         }
 
         // COLUMN
-        if (config.showFps) {
-            lines[n++] = "FPS: " + roundInt(cachedFps);
-        }
-        if (config.showAvg) {
-            lines[n++] = "Avg: " + roundInt(cachedAvg);
-        }
-        if (config.show1Low) {
-            lines[n++] = "1%: " + roundInt(cachedLow1);
-        }
-        if (config.show01Low) {
-            lines[n++] = "0.1%: " + roundInt(cachedLow01);
-        }
-        if (config.showStutters) {
-            lines[n++] = "St: " + cachedStutters + " (" + cachedStutterPercent + "%)";
-        }
-        if (config.showMaxSpike) {
-            lines[n++] = "Spike: " + ms1(cachedMaxSpikeMs) + "ms";
-        }
-        if (config.showFrametime) {
-            lines[n++] = "FT: " + ms1(cachedFtMs) + "ms";
-        }
-        if (config.showGc) {
-            lines[n++] = "GC: " + (cachedGcPauseMs > 0 ? cachedGcPauseMs + "ms" : "NaN");
-        }
-        if (config.showMemory) {
-            lines[n++] = "Mem: " + cachedMemUsedMb + " / " + cachedMemMaxMb + "M";
+        for (Metric m : metrics) {
+            if (!isVisible(m)) {
+                continue;
+            }
+            if (n == lines.length) {
+                break;
+            }
+            StringBuilder sb = new StringBuilder(40);
+            m.format(sb);
+            lines[n++] = sb.toString();
         }
 
         if (n == 0) {
@@ -647,6 +1065,21 @@ public final class FpsTracker {
         return new Snapshot(lines, n, color);
     }
 
+    // row = -1 appends every visible metric
+    private void appendRow(StringBuilder sb, int row) {
+        for (Metric m : metrics) {
+            if (!isVisible(m) || (row >= 0 && m.row() != row)) {
+                continue;
+            }
+            appendSep(sb);
+            m.format(sb);
+        }
+    }
+
+    private boolean isVisible(Metric m) {
+        return m.isShown(config) && m.isAvailable();
+    }
+
     private int pickColor(double fps, double low1, double low01) {
         if (!config.colorThresholds) {
             return COLOR_WHITE;
@@ -675,138 +1108,6 @@ public final class FpsTracker {
         return COLOR_WHITE;
     }
 
-    private Smoothed computeSmoothed(long nowNs, long lastDtNs) {
-        double fps = nsToFps(lastDtNs);
-        double ftMs = nsToMs(lastDtNs);
-
-        long windowNs = (long) config.fpsWindowMs * NS_PER_MS;
-        WindowStats w = windowStats(nowNs, windowNs);
-
-        if (w.count >= 2 && w.sumNs > 0) {
-            fps = (double) w.count * (double) NS_PER_SEC / (double) w.sumNs;
-            ftMs = ((double) w.sumNs / (double) w.count) / (double) NS_PER_MS;
-        }
-
-        return new Smoothed(fps, ftMs);
-    }
-
-    private double lowValue(long nowNs, long windowNs, double worstPercent) {
-        int n = copyFramesToScratch(nowNs, windowNs);
-        if (n <= 0) {
-            return 0;
-        }
-
-        if (config.lowMethod == OverlayConfig.LowMethod.MEAN_WORST) {
-            int k = Math.max(1, (int) Math.ceil(n * worstPercent));
-            long meanWorst = meanWorstK(scratch, n, k);
-            return nsToFps(meanWorst);
-        }
-
-        int index = percentileIndex(n, 1.0 - worstPercent);
-        long dt = selectNth(scratch, 0, n - 1, index);
-        return nsToFps(dt);
-    }
-
-    private static int percentileIndex(int n, double p) {
-        if (n <= 1) {
-            return 0;
-        }
-        double clamped = Math.max(0.0, Math.min(1.0, p));
-        int idx = (int) Math.ceil(n * clamped) - 1;
-        if (idx < 0) {
-            return 0;
-        }
-        if (idx > n - 1) {
-            return n - 1;
-        }
-        return idx;
-    }
-
-    private int countAboveThreshold(long nowNs, long windowNs, long thresholdNs) {
-        long minNs = nowNs - windowNs;
-
-        int cap = frameNs.length;
-        int count = 0;
-
-        for (int i = 0; i < size; i++) {
-            int idx = (head + size - 1 - i + cap) % cap;
-            if (timeNs[idx] < minNs) {
-                break;
-            }
-            if (frameNs[idx] >= thresholdNs) {
-                count++;
-            }
-        }
-
-        return count;
-    }
-
-    private long maxFrameInWindow(long nowNs, long windowNs) {
-        long minNs = nowNs - windowNs;
-
-        int cap = frameNs.length;
-        long max = 0;
-
-        for (int i = 0; i < size; i++) {
-            int idx = (head + size - 1 - i + cap) % cap;
-            if (timeNs[idx] < minNs) {
-                break;
-            }
-            long v = frameNs[idx];
-            if (v > max) {
-                max = v;
-            }
-        }
-
-        return max;
-    }
-
-    private double windowFps(long nowNs, long windowNs) {
-        WindowStats w = windowStats(nowNs, windowNs);
-        if (w.count < 2 || w.sumNs <= 0) {
-            return 0;
-        }
-        return (double) w.count * (double) NS_PER_SEC / (double) w.sumNs;
-    }
-
-    private WindowStats windowStats(long nowNs, long windowNs) {
-        long minNs = nowNs - windowNs;
-
-        long sum = 0;
-        int count = 0;
-
-        int cap = frameNs.length;
-
-        for (int i = 0; i < size; i++) {
-            int idx = (head + size - 1 - i + cap) % cap;
-            if (timeNs[idx] < minNs) {
-                break;
-            }
-            sum += frameNs[idx];
-            count++;
-        }
-
-        return new WindowStats(sum, count);
-    }
-
-    private int copyFramesToScratch(long nowNs, long windowNs) {
-        long minNs = nowNs - windowNs;
-
-        int cap = frameNs.length;
-        int n = 0;
-
-        for (int i = 0; i < size; i++) {
-            int idx = (head + size - 1 - i + cap) % cap;
-            if (timeNs[idx] < minNs) {
-                break;
-            }
-            scratch[n] = frameNs[idx];
-            n++;
-        }
-
-        return n;
-    }
-
     private void ensureCapacity() {
         int maxSec = 1;
 
@@ -829,7 +1130,7 @@ public final class FpsTracker {
         frameNs = new long[desired];
         scratch = new long[desired];
 
-        reset();
+        resetNow();
     }
 
     private void push(long tNs, long dtNs) {
@@ -844,6 +1145,8 @@ public final class FpsTracker {
         timeNs[tail] = tNs;
         frameNs[tail] = dtNs;
         size++;
+
+        framesTotal++;
     }
 
     private void pruneOld(long nowNs) {
@@ -867,83 +1170,33 @@ public final class FpsTracker {
         }
     }
 
-    private static boolean due(long nowNs, long lastUpdateNs, int intervalMs) {
-        if (lastUpdateNs == 0) {
-            return true;
-        }
-        long intervalNs = (long) intervalMs * NS_PER_MS;
-        return nowNs - lastUpdateNs >= intervalNs;
-    }
-
     private static void appendSep(StringBuilder sb) {
         if (sb.length() > 0) {
             sb.append(" | ");
         }
     }
 
-    private static int roundInt(double v) {
-        if (v <= 0 || Double.isNaN(v) || Double.isInfinite(v)) {
-            return 0;
-        }
-        return (int) Math.round(v);
-    }
-
-    private static double nsToFps(long dtNs) {
-        if (dtNs <= 0) {
-            return 0;
-        }
-        return (double) NS_PER_SEC / (double) dtNs;
-    }
-
-    private static double nsToMs(long ns) {
-        if (ns <= 0) {
-            return 0;
-        }
-        return (double) ns / (double) NS_PER_MS;
-    }
-
-    private static String ms1(double ms) {
-        if (ms <= 0 || Double.isNaN(ms) || Double.isInfinite(ms)) {
-            return "0.0";
-        }
-
-        long t = Math.round(ms * 10.0);
-        long whole = t / 10;
-        long frac = Math.abs(t % 10);
-        return whole + "." + frac;
-    }
-
-    private static String ms3(double ms) {
-        long t = Math.round(ms * 1000.0);
-        long whole = t / 1000;
-        long frac = Math.abs(t % 1000);
-        String f = String.valueOf(frac);
-        if (frac < 10) {
-            f = "00" + f;
-        } else if (frac < 100) {
-            f = "0" + f;
-        }
-        return whole + "." + f;
+    static Path benchmarksDir() {
+        return FabricLoader.getInstance().getConfigDir().resolve("performanceoverlay").resolve("benchmarks");
     }
 
-    private static String f1(double v) {
-        if (v <= 0 || Double.isNaN(v) || Double.isInfinite(v)) {
-            return "0.0";
+    // Compact distribution of the run for the library index
+    private int[] benchmarkSketch() {
+        int[] sketch = new int[FrametimeHistogram.BUCKETS];
+        for (int i = 0; i < benchmarkFramesSize; i++) {
+            sketch[FrametimeHistogram.bucketOf(benchmarkFramesNs[i])]++;
         }
-        long t = Math.round(v * 10.0);
-        long whole = t / 10;
-        long frac = Math.abs(t % 10);
-        return whole + "." + frac;
+        return sketch;
     }
 
-    private static String getModVersion() {
+    static String getModVersion() {
         return FabricLoader.getInstance()
                 .getModContainer("performanceoverlay")
                 .map(c -> c.getMetadata().getVersion().getFriendlyString())
                 .orElse("unknown");
     }
 
-    private static String getMinecraftVersion() {
+    static String getMinecraftVersion() {
         try {
             Object v = SharedConstants.getCurrentVersion();
 
@@ -963,81 +1216,6 @@ public final class FpsTracker {
         }
     }
 
-    private static long meanWorstK(long[] a, int n, int k) {
-        int target = n - k;
-        long threshold = selectNth(a, 0, n - 1, target);
-
-        long sum = 0;
-        int countAbove = 0;
-
-        for (int i = 0; i < n; i++) {
-            if (a[i] > threshold) {
-                sum += a[i];
-                countAbove++;
-            }
-        }
-
-        int remaining = k - countAbove;
-        if (remaining > 0) {
-            sum += (long) remaining * threshold;
-        }
-
-        return sum / k;
-    }
-
-    private static long selectNth(long[] a, int left, int right, int n) {
-        while (true) {
-            if (left == right) {
-                return a[left];
-            }
-
-            int pivotIndex = (left + right) >>> 1;
-            pivotIndex = partition(a, left, right, pivotIndex);
-
-            if (n == pivotIndex) {
-                return a[n];
-            }
-            if (n < pivotIndex) {
-                right = pivotIndex - 1;
-            } else {
-                left = pivotIndex + 1;
-            }
-        }
-    }
-
-    private static int partition(long[] a, int left, int right, int pivotIndex) {
-        long pivotValue = a[pivotIndex];
-        swap(a, pivotIndex, right);
-
-        int storeIndex = left;
-
-        for (int i = left; i < right; i++) {
-            if (a[i] < pivotValue) {
-                swap(a, storeIndex, i);
-                storeIndex++;
-            }
-        }
-
-        swap(a, right, storeIndex);
-        return storeIndex;
-    }
-
-    private static void swap(long[] a, int i, int j) {
-        long t = a[i];
-        a[i] = a[j];
-        a[j] = t;
-    }
-
-    private static int clamp(int v, int min, int max) {
-        if (v < min) {
-            return min;
-        }
-        if (v > max) {
-            return max;
-        }
-        return v;
-    }
-
     private void benchPushFrame(long dtNs) {
         if (dtNs <= 0) {
             return;
@@ -1067,10 +1245,30 @@ public final class FpsTracker {
         }
     }
 
-    private BenchmarkSummary buildBenchmarkSummaryFullRun() {
+    private void benchAttributeSpike(long dtNs, int flags, long thresholdNs) {
+        if (dtNs < thresholdNs) {
+            return;
+        }
+
+        benchmarkSpikeNs += dtNs;
+        if ((flags & RuntimeEventSampler.FLAG_GC) != 0) benchmarkSpikeGcNs += dtNs;
+        if ((flags & RuntimeEventSampler.FLAG_JIT) != 0) benchmarkSpikeJitNs += dtNs;
+        if ((flags & RuntimeEventSampler.FLAG_CLASS_LOAD) != 0) benchmarkSpikeClassLoadNs += dtNs;
+        if ((flags & RuntimeEventSampler.FLAG_SAFEPOINT) != 0) benchmarkSpikeSafepointNs += dtNs;
+    }
+
+    private double spikeShare(long ns) {
+        if (benchmarkSpikeNs <= 0) {
+            return 0;
+        }
+        return (ns * 100.0) / benchmarkSpikeNs;
+    }
+
+    private BenchmarkSummary buildBenchmarkSummaryFullRun(OverlayConfig.LowMethod lowMethod, int stutterThresholdMs,
+                                                          double[] budgetsMs) {
         int n = benchmarkFramesSize;
         if (n <= 0 || benchmarkTotalNs <= 0) {
-            return new BenchmarkSummary(0, 0, 0, 0, 0, 0);
+            return BenchmarkSummary.empty();
         }
 
         double avgFps = (double) n * (double) NS_PER_SEC / (double) benchmarkTotalNs;
@@ -1078,7 +1276,15 @@ public final class FpsTracker {
         double low1Fps;
         double low01Fps;
 
-        if (config.lowMethod == OverlayConfig.LowMethod.MEAN_WORST) {
+        if (lowMethod == OverlayConfig.LowMethod.TIME_WEIGHTED) {
+            DurationHistogram durations = new DurationHistogram();
+            for (int i = 0; i < n; i++) {
+                durations.add(benchmarkFramesNs[i]);
+            }
+
+            low1Fps = nsToFps(durations.worstTimeNs(0.01));
+            low01Fps = nsToFps(durations.worstTimeNs(0.001));
+        } else if (lowMethod == OverlayConfig.LowMethod.MEAN_WORST) {
             long meanWorst1 = meanWorstKFullRun(n, 0.01);
             long meanWorst01 = meanWorstKFullRun(n, 0.001);
 
@@ -1092,7 +1298,7 @@ public final class FpsTracker {
             low01Fps = nsToFps(p999Ns);
         }
 
-        long thresholdNs = (long) Math.max(1, config.stutterThresholdMs) * NS_PER_MS;
+        long thresholdNs = (long) Math.max(1, stutterThresholdMs) * NS_PER_MS;
         int stutters = 0;
         for (int i = 0; i < n; i++) {
             if (benchmarkFramesNs[i] >= thresholdNs) {
@@ -1103,7 +1309,71 @@ public final class FpsTracker {
 
         double maxSpikeMs = nsToMs(benchmarkMaxFrameNs);
 
-        return new BenchmarkSummary(avgFps, low1Fps, low01Fps, stutters, stutterPercent, maxSpikeMs);
+        // Pacing: consecutive-frame change and standard deviation over the whole run
+        long sumAbsDeltaNs = 0;
+        double sumSqDevNs = 0;
+        double meanNs = (double) benchmarkTotalNs / n;
+        for (int i = 0; i < n; i++) {
+            if (i > 0) {
+                sumAbsDeltaNs += Math.abs(benchmarkFramesNs[i] - benchmarkFramesNs[i - 1]);
+            }
+            double dev = benchmarkFramesNs[i] - meanNs;
+            sumSqDevNs += dev * dev;
+        }
+        double meanAbsDeltaNs = (n > 1) ? (double) sumAbsDeltaNs / (n - 1) : 0;
+
+        double frameDeltaMs = meanAbsDeltaNs / NS_PER_MS;
+        double frametimeSdMs = Math.sqrt(sumSqDevNs / n) / NS_PER_MS;
+        double pacingScore = FrameMath.pacingScore(meanAbsDeltaNs, meanNs);
+
+        HitchPeriodAnalyzer.Result period = hitchPeriodFullRun(n);
+
+        double[] budgetPct = new double[budgetsMs.length];
+        for (int k = 0; k < budgetsMs.length; k++) {
+            long budgetNs = Math.round(budgetsMs[k] * NS_PER_MS);
+            int under = 0;
+            for (int i = 0; i < n; i++) {
+                if (benchmarkFramesNs[i] <= budgetNs) {
+                    under++;
+                }
+            }
+            budgetPct[k] = (under * 100.0) / n;
+        }
+
+        return new BenchmarkSummary(
+                avgFps, low1Fps, low01Fps, stutters, stutterPercent, maxSpikeMs,
+                spikeShare(benchmarkSpikeGcNs),
+                spikeShare(benchmarkSpikeJitNs),
+                spikeShare(benchmarkSpikeClassLoadNs),
+                spikeShare(benchmarkSpikeSafepointNs),
+                frameDeltaMs,
+                frametimeSdMs,
+                pacingScore,
+                period.valid() ? period.periodSec() : 0,
+                period.valid() ? period.confidence() * 100.0 : 0,
+                benchmarkSpikeCauses.clone(),
+                budgetsMs,
+                budgetPct
+        );
+    }
+
+    /**
+     * Hitch period over the whole run: frames resampled onto a uniform grid (50 ms, coarser for long
+     * runs so the autocorrelation stays cheap) and analysed in place, once, when the run stops.
+     */
+    private HitchPeriodAnalyzer.Result hitchPeriodFullRun(int n) {
+        long binNs = Math.max(HitchPeriodAnalyzer.BIN_NS, benchmarkTotalNs / MAX_PERIOD_BINS + 1);
+        int bins = (int) (benchmarkTotalNs / binNs) + 1;
+
+        double[] x = new double[bins];
+        long t = 0;
+        for (int i = 0; i < n; i++) {
+            t += benchmarkFramesNs[i];
+            int b = (int) Math.min(bins - 1, t / binNs);
+            x[b] = Math.max(x[b], nsToMs(benchmarkFramesNs[i]));
+        }
+
+        return HitchPeriodAnalyzer.analyze(x, bins, binNs / (double) NS_PER_SEC, new double[bins]);
     }
 
     private long percentileFrameNs(long[] src, int n, double p) {
@@ -1137,12 +1407,6 @@ public final class FpsTracker {
         return meanWorstK(scratch, n, k);
     }
 
-    private record Smoothed(double fps, double ftMs) {
-    }
-
-    private record WindowStats(long sumNs, int count) {
-    }
-
     public static final class BenchmarkStatus {
         private final boolean started;
         private final boolean stopped;
@@ -1150,22 +1414,32 @@ public final class FpsTracker {
         private final String message;
         private final String fileName;
         private final String filePath;
+        private final long csvBytes;
+        private final long fileBytes;
 
         private BenchmarkStatus(boolean started, boolean stopped, boolean error, String message, String fileName, String filePath) {
+            this(started, stopped, error, message, fileName, filePath, -1, -1);
+        }
+
+        private BenchmarkStatus(boolean started, boolean stopped, boolean error, String message, String fileName, String filePath,
+                                long csvBytes, long fileBytes) {
             this.started = started;
             this.stopped = stopped;
             this.error = error;
             this.message = message;
             this.fileName = fileName;
             this.filePath = filePath;
+            this.csvBytes = csvBytes;
+            this.fileBytes = fileBytes;
         }
 
         public static BenchmarkStatus started(String fileName, String filePath) {
             return new BenchmarkStatus(true, false, false, "Benchmark started", fileName, filePath);
         }
 
-        public static BenchmarkStatus stopped(String fileName, String filePath) {
-            return new BenchmarkStatus(false, true, false, "Benchmark saved: " + fileName, fileName, filePath);
+        public static BenchmarkStatus stopped(String fileName, String filePath, long csvBytes, long fileBytes) {
+            return new BenchmarkStatus(false, true, false, "Benchmark saved: " + fileName, fileName, filePath,
+                    csvBytes, fileBytes);
         }
 
         public static BenchmarkStatus error(String message) {
@@ -1195,6 +1469,20 @@ public final class FpsTracker {
         public String filePath() {
             return filePath;
         }
+
+        /**
+         * Uncompressed CSV size in bytes, -1 if unknown (not a stop status).
+         */
+        public long csvBytes() {
+            return csvBytes;
+        }
+
+        /**
+         * Size written to disk in bytes (smaller than {@link #csvBytes()} when compressed), -1 if unknown.
+         */
+        public long fileBytes() {
+            return fileBytes;
+        }
     }
 
     public static record BenchmarkSummary(
@@ -1203,33 +1491,144 @@ public final class FpsTracker {
             double low01,
             int stutters,
             int stutterPercent,
-            double maxSpikeMs
+            double maxSpikeMs,
+            // Share of spike time (frames >= stutter threshold) that overlapped each JVM event, in %
+            double spikeGcPct,
+            double spikeJitPct,
+            double spikeClassLoadPct,
+            double spikeSafepointPct,
+            // Mean |frame - previous frame|, frametime standard deviation, 0..100 pacing score
+            double frameDeltaMs,
+            double frametimeSdMs,
+            double pacingScore,
+            // Dominant hitch period (s, 0 = none found) and its confidence in %
+            double hitchPeriodSec,
+            double hitchPeriodConfidencePct,
+            // Spikes relative to recent frametimes, per SpikeClassifier cause
+            int[] spikeCauses,
+            // Frame budgets (ms, ascending) and the share of frames at or under each, in %
+            double[] budgetsMs,
+            double[] budgetPct
     ) {
+        public static BenchmarkSummary empty() {
+            return new BenchmarkSummary(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+                    new int[SpikeClassifier.CAUSE_COUNT], new double[0], new double[0]);
+        }
     }
 
-    public static record Snapshot(String[] lines, int count, int color) {
-        public static Snapshot empty() {
-            return new Snapshot(new String[0], 0, COLOR_WHITE);
+    /**
+     * Immutable metric values for readers outside the render thread.
+     * Frametime quantiles are over the 1% Low window and only maintained while an exporter is enabled.
+     */
+    public static record Metrics(
+            long timestampNs,
+            long framesTotal,
+            double fps,
+            double frametimeMs,
+            double avgFps,
+            double low1Fps,
+            double low01Fps,
+            double frametimeP50Ms,
+            double frametimeP99Ms,
+            double frametimeP999Ms,
+            int stutters,
+            int stutterPercent,
+            double maxSpikeMs,
+            long gcPauseMs,
+            long memUsedMb,
+            long memMaxMb,
+            double msptMs,
+            boolean benchmarkActive
+    ) {
+        public static Metrics empty() {
+            return new Metrics(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, -1, false);
         }
+    }
 
-        public boolean isEmpty() {
-            return count <= 0;
+    private final class Api implements PerformanceOverlayApi {
+        private Metrics read() {
+            apiReadNs = System.nanoTime();
+            return published;
+        }
+
+        private Metrics readQuantiles() {
+            apiQuantilesReadNs = System.nanoTime();
+            return published;
+        }
+
+        public long framesTotal() {
+            return read().framesTotal();
         }
-    }
 
-    private long lastTotalGcTimeMs = 0;
+        public long lastFrameNs() {
+            return lastFrameNs;
+        }
 
-    private long readLastGcPauseMs() {
-        long total = 0;
+        public double fps() {
+            return read().fps();
+        }
 
-        for (var bean : java.lang.management.ManagementFactory.getGarbageCollectorMXBeans()) {
-            long t = bean.getCollectionTime();
-            if (t > 0) total += t;
+        public double frametimeMs() {
+            return read().frametimeMs();
         }
 
-        long delta = total - lastTotalGcTimeMs;
-        lastTotalGcTimeMs = total;
+        public double avgFps() {
+            return read().avgFps();
+        }
 
-        return Math.max(delta, 0);
+        public double low1Fps() {
+            return read().low1Fps();
+        }
+
+        public double low01Fps() {
+            return read().low01Fps();
+        }
+
+        public double frametimeP50Ms() {
+            return readQuantiles().frametimeP50Ms();
+        }
+
+        public double frametimeP99Ms() {
+            return readQuantiles().frametimeP99Ms();
+        }
+
+        public double frametimeP999Ms() {
+            return readQuantiles().frametimeP999Ms();
+        }
+
+        public int stutters() {
+            return read().stutters();
+        }
+
+        public double maxSpikeMs() {
+            return read().maxSpikeMs();
+        }
+
+        public double mspt() {
+            return read().msptMs();
+        }
+
+        public boolean isBenchmarkActive() {
+            return benchmarkActive;
+        }
+
+        public void addFrameListener(FrameListener listener) {
+            FpsTracker.this.addFrameListener(Objects.requireNonNull(listener, "listener"));
+        }
+
+        public void removeFrameListener(FrameListener listener) {
+            FpsTracker.this.removeFrameListener(listener);
+        }
+    }
+
+    // lines is never modified after construction, so a snapshot can be read from any thread
+    public static record Snapshot(String[] lines, int count, int color) {
+        public static Snapshot empty() {
+            return new Snapshot(new String[0], 0, COLOR_WHITE);
+        }
+
+        public boolean isEmpty() {
+            return count <= 0;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,118 @@
+package com.itsgeorge.performanceoverlay.client;
+
+/**
+ * Frame statistics helpers shared by the live metrics and the benchmark summary.
+ * Plain JDK only; the select functions reorder the array they are given.
+ */
+public final class FrameMath {
+    public static final long NS_PER_SEC = 1_000_000_000L;
+    public static final long NS_PER_MS = 1_000_000L;
+
+    private FrameMath() {
+    }
+
+    public static double nsToFps(long dtNs) {
+        if (dtNs <= 0) {
+            return 0;
+        }
+        return (double) NS_PER_SEC / (double) dtNs;
+    }
+
+    public static double nsToMs(long ns) {
+        if (ns <= 0) {
+            return 0;
+        }
+        return (double) ns / (double) NS_PER_MS;
+    }
+
+    public static int percentileIndex(int n, double p) {
+        if (n <= 1) {
+            return 0;
+        }
+        double clamped = Math.max(0.0, Math.min(1.0, p));
+        int idx = (int) Math.ceil(n * clamped) - 1;
+        if (idx < 0) {
+            return 0;
+        }
+        if (idx > n - 1) {
+            return n - 1;
+        }
+        return idx;
+    }
+
+    /**
+     * 0..100: 100 = every frame as long as the previous one, 0 = the average frame-to-frame change
+     * is as large as the average frame (e.g. alternating 5 / 25 ms).
+     */
+    public static double pacingScore(double meanAbsDeltaNs, double meanNs) {
+        if (meanNs <= 0) {
+            return 0;
+        }
+        return Math.max(0.0, Math.min(100.0, 100.0 - 100.0 * meanAbsDeltaNs / meanNs));
+    }
+
+    public static long meanWorstK(long[] a, int n, int k) {
+        int target = n - k;
+        long threshold = selectNth(a, 0, n - 1, target);
+
+        long sum = 0;
+        int countAbove = 0;
+
+        for (int i = 0; i < n; i++) {
+            if (a[i] > threshold) {
+                sum += a[i];
+                countAbove++;
+            }
+        }
+
+        int remaining = k - countAbove;
+        if (remaining > 0) {
+            sum += (long) remaining * threshold;
+        }
+
+        return sum / k;
+    }
+
+    public static long selectNth(long[] a, int left, int right, int n) {
+        while (true) {
+            if (left == right) {
+                return a[left];
+            }
+
+            int pivotIndex = (left + right) >>> 1;
+            pivotIndex = partition(a, left, right, pivotIndex);
+
+            if (n == pivotIndex) {
+                return a[n];
+            }
+            if (n < pivotIndex) {
+                right = pivotIndex - 1;
+            } else {
+                left = pivotIndex + 1;
+            }
+        }
+    }
+
+    private static int partition(long[] a, int left, int right, int pivotIndex) {
+        long pivotValue = a[pivotIndex];
+        swap(a, pivotIndex, right);
+
+        int storeIndex = left;
+
+        for (int i = left; i < right; i++) {
+            if (a[i] < pivotValue) {
+                swap(a, storeIndex, i);
+                storeIndex++;
+            }
+        }
+
+        swap(a, right, storeIndex);
+        return storeIndex;
+    }
+
+    private static void swap(long[] a, int i, int j) {
+        long t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+}
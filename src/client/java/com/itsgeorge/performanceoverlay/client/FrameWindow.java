@@ -0,0 +1,149 @@
+package com.itsgeorge.performanceoverlay.client;
+
+/**
+ * View of the frames recorded in the last {@code windowNs}, computed lazily and at most once per frame
+ * for every metric that shares the window.
+ */
+public final class FrameWindow {
+    private long[] timeNs;
+    private long[] frameNs;
+    private long[] scratch;
+    private int head;
+    private int size;
+    private long endSeq;
+
+    private long minNs;
+
+    private boolean scanned;
+    private int count;
+    private long sumNs;
+    private long maxNs;
+
+    private boolean copied;
+
+    /**
+     * @param endSeq sequence number of the frame after the newest one (frames ever pushed)
+     */
+    void bind(long[] timeNs, long[] frameNs, long[] scratch, int head, int size, long endSeq) {
+        this.timeNs = timeNs;
+        this.frameNs = frameNs;
+        this.scratch = scratch;
+        this.head = head;
+        this.size = size;
+        this.endSeq = endSeq;
+    }
+
+    void select(long nowNs, long windowNs) {
+        this.minNs = nowNs - windowNs;
+        this.scanned = false;
+        this.copied = false;
+    }
+
+    public int count() {
+        scan();
+        return count;
+    }
+
+    public long sumNs() {
+        scan();
+        return sumNs;
+    }
+
+    public long maxNs() {
+        scan();
+        return maxNs;
+    }
+
+    public int countAtLeast(long thresholdNs) {
+        int cap = frameNs.length;
+        int c = 0;
+
+        for (int i = 0; i < size; i++) {
+            int idx = (head + size - 1 - i + cap) % cap;
+            if (timeNs[idx] < minNs) {
+                break;
+            }
+            if (frameNs[idx] >= thresholdNs) {
+                c++;
+            }
+        }
+
+        return c;
+    }
+
+    /**
+     * Frametimes of the window in the first {@link #count()} slots, in no particular order.
+     * Callers may reorder them (select / partition); other metrics of this window see the same set.
+     */
+    public long[] values() {
+        if (!copied) {
+            int cap = frameNs.length;
+            int n = 0;
+
+            for (int i = 0; i < size; i++) {
+                int idx = (head + size - 1 - i + cap) % cap;
+                if (timeNs[idx] < minNs) {
+                    break;
+                }
+                scratch[n++] = frameNs[idx];
+            }
+
+            copied = true;
+        }
+        return scratch;
+    }
+
+    // ---------- Raw ring access for SlidingWindow ----------
+
+    long endSeq() {
+        return endSeq;
+    }
+
+    /**
+     * Sequence number of the oldest frame still in the ring.
+     */
+    long firstSeq() {
+        return endSeq - size;
+    }
+
+    long timeAt(long seq) {
+        return timeNs[indexOf(seq)];
+    }
+
+    long frameAt(long seq) {
+        return frameNs[indexOf(seq)];
+    }
+
+    private int indexOf(long seq) {
+        return (int) ((head + (seq - firstSeq())) % frameNs.length);
+    }
+
+    private void scan() {
+        if (scanned) {
+            return;
+        }
+
+        int cap = frameNs.length;
+        long sum = 0;
+        long max = 0;
+        int c = 0;
+
+        for (int i = 0; i < size; i++) {
+            int idx = (head + size - 1 - i + cap) % cap;
+            if (timeNs[idx] < minNs) {
+                break;
+            }
+            long v = frameNs[idx];
+            sum += v;
+            if (v > max) {
+                max = v;
+            }
+            c++;
+        }
+
+        this.sumNs = sum;
+        this.maxNs = max;
+        this.count = c;
+        this.scanned = true;
+    }
+}
@@ -0,0 +1,161 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import net.minecraft.client.gui.GuiGraphics;
+
+/**
+ * Frametime graph, one column per frame, newest on the right.
+ *
+ * Column heights and colours are computed once when a frame is pushed; drawing only walks the
+ * prepared columns and merges neighbours with the same height and colour into a single fill, so a
+ * steady frame rate costs a handful of quads. All fills go through GuiGraphics, which batches them
+ * into one vertex buffer per frame.
+ *
+ * Render thread only.
+ */
+public final class FrametimeGraph {
+    private static final int COLOR_BACKGROUND = 0x90000000;
+    private static final int COLOR_GOOD = 0xC055FF55;
+    private static final int COLOR_WARN = 0xC0FFFF55;
+    private static final int COLOR_BAD = 0xC0FF5555;
+    private static final int COLOR_BUDGET = 0x60FFFFFF;
+    private static final int COLOR_THRESHOLD = 0xA0FF5555;
+
+    private static final double BUDGET_60_MS = 1000.0 / 60.0;
+    private static final double BUDGET_30_MS = 1000.0 / 30.0;
+
+    private long[] frameNs = new long[0];
+    private int[] heightPx = new int[0];
+    private int[] colors = new int[0];
+    private int head = 0;
+    private int count = 0;
+
+    // Scale the prepared columns were computed for
+    private int width = 0;
+    private int height = 0;
+    private double maxMs = 0;
+    private double thresholdMs = 0;
+
+    public void clear() {
+        head = 0;
+        count = 0;
+    }
+
+    public void push(long dtNs, OverlayConfig cfg) {
+        ensureLayout(cfg);
+
+        int idx = (head + count) % width;
+        if (count == width) {
+            head = (head + 1) % width;
+        } else {
+            count++;
+        }
+
+        frameNs[idx] = dtNs;
+        prepare(idx);
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public void render(GuiGraphics g, int x, int y) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+
+        int bottom = y + height;
+
+        g.fill(x, y, x + width, bottom, COLOR_BACKGROUND);
+
+        // Oldest column sits at x + (width - count) so the graph fills from the right
+        int col = x + (width - count);
+        int i = 0;
+        while (i < count) {
+            int idx = (head + i) % width;
+            int h = heightPx[idx];
+            int c = colors[idx];
+
+            int run = 1;
+            while (i + run < count) {
+                int next = (head + i + run) % width;
+                if (heightPx[next] != h || colors[next] != c) {
+                    break;
+                }
+                run++;
+            }
+
+            if (h > 0) {
+                g.fill(col, bottom - h, col + run, bottom, c);
+            }
+
+            col += run;
+            i += run;
+        }
+
+        budgetLine(g, x, bottom, BUDGET_60_MS, COLOR_BUDGET);
+        budgetLine(g, x, bottom, BUDGET_30_MS, COLOR_BUDGET);
+        budgetLine(g, x, bottom, thresholdMs, COLOR_THRESHOLD);
+    }
+
+    private void budgetLine(GuiGraphics g, int x, int bottom, double ms, int color) {
+        int h = toPx(ms);
+        if (h <= 0 || h >= height) {
+            return;
+        }
+        g.fill(x, bottom - h - 1, x + width, bottom - h, color);
+    }
+
+    private void ensureLayout(OverlayConfig cfg) {
+        int w = Math.max(16, Math.min(1000, cfg.graphWidthPx));
+        int h = Math.max(10, Math.min(200, cfg.graphHeightPx));
+        double threshold = Math.max(1, cfg.stutterThresholdMs);
+        double top = Math.max(BUDGET_30_MS * 1.5, threshold * 1.25);
+
+        if (w != width) {
+            // Keep the newest frames that still fit
+            long[] ns = new long[w];
+            int keep = Math.min(count, w);
+            for (int i = 0; i < keep; i++) {
+                ns[i] = frameNs[(head + count - keep + i) % width];
+            }
+
+            frameNs = ns;
+            heightPx = new int[w];
+            colors = new int[w];
+            head = 0;
+            count = keep;
+            width = w;
+            height = 0; // force re-prepare below
+        }
+
+        if (h != height || top != maxMs || threshold != thresholdMs) {
+            height = h;
+            maxMs = top;
+            thresholdMs = threshold;
+            for (int i = 0; i < count; i++) {
+                prepare((head + i) % width);
+            }
+        }
+    }
+
+    private void prepare(int idx) {
+        double ms = FrameMath.nsToMs(frameNs[idx]);
+        heightPx[idx] = Math.max(1, Math.min(height, toPx(ms)));
+
+        if (ms >= thresholdMs) {
+            colors[idx] = COLOR_BAD;
+        } else if (ms > BUDGET_60_MS) {
+            colors[idx] = COLOR_WARN;
+        } else {
+            colors[idx] = COLOR_GOOD;
+        }
+    }
+
+    private int toPx(double ms) {
+        return (int) Math.round(ms / maxMs * height);
+    }
+}
@@ -0,0 +1,234 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import net.minecraft.client.gui.GuiGraphics;
+
+import java.util.Arrays;
+
+import static com.itsgeorge.performanceoverlay.client.FrameMath.NS_PER_MS;
+import static com.itsgeorge.performanceoverlay.client.FrameMath.NS_PER_SEC;
+
+/**
+ * Frametime distribution over the 1% Low window, drawn as a bar per log bucket with p50 / p99 /
+ * p99.9 markers. A bimodal distribution (smooth frames plus periodic hitches) shows up as two
+ * humps here while the averages hide it.
+ *
+ * Buckets are quarter octaves from ~1 ms to ~1 s, so the index is a couple of bit operations.
+ * Counts are kept up to date per frame through a {@link SlidingWindow}; the update only copies them
+ * for drawing and walks the buckets for the markers (bucket resolution, no sorting).
+ *
+ * Drawn only; never shown as text and not exported.
+ */
+public final class FrametimeHistogram implements Metric {
+    static final int BUCKETS = 40;
+    private static final int SUB_BITS = 2;                 // 4 buckets per octave
+    private static final int FIRST_OCTAVE = 20;            // 2^20 ns ~ 1.05 ms
+
+    private static final int BAR_W = 3;
+
+    private static final int COLOR_BACKGROUND = 0x90000000;
+    private static final int COLOR_GOOD = 0xC055FF55;
+    private static final int COLOR_WARN = 0xC0FFFF55;
+    private static final int COLOR_BAD = 0xC0FF5555;
+    private static final int COLOR_P50 = 0xFFFFFFFF;
+    private static final int COLOR_P99 = 0xFFFFFF55;
+    private static final int COLOR_P999 = 0xFFFF5555;
+
+    private static final long BUDGET_60_NS = NS_PER_SEC / 60;
+
+    // Live counts, maintained per frame
+    private final int[] counts = new int[BUCKETS];
+    private int total = 0;
+
+    private final SlidingWindow window = new SlidingWindow(new SlidingWindow.Sink() {
+        public void add(long frameNs) {
+            counts[bucketOf(frameNs)]++;
+            total++;
+        }
+
+        public void remove(long frameNs) {
+            counts[bucketOf(frameNs)]--;
+            total--;
+        }
+
+        public void clear() {
+            Arrays.fill(counts, 0);
+            total = 0;
+        }
+    });
+
+    // Copy drawn by the renderer (changes at the 1% Low update rate)
+    private final int[] shown = new int[BUCKETS];
+    private int shownTotal = 0;
+    private int shownMax = 0;
+    private int p50Bucket = -1;
+    private int p99Bucket = -1;
+    private int p999Bucket = -1;
+
+    static int bucketOf(long ns) {
+        if (ns <= 0) {
+            return 0;
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(ns);
+        if (msb < FIRST_OCTAVE) {
+            return 0;
+        }
+        int sub = (int) (ns >>> (msb - SUB_BITS)) & ((1 << SUB_BITS) - 1);
+        int idx = ((msb - FIRST_OCTAVE) << SUB_BITS) + sub;
+        return Math.min(BUCKETS - 1, idx);
+    }
+
+    /**
+     * Smallest frametime that lands in bucket {@code idx}.
+     */
+    static long bucketLowerNs(int idx) {
+        int octave = FIRST_OCTAVE + (idx >> SUB_BITS);
+        int sub = idx & ((1 << SUB_BITS) - 1);
+        return (1L << octave) + ((long) sub << (octave - SUB_BITS));
+    }
+
+    public String id() {
+        return "frametime_histogram";
+    }
+
+    public String label() {
+        return "Frametime histogram";
+    }
+
+    public boolean hasToggle() {
+        return false;
+    }
+
+    public boolean isShown(OverlayConfig cfg) {
+        return false;
+    }
+
+    public void setShown(OverlayConfig cfg, boolean shown) {
+    }
+
+    public int row() {
+        return 1;
+    }
+
+    public int updateIntervalMs(OverlayConfig cfg) {
+        return Fmt.clamp(cfg.low1UpdateMs, 100, 10000);
+    }
+
+    public boolean isRequired(MetricContext ctx) {
+        return ctx.config().showFrametimeHistogram;
+    }
+
+    public void setActive(boolean active) {
+        if (!active) {
+            window.invalidate();
+        }
+    }
+
+    public void onFrame(MetricContext ctx, FrameWindow ring) {
+        window.advance(ring, ctx.nowNs(), (long) ctx.config().low1WindowSec * NS_PER_SEC);
+    }
+
+    public void update(MetricContext ctx, FrameWindow w) {
+        System.arraycopy(counts, 0, shown, 0, BUCKETS);
+
+        shownTotal = total;
+
+        int max = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            max = Math.max(max, shown[i]);
+        }
+        shownMax = max;
+
+        p50Bucket = quantileBucket(0.50);
+        p99Bucket = quantileBucket(0.99);
+        p999Bucket = quantileBucket(0.999);
+    }
+
+    private int quantileBucket(double q) {
+        if (shownTotal <= 0) {
+            return -1;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(q * shownTotal));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulative += shown[i];
+            if (cumulative >= rank) {
+                return i;
+            }
+        }
+        return BUCKETS - 1;
+    }
+
+    public void format(StringBuilder sb) {
+    }
+
+    public void reset() {
+        window.invalidate();
+        Arrays.fill(shown, 0);
+        shownTotal = 0;
+        shownMax = 0;
+        p50Bucket = -1;
+        p99Bucket = -1;
+        p999Bucket = -1;
+    }
+
+    // ---------- Drawing (render thread) ----------
+
+    public int width() {
+        return BUCKETS * BAR_W;
+    }
+
+    public int height(OverlayConfig cfg) {
+        return Math.max(10, Math.min(200, cfg.graphHeightPx));
+    }
+
+    public void render(GuiGraphics g, OverlayConfig cfg, int x, int y) {
+        int w = width();
+        int h = height(cfg);
+        int bottom = y + h;
+
+        g.fill(x, y, x + w, bottom, COLOR_BACKGROUND);
+
+        if (shownMax <= 0) {
+            return;
+        }
+
+        long thresholdNs = (long) Math.max(1, cfg.stutterThresholdMs) * NS_PER_MS;
+        double max = Math.sqrt(shownMax);
+
+        // Square-root scale so a 1% hitch hump stays visible next to the main peak
+        for (int i = 0; i < BUCKETS; i++) {
+            int c = shown[i];
+            if (c <= 0) {
+                continue;
+            }
+
+            int barH = Math.max(1, (int) Math.round(Math.sqrt(c) / max * h));
+            int bx = x + i * BAR_W;
+            g.fill(bx, bottom - barH, bx + BAR_W - 1, bottom, barColor(i, thresholdNs));
+        }
+
+        marker(g, x, y, bottom, p50Bucket, COLOR_P50);
+        marker(g, x, y, bottom, p99Bucket, COLOR_P99);
+        marker(g, x, y, bottom, p999Bucket, COLOR_P999);
+    }
+
+    private static void marker(GuiGraphics g, int x, int y, int bottom, int bucket, int color) {
+        if (bucket < 0) {
+            return;
+        }
+        int mx = x + bucket * BAR_W + BAR_W / 2;
+        g.fill(mx, y, mx + 1, bottom, color);
+    }
+
+    private static int barColor(int bucket, long thresholdNs) {
+        long lower = bucketLowerNs(bucket);
+        if (lower >= thresholdNs) {
+            return COLOR_BAD;
+        }
+        if (lower >= BUDGET_60_NS) {
+            return COLOR_WARN;
+        }
+        return COLOR_GOOD;
+    }
+}
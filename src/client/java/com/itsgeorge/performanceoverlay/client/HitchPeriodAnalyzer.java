@@ -0,0 +1,258 @@
+package com.itsgeorge.performanceoverlay.client;
+
+/**
+ * Finds periodic hitches (autosave, a mod's scheduled task, regular GCs) in the frametime history.
+ *
+ * The render thread resamples frames onto a uniform 50 ms grid as they arrive (worst frame ending
+ * in each bin) and every few seconds hands the last minute to a background daemon thread, which
+ * runs an autocorrelation and publishes the dominant periods. The render thread only ever copies
+ * the bins and reads the last published {@link Result}.
+ */
+public final class HitchPeriodAnalyzer {
+    public static final long BIN_NS = 50 * FrameMath.NS_PER_MS;
+    static final int HISTORY_BINS = 1200; // 60 s
+
+    private static final double MIN_PERIOD_SEC = 0.5;
+    private static final double MIN_CONFIDENCE = 0.25;
+    private static final double HARMONIC_SHARE = 0.85;
+
+    // Render thread: circular bins, oldest at head once full
+    private final double[] bins = new double[HISTORY_BINS];
+    private int head = 0;
+    private int filled = 0;
+    private long binEndNs = 0;
+
+    // Handoff to the worker
+    private final Object lock = new Object();
+    private final double[] jobBins = new double[HISTORY_BINS];
+    private int jobCount = 0;
+    private boolean hasJob = false;
+
+    private volatile Result latest = Result.NONE;
+    private Thread thread = null;
+
+    public Result latest() {
+        return latest;
+    }
+
+    /**
+     * Starts or stops the background thread. Cheap to call every frame.
+     */
+    public void setActive(boolean active) {
+        if (active && thread == null) {
+            clear();
+            Thread t = new Thread(new Worker(), "PerformanceOverlay-HitchPeriod");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            thread = t;
+            t.start();
+        } else if (!active && thread != null) {
+            thread.interrupt();
+            thread = null;
+            latest = Result.NONE;
+        }
+    }
+
+    public void clear() {
+        head = 0;
+        filled = 0;
+        binEndNs = 0;
+    }
+
+    public void addFrame(long nowNs, long frameNs) {
+        if (binEndNs == 0) {
+            binEndNs = nowNs + BIN_NS;
+            pushBin();
+        }
+
+        // Bins no frame ended in (inside a long frame) stay 0; cap the catch-up after a long pause
+        int skipped = 0;
+        while (nowNs >= binEndNs && skipped < HISTORY_BINS) {
+            binEndNs += BIN_NS;
+            pushBin();
+            skipped++;
+        }
+        if (nowNs >= binEndNs) {
+            binEndNs = nowNs + BIN_NS;
+        }
+
+        int last = (head + filled - 1) % HISTORY_BINS;
+        double ms = FrameMath.nsToMs(frameNs);
+        if (ms > bins[last]) {
+            bins[last] = ms;
+        }
+    }
+
+    private void pushBin() {
+        if (filled == HISTORY_BINS) {
+            head = (head + 1) % HISTORY_BINS;
+            filled--;
+        }
+        bins[(head + filled) % HISTORY_BINS] = 0;
+        filled++;
+    }
+
+    /**
+     * Hands the completed bins to the worker (the newest one is still filling).
+     */
+    public void submit() {
+        int n = filled - 1;
+        if (n <= 0 || thread == null) {
+            return;
+        }
+
+        synchronized (lock) {
+            for (int i = 0; i < n; i++) {
+                jobBins[i] = bins[(head + i) % HISTORY_BINS];
+            }
+            jobCount = n;
+            hasJob = true;
+            lock.notifyAll();
+        }
+    }
+
+    // One instance per started thread, like ProcSampler's workers
+    private final class Worker implements Runnable {
+        private final double[] work = new double[HISTORY_BINS];
+        private final double[] acf = new double[HISTORY_BINS];
+
+        public void run() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    int n;
+                    synchronized (lock) {
+                        while (!hasJob) {
+                            lock.wait();
+                        }
+                        n = jobCount;
+                        System.arraycopy(jobBins, 0, work, 0, n);
+                        hasJob = false;
+                    }
+
+                    Result r = analyze(work, n, BIN_NS / (double) FrameMath.NS_PER_SEC, acf);
+                    if (!Thread.currentThread().isInterrupted()) {
+                        latest = r;
+                    }
+                }
+            } catch (InterruptedException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Autocorrelation of {@code x[0..n)} sampled every {@code binSec}. Overwrites {@code x} with its
+     * mean-removed values; {@code acf} needs {@code n} slots.
+     *
+     * The dominant period is the shortest lag whose correlation is close to the best peak, so a
+     * 5 s pattern is reported as 5 s rather than its 10 s harmonic. Peaks are refined with a
+     * parabola through the neighbouring lags. Confidence is the normalised correlation (0..1).
+     */
+    static Result analyze(double[] x, int n, double binSec, double[] acf) {
+        int minLag = Math.max(2, (int) Math.ceil(MIN_PERIOD_SEC / binSec));
+        int maxLag = n / 3; // at least three repetitions in the window
+
+        if (maxLag <= minLag + 1) {
+            return Result.NONE;
+        }
+
+        double mean = 0;
+        for (int i = 0; i < n; i++) {
+            mean += x[i];
+        }
+        mean /= n;
+
+        double r0 = 0;
+        for (int i = 0; i < n; i++) {
+            x[i] -= mean;
+            r0 += x[i] * x[i];
+        }
+        if (r0 <= 1e-9) {
+            return Result.NONE;
+        }
+
+        for (int k = minLag - 1; k <= maxLag + 1; k++) {
+            double s = 0;
+            for (int i = 0, j = k; j < n; i++, j++) {
+                s += x[i] * x[j];
+            }
+            // Unbiased: scale up for the shorter overlap
+            acf[k] = (s / r0) * ((double) n / (n - k));
+        }
+
+        int best = -1;
+        for (int k = minLag; k <= maxLag; k++) {
+            if (isPeak(acf, k) && (best < 0 || acf[k] > acf[best])) {
+                best = k;
+            }
+        }
+        if (best < 0 || acf[best] < MIN_CONFIDENCE) {
+            return Result.NONE;
+        }
+
+        int primary = best;
+        for (int k = minLag; k < best; k++) {
+            if (isPeak(acf, k) && acf[k] >= acf[best] * HARMONIC_SHARE) {
+                primary = k;
+                break;
+            }
+        }
+
+        // Strongest peak that isn't a multiple of the primary period
+        int secondary = -1;
+        for (int k = minLag; k <= maxLag; k++) {
+            if (!isPeak(acf, k) || acf[k] < MIN_CONFIDENCE || isMultiple(k, primary)) {
+                continue;
+            }
+            if (secondary < 0 || acf[k] > acf[secondary]) {
+                secondary = k;
+            }
+        }
+
+        return new Result(
+                true,
+                refine(acf, primary) * binSec,
+                confidence(acf[primary]),
+                (secondary >= 0) ? refine(acf, secondary) * binSec : 0,
+                (secondary >= 0) ? confidence(acf[secondary]) : 0
+        );
+    }
+
+    private static boolean isPeak(double[] acf, int k) {
+        return acf[k] > 0 && acf[k] >= acf[k - 1] && acf[k] >= acf[k + 1];
+    }
+
+    private static boolean isMultiple(int lag, int base) {
+        double ratio = (double) lag / base;
+        double nearest = Math.rint(ratio);
+        return nearest >= 1 && Math.abs(ratio - nearest) <= 0.1 * nearest;
+    }
+
+    private static double refine(double[] acf, int k) {
+        double a = acf[k - 1];
+        double b = acf[k];
+        double c = acf[k + 1];
+        double denom = a - 2 * b + c;
+        if (denom >= 0) {
+            return k;
+        }
+        double offset = 0.5 * (a - c) / denom;
+        return k + Math.max(-0.5, Math.min(0.5, offset));
+    }
+
+    private static double confidence(double r) {
+        return Math.max(0.0, Math.min(1.0, r));
+    }
+
+    /**
+     * Dominant and secondary hitch period (seconds) with confidence 0..1; secondary is 0 if none.
+     */
+    public record Result(
+            boolean valid,
+            double periodSec,
+            double confidence,
+            double secondaryPeriodSec,
+            double secondaryConfidence
+    ) {
+        public static final Result NONE = new Result(false, 0, 0, 0, 0);
+    }
+}
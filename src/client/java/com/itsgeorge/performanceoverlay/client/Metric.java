@@ -0,0 +1,96 @@
+package com.itsgeorge.performanceoverlay.client;
+
+/**
+ * One overlay / benchmark metric. The tracker's scheduler decides when it runs; the metric keeps
+ * its own last value and formats it.
+ *
+ * A metric is only updated while it's shown, required (colouring, exporters) or a benchmark is
+ * recording its CSV columns, so a hidden metric costs nothing per frame beyond the due check.
+ */
+public interface Metric {
+    String[] NO_COLUMNS = new String[0];
+
+    /**
+     * Stable identifier, unique within a registry.
+     */
+    String id();
+
+    /**
+     * Config screen label; the toggle is skipped when {@link #hasToggle()} is false.
+     */
+    String label();
+
+    default String[] tooltip() {
+        return NO_COLUMNS;
+    }
+
+    default boolean hasToggle() {
+        return true;
+    }
+
+    boolean isShown(OverlayConfig cfg);
+
+    void setShown(OverlayConfig cfg, boolean shown);
+
+    /**
+     * Line in the three-line layout (0..2).
+     */
+    int row();
+
+    /**
+     * Frame window read by {@link #update}, or 0 if the metric doesn't look at frames.
+     * Metrics returning the same window share one scan per frame.
+     */
+    default long windowNs(OverlayConfig cfg) {
+        return 0;
+    }
+
+    int updateIntervalMs(OverlayConfig cfg);
+
+    /**
+     * True if the value is needed while hidden: colouring, the exporters ({@link MetricContext#exporting()})
+     * or recent API reads ({@link MetricContext#apiReading()}).
+     */
+    default boolean isRequired(MetricContext ctx) {
+        return false;
+    }
+
+    /**
+     * Called when the metric starts or stops being updated (e.g. to start a background sampler).
+     */
+    default void setActive(boolean active) {
+    }
+
+    /**
+     * Called every frame while active, before any {@link #update}. For metrics that keep state
+     * incrementally (see {@link SlidingWindow}); {@code ring} is bound to the whole ring buffer.
+     */
+    default void onFrame(MetricContext ctx, FrameWindow ring) {
+    }
+
+    void update(MetricContext ctx, FrameWindow window);
+
+    /**
+     * False hides the metric (e.g. not supported on this system).
+     */
+    default boolean isAvailable() {
+        return true;
+    }
+
+    void format(StringBuilder sb);
+
+    /**
+     * Benchmark CSV columns; every recording includes them.
+     */
+    default String[] csvColumns() {
+        return NO_COLUMNS;
+    }
+
+    /**
+     * Appends one ",value" per {@link #csvColumns()} entry.
+     */
+    default void appendCsv(StringBuilder sb) {
+    }
+
+    void reset();
+}
@@ -0,0 +1,68 @@
+package com.itsgeorge.performanceoverlay.client;
+
+/**
+ * Per-frame state handed to {@link Metric}s. Reused by the tracker; don't keep a reference.
+ */
+public final class MetricContext {
+    private OverlayConfig config;
+    private long nowNs;
+    private long lastFrameNs;
+    private boolean recording;
+    private boolean exporting;
+    private boolean apiReading;
+    private boolean apiReadingQuantiles;
+
+    void set(OverlayConfig config, long nowNs, long lastFrameNs, boolean recording, boolean exporting,
+             boolean apiReading, boolean apiReadingQuantiles) {
+        this.config = config;
+        this.nowNs = nowNs;
+        this.lastFrameNs = lastFrameNs;
+        this.recording = recording;
+        this.exporting = exporting;
+        this.apiReading = apiReading;
+        this.apiReadingQuantiles = apiReadingQuantiles;
+    }
+
+    public OverlayConfig config() {
+        return config;
+    }
+
+    public long nowNs() {
+        return nowNs;
+    }
+
+    public long lastFrameNs() {
+        return lastFrameNs;
+    }
+
+    /**
+     * A benchmark is writing CSV rows this frame.
+     */
+    public boolean recording() {
+        return recording;
+    }
+
+    /**
+     * The metrics endpoint or telemetry file is on; exported values must stay fresh while hidden.
+     * API readers are not included: see {@link #apiReading()} and {@link #apiReadingQuantiles()},
+     * which only hold for a few seconds after the last read.
+     */
+    public boolean exporting() {
+        return exporting;
+    }
+
+    /**
+     * Another mod (or a placeholder) read fps, frametime, avg, lows, stutters, max spike or MSPT through
+     * the API within the last few seconds; those values must stay fresh while hidden.
+     */
+    public boolean apiReading() {
+        return apiReading;
+    }
+
+    /**
+     * Frametime quantiles were read through the API within the last few seconds.
+     */
+    public boolean apiReadingQuantiles() {
+        return apiReadingQuantiles;
+    }
+}
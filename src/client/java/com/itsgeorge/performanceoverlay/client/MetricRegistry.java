@@ -0,0 +1,34 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ordered set of metrics. The order is the overlay order (one line / column) and the CSV column order.
+ */
+public final class MetricRegistry {
+    private final List<Metric> metrics = new ArrayList<>();
+    private final List<Metric> view = Collections.unmodifiableList(metrics);
+
+    public MetricRegistry register(Metric metric) {
+        if (byId(metric.id()) != null) {
+            throw new IllegalArgumentException("Duplicate metric id: " + metric.id());
+        }
+        metrics.add(metric);
+        return this;
+    }
+
+    public List<Metric> all() {
+        return view;
+    }
+
+    public Metric byId(String id) {
+        for (Metric m : metrics) {
+            if (m.id().equals(id)) {
+                return m;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,126 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import java.util.List;
+
+/**
+ * Runs the metrics that are active and due. Due metrics are grouped by frame window, so metrics
+ * sharing a window (e.g. 1% low and frametime quantiles) scan and copy the ring buffer once.
+ * Allocation-free per frame.
+ */
+final class MetricScheduler {
+    private final Metric[] metrics;
+    private final boolean[] hasCsv;
+
+    private final long[] lastUpdateNs;
+    private final long[] windowNs;
+    private final boolean[] active;
+    private final boolean[] due;
+
+    private final FrameWindow window = new FrameWindow();
+
+    MetricScheduler(List<Metric> list) {
+        this.metrics = list.toArray(new Metric[0]);
+
+        int n = metrics.length;
+        this.hasCsv = new boolean[n];
+        this.lastUpdateNs = new long[n];
+        this.windowNs = new long[n];
+        this.active = new boolean[n];
+        this.due = new boolean[n];
+
+        for (int i = 0; i < n; i++) {
+            hasCsv[i] = metrics[i].csvColumns().length > 0;
+        }
+    }
+
+    FrameWindow window() {
+        return window;
+    }
+
+    /**
+     * Updates every due metric. Returns true if a shown or exported value changed.
+     */
+    boolean run(MetricContext ctx) {
+        OverlayConfig cfg = ctx.config();
+        long nowNs = ctx.nowNs();
+
+        int n = metrics.length;
+        int dueCount = 0;
+
+        for (int i = 0; i < n; i++) {
+            Metric m = metrics[i];
+
+            boolean a = (m.isShown(cfg) && m.isAvailable())
+                    || m.isRequired(ctx)
+                    || (ctx.recording() && hasCsv[i]);
+            if (a != active[i]) {
+                active[i] = a;
+                m.setActive(a);
+            }
+            if (a) {
+                m.onFrame(ctx, window);
+            }
+
+            due[i] = a && due(nowNs, lastUpdateNs[i], m.updateIntervalMs(cfg));
+            if (due[i]) {
+                windowNs[i] = m.windowNs(cfg);
+                dueCount++;
+            }
+        }
+
+        if (dueCount == 0) {
+            return false;
+        }
+
+        boolean changed = false;
+
+        for (int i = 0; i < n; i++) {
+            if (!due[i]) {
+                continue;
+            }
+
+            long w = windowNs[i];
+            window.select(nowNs, w);
+
+            for (int j = i; j < n; j++) {
+                if (due[j] && windowNs[j] == w) {
+                    Metric m = metrics[j];
+                    m.update(ctx, window);
+                    lastUpdateNs[j] = nowNs;
+                    due[j] = false;
+
+                    changed |= m.isShown(cfg) || ctx.exporting() || ctx.apiReading() || ctx.apiReadingQuantiles();
+                }
+            }
+        }
+
+        return changed;
+    }
+
+    void reset() {
+        for (int i = 0; i < metrics.length; i++) {
+            lastUpdateNs[i] = 0;
+            metrics[i].reset();
+        }
+    }
+
+    /**
+     * Stops everything (overlay turned off); metrics restart on the next run.
+     */
+    void deactivateAll() {
+        for (int i = 0; i < metrics.length; i++) {
+            if (active[i]) {
+                active[i] = false;
+                metrics[i].setActive(false);
+            }
+        }
+    }
+
+    private static boolean due(long nowNs, long lastUpdateNs, int intervalMs) {
+        if (lastUpdateNs == 0) {
+            return true;
+        }
+        long intervalNs = (long) intervalMs * FrameMath.NS_PER_MS;
+        return nowNs - lastUpdateNs >= intervalNs;
+    }
+}
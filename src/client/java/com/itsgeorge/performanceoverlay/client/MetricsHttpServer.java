@@ -0,0 +1,127 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Optional localhost-only HTTP endpoint serving the tracker's metrics in Prometheus text format.
+ * Scrapes only read the immutable {@link FpsTracker.Metrics} the render thread last published.
+ */
+public final class MetricsHttpServer {
+    private static final String PREFIX = "performanceoverlay_";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final int port;
+
+    private MetricsHttpServer(HttpServer server, ExecutorService executor, int port) {
+        this.server = server;
+        this.executor = executor;
+        this.port = port;
+    }
+
+    public static MetricsHttpServer start(int port, Supplier<FpsTracker.Metrics> source) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 4);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "PerformanceOverlay-Metrics");
+            t.setDaemon(true);
+            return t;
+        });
+
+        server.createContext("/metrics", exchange -> handle(exchange, source));
+        server.setExecutor(executor);
+        server.start();
+
+        return new MetricsHttpServer(server, executor, port);
+    }
+
+    public int port() {
+        return port;
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static void handle(HttpExchange exchange, Supplier<FpsTracker.Metrics> source) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] body = format(source.get()).getBytes(StandardCharsets.UTF_8);
+
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        }
+    }
+
+    static String format(FpsTracker.Metrics m) {
+        StringBuilder sb = new StringBuilder(2048);
+
+        counter(sb, "frames_total", "Frames recorded since the tracker was created.", m.framesTotal());
+
+        gauge(sb, "fps", "Smoothed FPS.", m.fps());
+        gauge(sb, "frametime_ms", "Smoothed frametime in milliseconds.", m.frametimeMs());
+        gauge(sb, "avg_fps", "Average FPS over the Avg window.", m.avgFps());
+        gauge(sb, "low1_fps", "1% low FPS.", m.low1Fps());
+        gauge(sb, "low01_fps", "0.1% low FPS.", m.low01Fps());
+
+        sb.append("# HELP ").append(PREFIX).append("frametime_quantile_ms Frametime quantiles over the 1% Low window.\n");
+        sb.append("# TYPE ").append(PREFIX).append("frametime_quantile_ms gauge\n");
+        quantile(sb, "0.5", m.frametimeP50Ms());
+        quantile(sb, "0.99", m.frametimeP99Ms());
+        quantile(sb, "0.999", m.frametimeP999Ms());
+
+        gauge(sb, "stutters", "Frames over the stutter threshold in the stutter window.", m.stutters());
+        gauge(sb, "stutter_percent", "Stutter frames as a percentage of frames in the stutter window.", m.stutterPercent());
+        gauge(sb, "max_spike_ms", "Worst frametime in the stutter window.", m.maxSpikeMs());
+
+        gauge(sb, "gc_pause_ms", "GC time during the last second.", m.gcPauseMs());
+        gauge(sb, "memory_used_bytes", "Used JVM heap.", m.memUsedMb() * 1024L * 1024L);
+        gauge(sb, "memory_max_bytes", "Max JVM heap.", m.memMaxMb() * 1024L * 1024L);
+
+        gauge(sb, "mspt", "Integrated server tick time, 1 s average (ms); -1 without an integrated server.", m.msptMs());
+
+        gauge(sb, "benchmark_active", "1 while a benchmark is recording.", m.benchmarkActive() ? 1 : 0);
+
+        return sb.toString();
+    }
+
+    private static void gauge(StringBuilder sb, String name, String help, double value) {
+        sb.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(PREFIX).append(name).append(" gauge\n");
+        sb.append(PREFIX).append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void gauge(StringBuilder sb, String name, String help, long value) {
+        sb.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(PREFIX).append(name).append(" gauge\n");
+        sb.append(PREFIX).append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void counter(StringBuilder sb, String name, String help, long value) {
+        sb.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(PREFIX).append(name).append(" counter\n");
+        sb.append(PREFIX).append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void quantile(StringBuilder sb, String q, double value) {
+        sb.append(PREFIX).append("frametime_quantile_ms{quantile=\"").append(q).append("\"} ").append(value).append('\n');
+    }
+}
@@ -13,9 +13,20 @@ public class OverlayConfig {
     public boolean showFrametime = true;
     public boolean showStutters = true;
     public boolean showMaxSpike = true;
+    public boolean showFrameBudgets = false;
+    public boolean showPacing = false;
+    public boolean showHitchPeriod = false;
+    public boolean showSpikeCauses = false;
+    public boolean showMspt = false;
 
     public boolean showGc = true;
     public boolean showMemory = true;
+    public boolean showSystemLoad = false;
+    public boolean showJvmEvents = false;
+    public boolean showContention = false;
+    public boolean showThreadCpu = false;
+    public boolean showProcStats = false;
+    public boolean showSelfOverhead = false;
 
     // Layout
     public OverlayPosition position = OverlayPosition.TOP_LEFT;
@@ -27,11 +38,34 @@ public class OverlayConfig {
     public TextLayout textLayout = TextLayout.ONE_LINE;
     public int lineSpacingPx = 4;
 
+    public boolean showFrametimeGraph = false;
+    public int graphWidthPx = 160;
+    public int graphHeightPx = 40;
+    public boolean showFrametimeHistogram = false;
+
     // Presets / Advanced
     public Preset preset = Preset.DEFAULT;
 
     // Benchmark
     public int autoBenchmarkDurationSec = 30;
+    public boolean benchmarkTraceExport = false;
+    public boolean benchmarkJournal = true;
+    public boolean benchmarkCompress = false;
+
+    // Batch: N auto-stopped runs, unrecorded warmup before the first, idle cooldown between runs
+    public int benchmarkBatchRuns = 1;
+    public int benchmarkBatchWarmupSec = 10;
+    public int benchmarkBatchCooldownSec = 5;
+
+    // Metrics endpoint (Prometheus, localhost only)
+    public boolean metricsServerEnabled = false;
+    public int metricsServerPort = 9465;
+
+    // Live telemetry file (config/performanceoverlay/telemetry.bin)
+    public boolean telemetryFileEnabled = false;
+
+    // Session history (1 s / 10 s / 1 min tiers, fixed memory)
+    public boolean sessionHistoryEnabled = true;
 
     // Update rates (ms)
     public int fpsUpdateMs = 250;
@@ -51,6 +85,9 @@ public class OverlayConfig {
     public int stutterThresholdMs = 40;
     public int stutterWindowSec = 10;
 
+    // Frame budgets (ms, comma-separated, up to 4)
+    public String frameBudgetsMs = "6.9,8.3,16.7,33.3";
+
     // Low calculation
     public LowMethod lowMethod = LowMethod.PERCENTILE;
 
@@ -106,7 +143,8 @@ public class OverlayConfig {
 
     public enum LowMethod {
         MEAN_WORST,
-        PERCENTILE
+        PERCENTILE,
+        TIME_WEIGHTED
     }
 
     public enum ColorTarget {
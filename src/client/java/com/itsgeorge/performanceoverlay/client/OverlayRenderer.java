@@ -5,14 +5,21 @@ import net.minecraft.client.gui.Font;
 import net.minecraft.client.gui.GuiGraphics;
 
 public final class OverlayRenderer {
+    private static final int PANEL_GAP_PX = 2;
+
     private OverlayRenderer() {
     }
 
-    public static void render(GuiGraphics g, OverlayConfig cfg, FpsTracker.Snapshot snapshot) {
+    public static void render(GuiGraphics g, OverlayConfig cfg, FpsTracker.Snapshot snapshot,
+                              FrametimeGraph graph, FrametimeHistogram histogram) {
         if (!cfg.enabled) {
             return;
         }
-        if (snapshot == null || snapshot.isEmpty()) {
+
+        boolean hasText = snapshot != null && !snapshot.isEmpty();
+        boolean hasGraph = cfg.showFrametimeGraph && graph != null && graph.width() > 0;
+        boolean hasHistogram = cfg.showFrametimeHistogram && histogram != null;
+        if (!hasText && !hasGraph && !hasHistogram) {
             return;
         }
 
@@ -24,7 +31,7 @@ public final class OverlayRenderer {
 
         float scale = clamp(cfg.scale, 0.50f, 2.00f);
 
-        int lineCount = snapshot.count();
+        int lineCount = hasText ? snapshot.count() : 0;
         int lineH = font.lineHeight;
 
         int maxW = 0;
@@ -38,23 +45,46 @@ public final class OverlayRenderer {
         int spacingPx = (lineCount > 1) ? Math.max(0, cfg.lineSpacingPx) : 0;
 
         float totalWPx = maxW * scale;
-        float totalHPx = lineCount * (lineH * scale) + (lineCount - 1) * spacingPx;
+        float totalHPx = lineCount * (lineH * scale) + Math.max(0, lineCount - 1) * spacingPx;
 
         int wPx = Math.round(totalWPx);
         int hPx = Math.round(totalHPx);
 
+        // Panels stack under the text at their own pixel size (not affected by the text scale)
+        int graphW = hasGraph ? graph.width() : 0;
+        int graphH = hasGraph ? graph.height() : 0;
+        int graphY = hPx + ((hasText && hasGraph) ? PANEL_GAP_PX : 0);
+
+        int histW = hasHistogram ? histogram.width() : 0;
+        int histH = hasHistogram ? histogram.height(cfg) : 0;
+        int histY = graphY + graphH + (((hasText || hasGraph) && hasHistogram) ? PANEL_GAP_PX : 0);
+
+        int blockW = Math.max(wPx, Math.max(graphW, histW));
+        int blockH = histY + histH;
+
         int xPx = switch (cfg.position) {
             case TOP_LEFT, BOTTOM_LEFT -> cfg.offsetX;
-            case TOP_RIGHT, BOTTOM_RIGHT -> Math.max(0, screenW - cfg.offsetX - wPx);
-            case TOP_CENTER, BOTTOM_CENTER -> Math.max(0, (screenW - wPx) / 2 + cfg.offsetX);
+            case TOP_RIGHT, BOTTOM_RIGHT -> Math.max(0, screenW - cfg.offsetX - blockW);
+            case TOP_CENTER, BOTTOM_CENTER -> Math.max(0, (screenW - blockW) / 2 + cfg.offsetX);
         };
 
         int yPx = switch (cfg.position) {
             case TOP_LEFT, TOP_RIGHT, TOP_CENTER -> cfg.offsetY;
-            case BOTTOM_LEFT, BOTTOM_RIGHT, BOTTOM_CENTER -> Math.max(0, screenH - cfg.offsetY - hPx);
+            case BOTTOM_LEFT, BOTTOM_RIGHT, BOTTOM_CENTER -> Math.max(0, screenH - cfg.offsetY - blockH);
         };
 
-        float x = xPx / scale;
+        if (hasGraph) {
+            graph.render(g, alignX(cfg.position, xPx, blockW, graphW), yPx + graphY);
+        }
+        if (hasHistogram) {
+            histogram.render(g, cfg, alignX(cfg.position, xPx, blockW, histW), yPx + histY);
+        }
+
+        if (!hasText) {
+            return;
+        }
+
+        float x = alignX(cfg.position, xPx, blockW, wPx) / scale;
         float y = yPx / scale;
         float spacingUnscaled = spacingPx / scale;
 
@@ -76,6 +106,14 @@ public final class OverlayRenderer {
         g.pose().popMatrix();
     }
 
+    private static int alignX(OverlayConfig.OverlayPosition position, int blockX, int blockW, int w) {
+        return switch (position) {
+            case TOP_LEFT, BOTTOM_LEFT -> blockX;
+            case TOP_RIGHT, BOTTOM_RIGHT -> blockX + blockW - w;
+            case TOP_CENTER, BOTTOM_CENTER -> blockX + (blockW - w) / 2;
+        };
+    }
+
     private static float clamp(float v, float min, float max) {
         if (v < min) {
             return min;
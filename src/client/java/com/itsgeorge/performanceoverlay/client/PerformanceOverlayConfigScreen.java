@@ -74,58 +74,23 @@ public final class PerformanceOverlayConfigScreen {
 
         overlay.addEntry(eb.startTextDescription(section("— Metrics to show —")).build());
 
-        overlay.addEntry(eb.startBooleanToggle(label("Show FPS"), working.showFps)
-                .setDefaultValue(defaults.showFps)
-                .setTooltip(Component.literal("Show current FPS (smoothed)."))
-                .setSaveConsumer(v -> working.showFps = v)
-                .build());
-
-        overlay.addEntry(eb.startBooleanToggle(label("Show Avg FPS"), working.showAvg)
-                .setDefaultValue(defaults.showAvg)
-                .setTooltip(Component.literal("Show average FPS over the Avg window."))
-                .setSaveConsumer(v -> working.showAvg = v)
-                .build());
-
-        overlay.addEntry(eb.startBooleanToggle(label("Show 1% Low"), working.show1Low)
-                .setDefaultValue(defaults.show1Low)
-                .setTooltip(Component.literal("Show 1% Low FPS (stutter indicator)."))
-                .setSaveConsumer(v -> working.show1Low = v)
-                .build());
-
-        overlay.addEntry(eb.startBooleanToggle(label("Show 0.1% Low"), working.show01Low)
-                .setDefaultValue(defaults.show01Low)
-                .setTooltip(Component.literal("Show 0.1% Low FPS (micro-freeze indicator)."))
-                .setSaveConsumer(v -> working.show01Low = v)
-                .build());
-
-        overlay.addEntry(eb.startBooleanToggle(label("Show Frametime (ms)"), working.showFrametime)
-                .setDefaultValue(defaults.showFrametime)
-                .setTooltip(Component.literal("Show frametime in milliseconds. Lower = smoother."))
-                .setSaveConsumer(v -> working.showFrametime = v)
-                .build());
-
-        overlay.addEntry(eb.startBooleanToggle(label("Show Stutters (count)"), working.showStutters)
-                .setDefaultValue(defaults.showStutters)
-                .setTooltip(Component.literal("Count stutters in the last window (frame >= threshold ms)."))
-                .setSaveConsumer(v -> working.showStutters = v)
-                .build());
-
-        overlay.addEntry(eb.startBooleanToggle(label("Show Max Spike (ms)"), working.showMaxSpike)
-                .setDefaultValue(defaults.showMaxSpike)
-                .setTooltip(Component.literal("Show max frametime spike (ms) within the stutter window."))
-                .setSaveConsumer(v -> working.showMaxSpike = v)
-                .build());
-        overlay.addEntry(eb.startBooleanToggle(label("Show GC pauses"), working.showGc)
-            .setDefaultValue(defaults.showGc)
-            .setTooltip(Component.literal("Show garbage collection pauses (ms)."))
-            .setSaveConsumer(v -> working.showGc = v)
-            .build());
-
-        overlay.addEntry(eb.startBooleanToggle(label("Show Memory usage"), working.showMemory)
-            .setDefaultValue(defaults.showMemory)
-            .setTooltip(Component.literal("Show used / max JVM memory (MB)."))
-            .setSaveConsumer(v -> working.showMemory = v)
-            .build());
+        for (Metric m : PerformanceOverlayClient.getRegisteredMetrics()) {
+            if (!m.hasToggle()) {
+                continue;
+            }
+
+            String[] tip = m.tooltip();
+            Component[] tooltip = new Component[tip.length];
+            for (int t = 0; t < tip.length; t++) {
+                tooltip[t] = Component.literal(tip[t]);
+            }
+
+            overlay.addEntry(eb.startBooleanToggle(label(m.label()), m.isShown(working))
+                    .setDefaultValue(m.isShown(defaults))
+                    .setTooltip(tooltip)
+                    .setSaveConsumer(v -> m.setShown(working, v))
+                    .build());
+        }
 
         // ---------------- Layout ----------------
         ConfigCategory layout = builder.getOrCreateCategory(Component.literal("Layout"));
@@ -177,6 +142,40 @@ public final class PerformanceOverlayConfigScreen {
                 .setSaveConsumer(v -> working.lineSpacingPx = clamp(v, 0, 30))
                 .build());
 
+        layout.addEntry(eb.startBooleanToggle(label("Frametime graph"), working.showFrametimeGraph)
+                .setDefaultValue(defaults.showFrametimeGraph)
+                .setTooltip(
+                        Component.literal("One bar per frame under the text."),
+                        Component.literal("Lines mark 16.7 ms, 33.3 ms and the stutter threshold.")
+                )
+                .setSaveConsumer(v -> working.showFrametimeGraph = v)
+                .build());
+
+        layout.addEntry(eb.startIntField(label("Graph width (px)"), working.graphWidthPx)
+                .setDefaultValue(defaults.graphWidthPx)
+                .setMin(16)
+                .setMax(1000)
+                .setTooltip(Component.literal("Also the number of frames shown."))
+                .setSaveConsumer(v -> working.graphWidthPx = clamp(v, 16, 1000))
+                .build());
+
+        layout.addEntry(eb.startIntField(label("Graph height (px)"), working.graphHeightPx)
+                .setDefaultValue(defaults.graphHeightPx)
+                .setMin(10)
+                .setMax(200)
+                .setTooltip(Component.literal("Height of the frametime graph and histogram."))
+                .setSaveConsumer(v -> working.graphHeightPx = clamp(v, 10, 200))
+                .build());
+
+        layout.addEntry(eb.startBooleanToggle(label("Frametime histogram"), working.showFrametimeHistogram)
+                .setDefaultValue(defaults.showFrametimeHistogram)
+                .setTooltip(
+                        Component.literal("Distribution of frametimes over the 1% Low window (log buckets)."),
+                        Component.literal("Markers: p50 white, p99 yellow, p99.9 red.")
+                )
+                .setSaveConsumer(v -> working.showFrametimeHistogram = v)
+                .build());
+
         // ---------------- Advanced ----------------
         ConfigCategory advanced = builder.getOrCreateCategory(Component.literal("Advanced"));
 
@@ -215,7 +214,8 @@ public final class PerformanceOverlayConfigScreen {
                 .setDefaultValue(defaults.lowMethod)
                 .setTooltip(
                         Component.literal("MEAN_WORST = average of worst frames (stricter)."),
-                        Component.literal("PERCENTILE = percentile frametime (more standard).")
+                        Component.literal("PERCENTILE = percentile frametime (more standard)."),
+                        Component.literal("TIME_WEIGHTED = FPS during the worst 1% / 0.1% of time (long hitches count fully).")
                 )
                 .setSaveConsumer(v -> {
                     working.lowMethod = v;
@@ -236,6 +236,99 @@ public final class PerformanceOverlayConfigScreen {
                 .setSaveConsumer(v -> working.autoBenchmarkDurationSec = clamp(v, 0, 3600))
                 .build());
 
+        advanced.addEntry(eb.startBooleanToggle(label("Export trace (Perfetto)"), working.benchmarkTraceExport)
+                .setDefaultValue(defaults.benchmarkTraceExport)
+                .setTooltip(
+                        Component.literal("Also write a .trace.json next to the CSV."),
+                        Component.literal("Open it in ui.perfetto.dev or chrome://tracing.")
+                )
+                .setSaveConsumer(v -> working.benchmarkTraceExport = v)
+                .build());
+
+        advanced.addEntry(eb.startBooleanToggle(label("Crash-safe journal"), working.benchmarkJournal)
+                .setDefaultValue(defaults.benchmarkJournal)
+                .setTooltip(
+                        Component.literal("Record every benchmark frame to a memory-mapped .journal file."),
+                        Component.literal("If the game dies mid-run, the summary is rebuilt on next launch.")
+                )
+                .setSaveConsumer(v -> working.benchmarkJournal = v)
+                .build());
+
+        advanced.addEntry(eb.startBooleanToggle(label("Compress CSV (.csv.gz)"), working.benchmarkCompress)
+                .setDefaultValue(defaults.benchmarkCompress)
+                .setTooltip(
+                        Component.literal("Gzip the benchmark CSV on a background thread."),
+                        Component.literal("Same content; open with any tool that reads .gz.")
+                )
+                .setSaveConsumer(v -> working.benchmarkCompress = v)
+                .build());
+
+        advanced.addEntry(eb.startIntField(label("Batch runs"), working.benchmarkBatchRuns)
+                .setDefaultValue(defaults.benchmarkBatchRuns)
+                .setMin(1)
+                .setMax(50)
+                .setTooltip(
+                        Component.literal("1 = single run. If > 1, the benchmark key starts N runs"),
+                        Component.literal("of the auto duration and saves a combined batch_*.csv (mean ± 95% CI).")
+                )
+                .setSaveConsumer(v -> working.benchmarkBatchRuns = clamp(v, 1, 50))
+                .build());
+
+        advanced.addEntry(eb.startIntField(label("Batch warmup (sec)"), working.benchmarkBatchWarmupSec)
+                .setDefaultValue(defaults.benchmarkBatchWarmupSec)
+                .setMin(0)
+                .setMax(600)
+                .setTooltip(
+                        Component.literal("Unrecorded wait before the first run"),
+                        Component.literal("(JIT warmup, chunk loading).")
+                )
+                .setSaveConsumer(v -> working.benchmarkBatchWarmupSec = clamp(v, 0, 600))
+                .build());
+
+        advanced.addEntry(eb.startIntField(label("Batch cooldown (sec)"), working.benchmarkBatchCooldownSec)
+                .setDefaultValue(defaults.benchmarkBatchCooldownSec)
+                .setMin(0)
+                .setMax(600)
+                .setTooltip(Component.literal("Unrecorded wait between runs."))
+                .setSaveConsumer(v -> working.benchmarkBatchCooldownSec = clamp(v, 0, 600))
+                .build());
+
+        advanced.addEntry(eb.startTextDescription(section("— Metrics endpoint —")).build());
+
+        advanced.addEntry(eb.startBooleanToggle(label("Prometheus endpoint"), working.metricsServerEnabled)
+                .setDefaultValue(defaults.metricsServerEnabled)
+                .setTooltip(
+                        Component.literal("Serve live metrics at http://127.0.0.1:<port>/metrics."),
+                        Component.literal("Localhost only. All metrics are computed while this is on.")
+                )
+                .setSaveConsumer(v -> working.metricsServerEnabled = v)
+                .build());
+
+        advanced.addEntry(eb.startIntField(label("Endpoint port"), working.metricsServerPort)
+                .setDefaultValue(defaults.metricsServerPort)
+                .setMin(1024)
+                .setMax(65535)
+                .setSaveConsumer(v -> working.metricsServerPort = clamp(v, 1024, 65535))
+                .build());
+
+        advanced.addEntry(eb.startBooleanToggle(label("Telemetry file"), working.telemetryFileEnabled)
+                .setDefaultValue(defaults.telemetryFileEnabled)
+                .setTooltip(
+                        Component.literal("Publish live metrics to config/performanceoverlay/telemetry.bin"),
+                        Component.literal("(memory-mapped) for dashboards on this machine.")
+                )
+                .setSaveConsumer(v -> working.telemetryFileEnabled = v)
+                .build());
+
+        advanced.addEntry(eb.startBooleanToggle(label("Session history"), working.sessionHistoryEnabled)
+                .setDefaultValue(defaults.sessionHistoryEnabled)
+                .setTooltip(
+                        Component.literal("Keep min/mean/max/p99 per second (1 h), per 10 s (1 day)"),
+                        Component.literal("and per minute (7 days). Fixed ~450 KB; open the graph with its key.")
+                )
+                .setSaveConsumer(v -> working.sessionHistoryEnabled = v)
+                .build());
+
         advanced.addEntry(eb.startTextDescription(section("— Update rates (ms) —")).build());
 
         advanced.addEntry(eb.startIntField(label("FPS update (ms)"), working.fpsUpdateMs)
@@ -374,6 +467,17 @@ public final class PerformanceOverlayConfigScreen {
                 })
                 .build());
 
+        advanced.addEntry(eb.startTextDescription(section("— Frame budgets —")).build());
+
+        advanced.addEntry(eb.startStrField(label("Frame budgets (ms)"), working.frameBudgetsMs)
+                .setDefaultValue(defaults.frameBudgetsMs)
+                .setTooltip(
+                        Component.literal("Up to 4 budgets, comma-separated."),
+                        Component.literal("6.9 = 144 Hz, 8.3 = 120 Hz, 16.7 = 60 Hz, 33.3 = 30 Hz.")
+                )
+                .setSaveConsumer(v -> working.frameBudgetsMs = BuiltinMetrics.Budgets.format(BuiltinMetrics.Budgets.parse(v)))
+                .build());
+
         advanced.addEntry(eb.startTextDescription(section("— Colouring —")).build());
 
         advanced.addEntry(eb.startBooleanToggle(label("Color thresholds"), working.colorThresholds)
@@ -501,9 +605,21 @@ public final class PerformanceOverlayConfigScreen {
 
         c.showFrametime = src.showFrametime;
         c.showStutters = src.showStutters;
+        c.showMaxSpike = src.showMaxSpike;
+        c.showFrameBudgets = src.showFrameBudgets;
+        c.showPacing = src.showPacing;
+        c.showHitchPeriod = src.showHitchPeriod;
+        c.showSpikeCauses = src.showSpikeCauses;
 
         c.showGc = src.showGc;
         c.showMemory = src.showMemory;
+        c.showSystemLoad = src.showSystemLoad;
+        c.showJvmEvents = src.showJvmEvents;
+        c.showContention = src.showContention;
+        c.showThreadCpu = src.showThreadCpu;
+        c.showProcStats = src.showProcStats;
+        c.showSelfOverhead = src.showSelfOverhead;
+        c.showMspt = src.showMspt;
 
         c.position = src.position;
         c.offsetX = src.offsetX;
@@ -514,8 +630,26 @@ public final class PerformanceOverlayConfigScreen {
         c.textLayout = (src.textLayout != null) ? src.textLayout : c.textLayout;
         c.lineSpacingPx = src.lineSpacingPx;
 
+        c.showFrametimeGraph = src.showFrametimeGraph;
+        c.graphWidthPx = src.graphWidthPx;
+        c.graphHeightPx = src.graphHeightPx;
+        c.showFrametimeHistogram = src.showFrametimeHistogram;
+
         c.preset = src.preset;
 
+        c.autoBenchmarkDurationSec = src.autoBenchmarkDurationSec;
+        c.benchmarkTraceExport = src.benchmarkTraceExport;
+        c.benchmarkJournal = src.benchmarkJournal;
+        c.benchmarkCompress = src.benchmarkCompress;
+        c.benchmarkBatchRuns = src.benchmarkBatchRuns;
+        c.benchmarkBatchWarmupSec = src.benchmarkBatchWarmupSec;
+        c.benchmarkBatchCooldownSec = src.benchmarkBatchCooldownSec;
+
+        c.metricsServerEnabled = src.metricsServerEnabled;
+        c.metricsServerPort = src.metricsServerPort;
+        c.telemetryFileEnabled = src.telemetryFileEnabled;
+        c.sessionHistoryEnabled = src.sessionHistoryEnabled;
+
         c.fpsUpdateMs = src.fpsUpdateMs;
         c.frametimeUpdateMs = src.frametimeUpdateMs;
         c.avgUpdateMs = src.avgUpdateMs;
@@ -531,6 +665,8 @@ public final class PerformanceOverlayConfigScreen {
         c.stutterThresholdMs = src.stutterThresholdMs;
         c.stutterWindowSec = src.stutterWindowSec;
 
+        c.frameBudgetsMs = src.frameBudgetsMs;
+
         c.lowMethod = src.lowMethod;
 
         c.pauseHandling = src.pauseHandling;
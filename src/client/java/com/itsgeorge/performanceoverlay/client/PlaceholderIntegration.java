@@ -0,0 +1,85 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import com.itsgeorge.performanceoverlay.api.PerformanceOverlayApi;
+import eu.pb4.placeholders.api.PlaceholderContext;
+import eu.pb4.placeholders.api.PlaceholderHandler;
+import eu.pb4.placeholders.api.PlaceholderResult;
+import eu.pb4.placeholders.api.Placeholders;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.Identifier;
+
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Registers {@code %performanceoverlay:...%} placeholders with Placeholder API.
+ * Only loaded when Placeholder API is installed.
+ *
+ * Every placeholder keeps the text it returned last, keyed by the value as displayed (whole FPS,
+ * tenths of a ms), and only formats again when that changes. Requests can come from any thread.
+ *
+ * Placeholders only read the core API values (fps, avg, lows, frametime, MSPT, stutters), so a
+ * displayed placeholder keeps just those metrics fresh, and only while it's being rendered.
+ */
+public final class PlaceholderIntegration {
+    public static final String MOD_ID = "placeholder-api";
+
+    private PlaceholderIntegration() {
+    }
+
+    public static void register(String namespace, PerformanceOverlayApi api) {
+        register(namespace, "fps", () -> Fmt.roundInt(api.fps()), String::valueOf);
+        register(namespace, "avg", () -> Fmt.roundInt(api.avgFps()), String::valueOf);
+        register(namespace, "low1", () -> Fmt.roundInt(api.low1Fps()), String::valueOf);
+        register(namespace, "low01", () -> Fmt.roundInt(api.low01Fps()), String::valueOf);
+        register(namespace, "ft", () -> tenths(api.frametimeMs()), PlaceholderIntegration::formatTenths);
+        register(namespace, "mspt", () -> tenths(api.mspt()), PlaceholderIntegration::formatTenths);
+        register(namespace, "stutters", () -> api.stutters(), String::valueOf);
+    }
+
+    private static void register(String namespace, String path, LongSupplier key, LongFunction<String> format) {
+        Placeholders.register(Identifier.fromNamespaceAndPath(namespace, path), new Cached(key, format));
+    }
+
+    // -1 stays -1 (not available)
+    private static long tenths(double ms) {
+        if (ms < 0 || Double.isNaN(ms) || Double.isInfinite(ms)) {
+            return -1;
+        }
+        return Math.round(ms * 10.0);
+    }
+
+    private static String formatTenths(long tenths) {
+        if (tenths < 0) {
+            return "N/A";
+        }
+        return (tenths / 10) + "." + (tenths % 10);
+    }
+
+    private static final class Cached implements PlaceholderHandler {
+        private final LongSupplier key;
+        private final LongFunction<String> format;
+
+        private volatile Entry last = null;
+
+        Cached(LongSupplier key, LongFunction<String> format) {
+            this.key = key;
+            this.format = format;
+        }
+
+        @Override
+        public PlaceholderResult onPlaceholderRequest(PlaceholderContext context, String argument) {
+            long k = key.getAsLong();
+
+            Entry e = last;
+            if (e == null || e.key != k) {
+                e = new Entry(k, PlaceholderResult.value(Component.literal(format.apply(k))));
+                last = e;
+            }
+            return e.result;
+        }
+    }
+
+    private record Entry(long key, PlaceholderResult result) {
+    }
+}
@@ -0,0 +1,316 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Linux-only process sampler reading /proc/self/{stat,status,io} on a background daemon thread.
+ * Files are kept open and re-read from offset 0 into one reused buffer; parsing works on raw bytes.
+ * The render thread only reads the last published {@link Sample}.
+ *
+ * Page faults, RSS and I/O are process-wide. Context switches come from the render thread's own
+ * /proc/self/task/&lt;tid&gt;/status: the counters in /proc/self/status only cover the thread-group
+ * leader, which in a Java launch is the primordial thread parked in pthread_join. The tid is taken
+ * from /proc/thread-self when the sampler is activated (on the render thread); without it
+ * (kernels before 3.17) context switches are reported as -1.
+ *
+ * On systems without /proc this never starts a thread and {@link #isAvailable()} is false.
+ */
+public final class ProcSampler {
+    private static final Path STAT = Path.of("/proc/self/stat");
+    private static final Path STATUS = Path.of("/proc/self/status");
+    private static final Path IO = Path.of("/proc/self/io");
+
+    private static final int INTERVAL_MS = 1000;
+
+    private static final byte[] KEY_RSS = "VmRSS:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_VOL_CS = "voluntary_ctxt_switches:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_INVOL_CS = "nonvoluntary_ctxt_switches:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_READ = "read_bytes:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_WRITE = "write_bytes:".getBytes(StandardCharsets.US_ASCII);
+
+    private final boolean available = Files.isReadable(STAT) && Files.isReadable(STATUS);
+
+    private volatile Sample latest = Sample.EMPTY;
+    private Thread thread = null;
+    private Worker worker = null;
+
+    // Render thread's task status file; resolved on first activation, null if unknown
+    private Path renderTaskStatus = null;
+    private boolean renderTaskResolved = false;
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public Sample latest() {
+        return latest;
+    }
+
+    /**
+     * Starts or stops the background thread. Cheap to call every frame.
+     */
+    public void setActive(boolean active) {
+        if (!available) {
+            return;
+        }
+
+        if (active && thread == null) {
+            if (!renderTaskResolved) {
+                renderTaskResolved = true;
+                renderTaskStatus = currentTaskStatus();
+            }
+
+            Worker w = new Worker(renderTaskStatus);
+            Thread t = new Thread(w, "PerformanceOverlay-Proc");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            worker = w;
+            thread = t;
+            t.start();
+        } else if (!active && thread != null) {
+            // Under the lock so the old worker can't publish after the reset
+            synchronized (this) {
+                worker.stopped = true;
+                latest = Sample.EMPTY;
+            }
+            thread.interrupt();
+            thread = null;
+            worker = null;
+        }
+    }
+
+    // /proc/thread-self links to "<pid>/task/<tid>" of the calling thread
+    private static Path currentTaskStatus() {
+        try {
+            Path link = Files.readSymbolicLink(Path.of("/proc/thread-self"));
+            Path status = Path.of("/proc").resolve(link).resolve("status");
+            return Files.isReadable(status) ? status : null;
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            return null;
+        }
+    }
+
+    // One instance per started thread, so a stop/start never shares file handles or baselines.
+    private final class Worker implements Runnable {
+        private final byte[] buf = new byte[8192];
+        private final Path taskStatus;
+        private RandomAccessFile statFile;
+        private RandomAccessFile statusFile;
+        private RandomAccessFile taskStatusFile;
+        private RandomAccessFile ioFile;
+
+        // Set (under the sampler's lock) when this worker is stopped; it must not publish after that
+        volatile boolean stopped = false;
+
+        Worker(Path taskStatus) {
+            this.taskStatus = taskStatus;
+        }
+        private boolean hasPrev = false;
+        private long prevMinFlt, prevMajFlt, prevVolCs, prevInvolCs, prevRead, prevWrite;
+
+        public void run() {
+            try {
+                statFile = new RandomAccessFile(STAT.toFile(), "r");
+                statusFile = new RandomAccessFile(STATUS.toFile(), "r");
+                ioFile = Files.isReadable(IO) ? new RandomAccessFile(IO.toFile(), "r") : null;
+                taskStatusFile = (taskStatus != null) ? new RandomAccessFile(taskStatus.toFile(), "r") : null;
+            } catch (IOException e) {
+                closeFiles();
+                return;
+            }
+
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    readOnce();
+                    Thread.sleep(INTERVAL_MS);
+                }
+            } catch (InterruptedException ignored) {
+            } catch (IOException e) {
+                publish(Sample.EMPTY);
+            } finally {
+                closeFiles();
+            }
+        }
+
+        private void readOnce() throws IOException {
+            // /proc/self/stat: "pid (comm) state ppid ..."; comm may contain spaces, so parse after the last ')'
+            int n = readFully(statFile);
+            int p = lastIndexOf(buf, n, (byte) ')') + 2;
+            p = skipFields(buf, n, p, 7);          // state .. flags -> minflt is field 10
+            long minFlt = parseLongAt(buf, n, p);
+            p = skipFields(buf, n, p, 2);          // minflt, cminflt
+            long majFlt = parseLongAt(buf, n, p);
+
+            n = readFully(statusFile);
+            long rssKb = parseKey(buf, n, KEY_RSS);
+
+            long volCs = -1;
+            long involCs = -1;
+            if (taskStatusFile != null) {
+                try {
+                    n = readFully(taskStatusFile);
+                    volCs = parseKey(buf, n, KEY_VOL_CS);
+                    involCs = parseKey(buf, n, KEY_INVOL_CS);
+                } catch (IOException e) {
+                    // Render thread gone (shutdown); keep the rest
+                    closeQuietly(taskStatusFile);
+                    taskStatusFile = null;
+                }
+            }
+
+            long readBytes = -1;
+            long writeBytes = -1;
+            if (ioFile != null) {
+                try {
+                    n = readFully(ioFile);
+                    readBytes = parseKey(buf, n, KEY_READ);
+                    writeBytes = parseKey(buf, n, KEY_WRITE);
+                } catch (IOException e) {
+                    // /proc/self/io can be restricted (ptrace policy); keep the rest
+                    closeQuietly(ioFile);
+                    ioFile = null;
+                }
+            }
+
+            if (hasPrev) {
+                publish(new Sample(
+                        true,
+                        Math.max(0, rssKb) / 1024,
+                        Math.max(0, majFlt - prevMajFlt),
+                        Math.max(0, minFlt - prevMinFlt),
+                        (volCs >= 0) ? Math.max(0, volCs - prevVolCs) : -1,
+                        (involCs >= 0) ? Math.max(0, involCs - prevInvolCs) : -1,
+                        (readBytes >= 0) ? Math.max(0, readBytes - prevRead) / 1024 : -1,
+                        (writeBytes >= 0) ? Math.max(0, writeBytes - prevWrite) / 1024 : -1
+                ));
+            }
+
+            prevMinFlt = minFlt;
+            prevMajFlt = majFlt;
+            prevVolCs = volCs;
+            prevInvolCs = involCs;
+            prevRead = readBytes;
+            prevWrite = writeBytes;
+            hasPrev = true;
+        }
+
+        private void publish(Sample s) {
+            synchronized (ProcSampler.this) {
+                if (!stopped) {
+                    latest = s;
+                }
+            }
+        }
+
+        private int readFully(RandomAccessFile f) throws IOException {
+            f.seek(0);
+            int total = 0;
+            while (total < buf.length) {
+                int r = f.read(buf, total, buf.length - total);
+                if (r <= 0) {
+                    break;
+                }
+                total += r;
+            }
+            return total;
+        }
+
+        private void closeFiles() {
+            closeQuietly(statFile);
+            closeQuietly(statusFile);
+            closeQuietly(taskStatusFile);
+            closeQuietly(ioFile);
+            statFile = null;
+            statusFile = null;
+            taskStatusFile = null;
+            ioFile = null;
+        }
+    }
+
+    private static void closeQuietly(RandomAccessFile f) {
+        if (f == null) {
+            return;
+        }
+        try {
+            f.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static int lastIndexOf(byte[] b, int n, byte c) {
+        for (int i = n - 1; i >= 0; i--) {
+            if (b[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipFields(byte[] b, int n, int p, int count) {
+        for (int i = 0; i < count && p < n; i++) {
+            while (p < n && b[p] != ' ') p++;
+            while (p < n && b[p] == ' ') p++;
+        }
+        return p;
+    }
+
+    private static long parseLongAt(byte[] b, int n, int p) {
+        while (p < n && (b[p] == ' ' || b[p] == '\t')) p++;
+        if (p >= n || b[p] < '0' || b[p] > '9') {
+            return -1;
+        }
+        long v = 0;
+        while (p < n && b[p] >= '0' && b[p] <= '9') {
+            v = v * 10 + (b[p] - '0');
+            p++;
+        }
+        return v;
+    }
+
+    // Finds "key" at the start of a line and parses the number after it.
+    private static long parseKey(byte[] b, int n, byte[] key) {
+        int p = 0;
+        while (p < n) {
+            if (startsWith(b, n, p, key)) {
+                return parseLongAt(b, n, p + key.length);
+            }
+            while (p < n && b[p] != '\n') p++;
+            p++;
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(byte[] b, int n, int p, byte[] key) {
+        if (p + key.length > n) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (b[p + i] != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Per-interval deltas (1 s), except rssMb which is the current resident set size.
+     * voluntaryCs / involuntaryCs are the render thread's, -1 when its task status is unknown;
+     * readKb / writeKb are -1 when /proc/self/io is not readable.
+     */
+    public record Sample(
+            boolean valid,
+            long rssMb,
+            long majorFaults,
+            long minorFaults,
+            long voluntaryCs,
+            long involuntaryCs,
+            long readKb,
+            long writeKb
+    ) {
+        public static final Sample EMPTY = new Sample(false, 0, 0, 0, 0, 0, -1, -1);
+    }
+}
@@ -0,0 +1,202 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Polls cumulative JVM counters (GC, JIT, class loading, safepoints) and reports deltas since the last call.
+ * Each {@link #sample()} is cheap enough to run once per frame while a benchmark is recording.
+ */
+public final class RuntimeEventSampler {
+    public static final int FLAG_GC = 1;
+    public static final int FLAG_JIT = 1 << 1;
+    public static final int FLAG_CLASS_LOAD = 1 << 2;
+    public static final int FLAG_SAFEPOINT = 1 << 3;
+
+    private static final List<GarbageCollectorMXBean> GC_BEANS = ManagementFactory.getGarbageCollectorMXBeans();
+
+    private final CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+    private final ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+
+    private final boolean jitSupported;
+
+    // HotSpot internal runtime bean; only reachable when sun.management is opened to us
+    // (--add-opens java.management/sun.management=ALL-UNNAMED). Bound once, ()long, null otherwise.
+    private final MethodHandle safepointCount;
+    private final MethodHandle safepointTimeMs;
+
+    private long lastGcMs;
+    private long lastJitMs;
+    private long lastClasses;
+    private long lastSafepoints;
+    private long lastSafepointMs;
+
+    // Deltas from the last sample()
+    private long gcMs;
+    private long jitMs;
+    private long classesLoaded;
+    private long safepoints;
+    private long safepointMs;
+    private int flags;
+
+    public RuntimeEventSampler() {
+        this.jitSupported = compilation != null && compilation.isCompilationTimeMonitoringSupported();
+
+        MethodHandle count = null;
+        MethodHandle time = null;
+        try {
+            Class<?> helper = Class.forName("sun.management.ManagementFactoryHelper");
+            Object runtime = helper.getMethod("getHotspotRuntimeMBean").invoke(null);
+            count = bindLong(runtime, "getSafepointCount");
+            time = bindLong(runtime, "getTotalSafepointTime");
+        } catch (Throwable t) {
+            count = null;
+            time = null;
+        }
+        this.safepointCount = count;
+        this.safepointTimeMs = time;
+
+        reset();
+    }
+
+    public boolean isSafepointSupported() {
+        return safepointCount != null;
+    }
+
+    /**
+     * Total time spent in GC so far, summed over all collectors (ms).
+     */
+    public static long totalGcTimeMs() {
+        long total = 0;
+        for (GarbageCollectorMXBean bean : GC_BEANS) {
+            long t = bean.getCollectionTime();
+            if (t > 0) total += t;
+        }
+        return total;
+    }
+
+    /**
+     * Re-baselines the counters so the next sample() only covers time from now on.
+     */
+    public void reset() {
+        lastGcMs = readGcMs();
+        lastJitMs = readJitMs();
+        lastClasses = classLoading.getTotalLoadedClassCount();
+        lastSafepoints = readSafepointCount();
+        lastSafepointMs = readSafepointMs();
+
+        gcMs = 0;
+        jitMs = 0;
+        classesLoaded = 0;
+        safepoints = 0;
+        safepointMs = 0;
+        flags = 0;
+    }
+
+    public void sample() {
+        long gc = readGcMs();
+        long jit = readJitMs();
+        long classes = classLoading.getTotalLoadedClassCount();
+        long sp = readSafepointCount();
+        long spMs = readSafepointMs();
+
+        gcMs = Math.max(0, gc - lastGcMs);
+        jitMs = Math.max(0, jit - lastJitMs);
+        classesLoaded = Math.max(0, classes - lastClasses);
+        safepoints = Math.max(0, sp - lastSafepoints);
+        safepointMs = Math.max(0, spMs - lastSafepointMs);
+
+        lastGcMs = gc;
+        lastJitMs = jit;
+        lastClasses = classes;
+        lastSafepoints = sp;
+        lastSafepointMs = spMs;
+
+        int f = 0;
+        if (gcMs > 0) f |= FLAG_GC;
+        if (jitMs > 0) f |= FLAG_JIT;
+        if (classesLoaded > 0) f |= FLAG_CLASS_LOAD;
+        if (safepoints > 0) f |= FLAG_SAFEPOINT;
+        flags = f;
+    }
+
+    public long gcMs() {
+        return gcMs;
+    }
+
+    public long jitMs() {
+        return jitMs;
+    }
+
+    public long classesLoaded() {
+        return classesLoaded;
+    }
+
+    public long safepoints() {
+        return safepoints;
+    }
+
+    public long safepointMs() {
+        return safepointMs;
+    }
+
+    public int flags() {
+        return flags;
+    }
+
+    /**
+     * Compact flag string for CSV rows: G = GC, J = JIT, C = class loading, S = safepoint.
+     */
+    public static String flagString(int flags) {
+        if (flags == 0) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(4);
+        if ((flags & FLAG_GC) != 0) sb.append('G');
+        if ((flags & FLAG_JIT) != 0) sb.append('J');
+        if ((flags & FLAG_CLASS_LOAD) != 0) sb.append('C');
+        if ((flags & FLAG_SAFEPOINT) != 0) sb.append('S');
+        return sb.toString();
+    }
+
+    private long readGcMs() {
+        return totalGcTimeMs();
+    }
+
+    private long readJitMs() {
+        return jitSupported ? compilation.getTotalCompilationTime() : 0;
+    }
+
+    private long readSafepointCount() {
+        return invokeLong(safepointCount);
+    }
+
+    private long readSafepointMs() {
+        return invokeLong(safepointTimeMs);
+    }
+
+    private static long invokeLong(MethodHandle h) {
+        if (h == null) {
+            return 0;
+        }
+        try {
+            return (long) h.invokeExact();
+        } catch (Throwable t) {
+            return 0;
+        }
+    }
+
+    // Throws unless sun.management is open to this module
+    private static MethodHandle bindLong(Object target, String name) throws ReflectiveOperationException {
+        Method m = target.getClass().getMethod(name);
+        m.setAccessible(true);
+        return MethodHandles.lookup().unreflect(m).bindTo(target).asType(MethodType.methodType(long.class));
+    }
+}
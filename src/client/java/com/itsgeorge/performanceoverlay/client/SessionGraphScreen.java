@@ -0,0 +1,225 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.client.gui.components.Button;
+import net.minecraft.client.gui.screens.Screen;
+import net.minecraft.network.chat.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Whole-session frametime graph from {@link SessionHistory}. One tier at a time; slots are merged
+ * into pixel columns (min of mins, frame-weighted mean, max of p99s and maxes).
+ */
+public final class SessionGraphScreen extends Screen {
+    private static final DateTimeFormatter TS = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+    private static final String[] TIER_NAMES = {"1 s", "10 s", "1 min"};
+
+    private static final int MARGIN = 20;
+    private static final int TOP = 32;
+    private static final int BOTTOM = 58;
+
+    private static final int COLOR_BACKGROUND = 0x90000000;
+    private static final int COLOR_MAX = 0x80FF5555;
+    private static final int COLOR_P99 = 0xFFFFFF55;
+    private static final int COLOR_MEAN = 0xFF55FF55;
+    private static final int COLOR_BUDGET = 0x60FFFFFF;
+    private static final int COLOR_TEXT = 0xFFFFFFFF;
+    private static final int COLOR_DIM = 0xFFAAAAAA;
+
+    private final Screen parent;
+    private final SessionHistory history;
+
+    private int tier = SessionHistory.TIER_SECOND;
+    private String status = "";
+
+    // Per-column aggregates, rebuilt every frame
+    private float[] colMean = new float[0];
+    private float[] colP99 = new float[0];
+    private float[] colMax = new float[0];
+    private int[] colFrames = new int[0];
+    private int[] colFirstSlot = new int[0];
+
+    public SessionGraphScreen(Screen parent, SessionHistory history) {
+        super(Component.literal("Session history"));
+        this.parent = parent;
+        this.history = history;
+    }
+
+    @Override
+    protected void init() {
+        int y = height - 28;
+        int w = 100;
+        int gap = 4;
+        int x = (width - (w * 3 + gap * 2)) / 2;
+
+        addRenderableWidget(Button.builder(tierLabel(), b -> {
+            tier = (tier + 1) % SessionHistory.TIER_COUNT;
+            b.setMessage(tierLabel());
+        }).bounds(x, y, w, 20).build());
+
+        addRenderableWidget(Button.builder(Component.literal("Export CSV"), b -> export())
+                .bounds(x + w + gap, y, w, 20).build());
+
+        addRenderableWidget(Button.builder(Component.literal("Done"), b -> onClose())
+                .bounds(x + (w + gap) * 2, y, w, 20).build());
+    }
+
+    @Override
+    public void onClose() {
+        minecraft.setScreen(parent);
+    }
+
+    @Override
+    public void render(GuiGraphics g, int mouseX, int mouseY, float partialTick) {
+        super.render(g, mouseX, mouseY, partialTick);
+
+        g.drawCenteredString(font, title, width / 2, 8, COLOR_TEXT);
+
+        int x0 = MARGIN;
+        int x1 = width - MARGIN;
+        int y0 = TOP;
+        int y1 = height - BOTTOM;
+        int w = x1 - x0;
+        int h = y1 - y0;
+        if (w <= 0 || h <= 0) {
+            return;
+        }
+
+        g.fill(x0, y0, x1, y1, COLOR_BACKGROUND);
+
+        SessionHistory.Tier t = history.tier(tier);
+        int n = t.size();
+        if (n == 0) {
+            g.drawCenteredString(font, "No closed " + TIER_NAMES[tier] + " slots yet", width / 2, y0 + h / 2 - 4, COLOR_DIM);
+            drawStatus(g, y1);
+            return;
+        }
+
+        float scaleMs = aggregate(t, n, w);
+
+        int budgetY = y1 - Math.round((16.7f / scaleMs) * h);
+        if (budgetY > y0) {
+            g.hLine(x0, x1 - 1, budgetY, COLOR_BUDGET);
+        }
+
+        for (int c = 0; c < w; c++) {
+            if (colFrames[c] == 0) {
+                continue;
+            }
+            int x = x0 + c;
+            int yMax = yOf(colMax[c], scaleMs, y0, y1);
+            int yP99 = yOf(colP99[c], scaleMs, y0, y1);
+            int yMean = yOf(colMean[c], scaleMs, y0, y1);
+
+            if (yMax < yP99) {
+                g.fill(x, yMax, x + 1, yP99, COLOR_MAX);
+            }
+            g.fill(x, yP99, x + 1, yP99 + 1, COLOR_P99);
+            g.fill(x, yMean, x + 1, yMean + 1, COLOR_MEAN);
+        }
+
+        g.drawString(font, Fmt.ms1(scaleMs) + " ms", x0 + 2, y0 + 2, COLOR_DIM);
+        g.drawString(font, "-" + duration((long) n * t.slotSeconds()), x0 + 2, y1 + 2, COLOR_DIM);
+        String now = "now";
+        g.drawString(font, now, x1 - font.width(now), y1 + 2, COLOR_DIM);
+
+        if (mouseX >= x0 && mouseX < x1 && mouseY >= y0 && mouseY < y1) {
+            int c = mouseX - x0;
+            g.vLine(mouseX, y0, y1, COLOR_BUDGET);
+            if (colFrames[c] > 0) {
+                long ago = t.startSeconds(n - 1) - t.startSeconds(colFirstSlot[c]);
+                String info = String.format(Locale.ROOT, "-%s  mean %s  p99 %s  max %s ms  (%d frames)",
+                        duration(ago), Fmt.ms1(colMean[c]), Fmt.ms1(colP99[c]), Fmt.ms1(colMax[c]), colFrames[c]);
+                g.drawCenteredString(font, info, width / 2, y0 - 11, COLOR_TEXT);
+            }
+        }
+
+        drawStatus(g, y1);
+    }
+
+    // Fills the column arrays and returns the vertical scale in ms.
+    private float aggregate(SessionHistory.Tier t, int n, int w) {
+        if (colMean.length != w) {
+            colMean = new float[w];
+            colP99 = new float[w];
+            colMax = new float[w];
+            colFrames = new int[w];
+            colFirstSlot = new int[w];
+        }
+
+        float maxP99 = 0f;
+        for (int c = 0; c < w; c++) {
+            int from = (int) ((long) c * n / w);
+            int to = Math.max(from + 1, (int) ((long) (c + 1) * n / w));
+
+            double sum = 0;
+            int frames = 0;
+            float p99 = 0f;
+            float max = 0f;
+            for (int i = from; i < to; i++) {
+                int f = t.frames(i);
+                if (f == 0) {
+                    continue;
+                }
+                sum += (double) t.meanMs(i) * f;
+                frames += f;
+                p99 = Math.max(p99, t.p99Ms(i));
+                max = Math.max(max, t.maxMs(i));
+            }
+
+            colFrames[c] = frames;
+            colFirstSlot[c] = from;
+            colMean[c] = (frames > 0) ? (float) (sum / frames) : 0f;
+            colP99[c] = p99;
+            colMax[c] = max;
+            maxP99 = Math.max(maxP99, p99);
+        }
+
+        // Scale to the p99s so one huge hitch doesn't flatten the graph; maxes above are clipped
+        return Math.max(20f, maxP99 * 1.25f);
+    }
+
+    private static int yOf(float ms, float scaleMs, int y0, int y1) {
+        int y = y1 - Math.round((ms / scaleMs) * (y1 - y0));
+        return Math.max(y0, Math.min(y1 - 1, y));
+    }
+
+    private void drawStatus(GuiGraphics g, int y1) {
+        String legend = "mean (green)  p99 (yellow)  p99..max (red)";
+        g.drawCenteredString(font, status.isEmpty() ? legend : status, width / 2, y1 + 14, COLOR_DIM);
+    }
+
+    private Component tierLabel() {
+        return Component.literal("Resolution: " + TIER_NAMES[tier]);
+    }
+
+    private void export() {
+        Path dir = FabricLoader.getInstance().getConfigDir().resolve("performanceoverlay").resolve("sessions");
+        try {
+            Path file = history.export(dir, "session_" + LocalDateTime.now().format(TS) + ".csv");
+            status = "Saved " + file.getFileName();
+        } catch (IOException e) {
+            status = "Export failed: " + e.getMessage();
+        }
+    }
+
+    private static String duration(long seconds) {
+        if (seconds >= 86_400) {
+            return (seconds / 86_400) + "d " + ((seconds % 86_400) / 3600) + "h";
+        }
+        if (seconds >= 3600) {
+            return (seconds / 3600) + "h " + String.format(Locale.ROOT, "%02dm", (seconds % 3600) / 60);
+        }
+        if (seconds >= 60) {
+            return (seconds / 60) + "m " + String.format(Locale.ROOT, "%02ds", seconds % 60);
+        }
+        return seconds + "s";
+    }
+}
@@ -0,0 +1,262 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+
+import static com.itsgeorge.performanceoverlay.client.FrameMath.NS_PER_SEC;
+
+/**
+ * Round-robin session history in the style of RRD: per-second slots for the last hour, 10 s slots for
+ * the last day and minute slots for the last week. Every tier is fed every frame, so each slot is an
+ * aggregate of the raw frames it covers (min / mean / max / p99), not of the finer tier.
+ *
+ * Memory is fixed at construction (~450 KB) no matter how long the session runs; the oldest slots of a
+ * tier are overwritten. The p99 comes from a per-tier 1/16 octave count sketch of the open slot.
+ *
+ * Render thread only.
+ */
+public final class SessionHistory {
+    public static final int TIER_SECOND = 0;
+    public static final int TIER_TEN_SECONDS = 1;
+    public static final int TIER_MINUTE = 2;
+    public static final int TIER_COUNT = 3;
+
+    private static final int[] SLOT_SECONDS = {1, 10, 60};
+    private static final int[] CAPACITY = {3600, 8640, 10080};
+
+    private final Tier[] tiers = new Tier[TIER_COUNT];
+    private long originNs = 0;
+
+    public SessionHistory() {
+        for (int i = 0; i < TIER_COUNT; i++) {
+            tiers[i] = new Tier(SLOT_SECONDS[i], CAPACITY[i]);
+        }
+    }
+
+    public void onFrame(long nowNs, long frameNs) {
+        if (frameNs <= 0) {
+            return;
+        }
+        if (originNs == 0) {
+            originNs = nowNs;
+        }
+        for (Tier t : tiers) {
+            t.onFrame(nowNs - originNs, frameNs);
+        }
+    }
+
+    public void clear() {
+        originNs = 0;
+        for (Tier t : tiers) {
+            t.clear();
+        }
+    }
+
+    public Tier tier(int index) {
+        return tiers[index];
+    }
+
+    /**
+     * Seconds since the first recorded frame, 0 before it.
+     */
+    public long elapsedSeconds(long nowNs) {
+        return (originNs == 0) ? 0 : Math.max(0, (nowNs - originNs) / NS_PER_SEC);
+    }
+
+    /**
+     * Writes every closed slot of every tier as CSV into {@code dir}; returns the file written.
+     */
+    public Path export(Path dir, String fileName) throws IOException {
+        Files.createDirectories(dir);
+        Path file = dir.resolve(fileName);
+
+        try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            w.write("# PerformanceOverlay session history\n");
+            w.write("# Tiers: 1s x " + CAPACITY[0] + ", 10s x " + CAPACITY[1] + ", 60s x " + CAPACITY[2] + "\n");
+            w.write("resolution_s,start_s,frames,min_ms,mean_ms,max_ms,p99_ms\n");
+
+            for (Tier t : tiers) {
+                int n = t.size();
+                for (int i = 0; i < n; i++) {
+                    int frames = t.frames(i);
+                    w.write(String.format(Locale.ROOT, "%d,%d,%d,%.3f,%.3f,%.3f,%.3f%n",
+                            t.slotSeconds(), t.startSeconds(i), frames,
+                            t.minMs(i), t.meanMs(i), t.maxMs(i), t.p99Ms(i)));
+                }
+            }
+        }
+
+        return file;
+    }
+
+    /**
+     * One resolution. Slots are indexed oldest (0) to newest ({@link #size()} - 1); a slot with no
+     * frames (overlay off, paused) has frames = 0 and zero values.
+     */
+    public static final class Tier {
+        private final int slotSeconds;
+        private final long slotNs;
+        private final int capacity;
+
+        private final float[] minMs;
+        private final float[] meanMs;
+        private final float[] maxMs;
+        private final float[] p99Ms;
+        private final int[] frames;
+
+        private int head = 0;
+        private int size = 0;
+        private long closedSlots = 0;
+
+        // Open slot
+        private long slotEndNs;
+        private final long[] counts = new long[DurationHistogram.BUCKETS];
+        private int openFrames = 0;
+        private long openSumNs = 0;
+        private long openMinNs = Long.MAX_VALUE;
+        private long openMaxNs = 0;
+
+        private Tier(int slotSeconds, int capacity) {
+            this.slotSeconds = slotSeconds;
+            this.slotNs = slotSeconds * NS_PER_SEC;
+            this.capacity = capacity;
+            this.minMs = new float[capacity];
+            this.meanMs = new float[capacity];
+            this.maxMs = new float[capacity];
+            this.p99Ms = new float[capacity];
+            this.frames = new int[capacity];
+            this.slotEndNs = slotNs;
+        }
+
+        public int slotSeconds() {
+            return slotSeconds;
+        }
+
+        public int capacity() {
+            return capacity;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Start of slot {@code i}, in seconds since the first recorded frame.
+         */
+        public long startSeconds(int i) {
+            return (closedSlots - size + i) * slotSeconds;
+        }
+
+        public int frames(int i) {
+            return frames[index(i)];
+        }
+
+        public float minMs(int i) {
+            return minMs[index(i)];
+        }
+
+        public float meanMs(int i) {
+            return meanMs[index(i)];
+        }
+
+        public float maxMs(int i) {
+            return maxMs[index(i)];
+        }
+
+        public float p99Ms(int i) {
+            return p99Ms[index(i)];
+        }
+
+        private int index(int i) {
+            int idx = head - size + i;
+            return (idx < 0) ? idx + capacity : idx;
+        }
+
+        private void onFrame(long sinceOriginNs, long frameNs) {
+            if (sinceOriginNs >= slotEndNs) {
+                closeSlots(sinceOriginNs);
+            }
+
+            counts[DurationHistogram.bucketOf(frameNs)]++;
+            openFrames++;
+            openSumNs += frameNs;
+            if (frameNs < openMinNs) openMinNs = frameNs;
+            if (frameNs > openMaxNs) openMaxNs = frameNs;
+        }
+
+        private void closeSlots(long sinceOriginNs) {
+            long elapsed = (sinceOriginNs - slotEndNs) / slotNs + 1;
+
+            writeSlot();
+
+            // A long gap only needs enough empty slots to flush the tier
+            long empty = elapsed - 1;
+            long written = Math.min(empty, capacity);
+            for (long i = 0; i < written; i++) {
+                writeSlot();
+            }
+            closedSlots += empty - written;
+
+            slotEndNs += elapsed * slotNs;
+        }
+
+        private void writeSlot() {
+            int idx = head;
+
+            frames[idx] = openFrames;
+            if (openFrames > 0) {
+                minMs[idx] = openMinNs / 1_000_000f;
+                meanMs[idx] = (float) (openSumNs / (double) openFrames / 1_000_000.0);
+                maxMs[idx] = openMaxNs / 1_000_000f;
+                p99Ms[idx] = Math.min(maxMs[idx], p99Ns() / 1_000_000f);
+
+                Arrays.fill(counts, 0);
+                openFrames = 0;
+                openSumNs = 0;
+                openMinNs = Long.MAX_VALUE;
+                openMaxNs = 0;
+            } else {
+                minMs[idx] = 0f;
+                meanMs[idx] = 0f;
+                maxMs[idx] = 0f;
+                p99Ms[idx] = 0f;
+            }
+
+            head = (head + 1 == capacity) ? 0 : head + 1;
+            if (size < capacity) {
+                size++;
+            }
+            closedSlots++;
+        }
+
+        // Upper edge of the bucket holding the 99th percentile frame (conservative)
+        private long p99Ns() {
+            long rank = openFrames - (long) Math.floor(openFrames * 0.99);
+            long acc = 0;
+            for (int b = DurationHistogram.BUCKETS - 1; b >= 0; b--) {
+                acc += counts[b];
+                if (acc >= rank) {
+                    return DurationHistogram.lowerNs(b + 1);
+                }
+            }
+            return openMaxNs;
+        }
+
+        private void clear() {
+            head = 0;
+            size = 0;
+            closedSlots = 0;
+            slotEndNs = slotNs;
+            Arrays.fill(counts, 0);
+            openFrames = 0;
+            openSumNs = 0;
+            openMinNs = Long.MAX_VALUE;
+            openMaxNs = 0;
+        }
+    }
+}
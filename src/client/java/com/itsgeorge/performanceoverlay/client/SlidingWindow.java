@@ -0,0 +1,70 @@
+package com.itsgeorge.performanceoverlay.client;
+
+/**
+ * Time window over the tracker's ring buffer that is maintained incrementally: each frame, new
+ * frames are added to the {@link Sink} and frames that fell out of the window are removed from it,
+ * so the sink's state always matches the window without rescanning it.
+ *
+ * Frames are tracked by sequence number (frames ever pushed). If the window changes, the tracker is
+ * reset, or the ring overwrote frames the window still needed, the sink is cleared and refilled
+ * from the ring.
+ */
+public final class SlidingWindow {
+    public interface Sink {
+        void add(long frameNs);
+
+        void remove(long frameNs);
+
+        void clear();
+    }
+
+    private final Sink sink;
+
+    private boolean valid = false;
+    private long windowNs = 0;
+    private long startSeq = 0; // oldest frame in the window
+    private long nextSeq = 0;  // next frame to add
+
+    public SlidingWindow(Sink sink) {
+        this.sink = sink;
+    }
+
+    public void advance(FrameWindow ring, long nowNs, long windowNs) {
+        long endSeq = ring.endSeq();
+        long firstSeq = ring.firstSeq();
+
+        if (!valid || windowNs != this.windowNs || startSeq < firstSeq || nextSeq > endSeq) {
+            sink.clear();
+            this.windowNs = windowNs;
+            startSeq = firstSeq;
+            nextSeq = firstSeq;
+            valid = true;
+        }
+
+        while (nextSeq < endSeq) {
+            sink.add(ring.frameAt(nextSeq));
+            nextSeq++;
+        }
+
+        long minNs = nowNs - windowNs;
+        while (startSeq < nextSeq && ring.timeAt(startSeq) < minNs) {
+            sink.remove(ring.frameAt(startSeq));
+            startSeq++;
+        }
+    }
+
+    /**
+     * Frames currently in the window.
+     */
+    public int count() {
+        return valid ? (int) (nextSeq - startSeq) : 0;
+    }
+
+    /**
+     * Drops the state; the next {@link #advance} refills the sink. Call when the owner stops
+     * advancing (inactive) so it doesn't resume from stale positions.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+}
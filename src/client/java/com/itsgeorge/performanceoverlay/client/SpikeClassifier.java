@@ -0,0 +1,105 @@
+package com.itsgeorge.performanceoverlay.client;
+
+/**
+ * Flags frames that are unusually slow relative to recent behaviour and names the likely cause.
+ *
+ * The baseline is an exponentially weighted mean and variance of frametime, so a 25 ms frame is a
+ * spike at a steady 240 FPS but not at 45 FPS. Spike frames are folded into the baseline clamped to
+ * the spike limit, so a burst of hitches doesn't teach it that hitches are normal. Allocation per
+ * frame gets the same treatment to spot allocation bursts. O(1) per frame, no allocation.
+ *
+ * Causes are checked in order of how directly they stall the render thread; the first matching
+ * signal recorded for the frame wins, so each spike is counted once.
+ */
+public final class SpikeClassifier {
+    public static final int NONE = -1;
+
+    public static final int CAUSE_GC = 0;
+    public static final int CAUSE_SERVER_TICK = 1;
+    public static final int CAUSE_SAFEPOINT = 2;
+    public static final int CAUSE_JIT = 3;
+    public static final int CAUSE_CLASS_LOAD = 4;
+    public static final int CAUSE_ALLOCATION = 5;
+    public static final int CAUSE_OTHER = 6;
+    public static final int CAUSE_COUNT = 7;
+
+    private static final String[] NAMES = {"GC", "Server", "Safepoint", "JIT", "Classes", "Alloc", "Other"};
+    private static final String[] CSV_NAMES = {"gc", "server_tick", "safepoint", "jit", "class_load", "allocation", "other"};
+
+    private static final double ALPHA = 0.02;             // ~50 frame memory
+    private static final double Z_LIMIT = 4.0;
+    private static final double MIN_EXCESS_MS = 2.0;      // ignore "spikes" of a few hundred µs at a very stable rate
+    private static final double MIN_ALLOC_EXCESS_BYTES = 1024 * 1024;
+    private static final int WARMUP_FRAMES = 60;
+
+    private double meanMs = 0;
+    private double varMs = 0;
+    private double allocMean = 0;
+    private double allocVar = 0;
+    private int frames = 0;
+
+    public static String name(int cause) {
+        return NAMES[cause];
+    }
+
+    public static String csvName(int cause) {
+        return CSV_NAMES[cause];
+    }
+
+    public void reset() {
+        meanMs = 0;
+        varMs = 0;
+        allocMean = 0;
+        allocVar = 0;
+        frames = 0;
+    }
+
+    /**
+     * @param jvmFlags      {@link RuntimeEventSampler} flags sampled for this frame
+     * @param allocBytes    bytes the render thread allocated during the frame, or -1 if unknown
+     * @param serverOverrun an integrated server tick that ended during the frame took over 50 ms
+     * @return the cause of a spike, or {@link #NONE}
+     */
+    public int onFrame(long frameNs, int jvmFlags, long allocBytes, boolean serverOverrun) {
+        double ms = FrameMath.nsToMs(frameNs);
+
+        boolean warm = frames >= WARMUP_FRAMES;
+        double limit = meanMs + Math.max(Z_LIMIT * Math.sqrt(varMs), MIN_EXCESS_MS);
+        boolean spike = warm && ms > limit;
+
+        boolean allocSpike = false;
+        if (allocBytes >= 0) {
+            double allocLimit = allocMean + Math.max(Z_LIMIT * Math.sqrt(allocVar), MIN_ALLOC_EXCESS_BYTES);
+            allocSpike = warm && allocBytes > allocLimit;
+            if (frames == 0) {
+                allocMean = allocBytes;
+            } else {
+                double d = Math.min(allocBytes, allocLimit) - allocMean;
+                allocMean += ALPHA * d;
+                allocVar = (1 - ALPHA) * (allocVar + ALPHA * d * d);
+            }
+        }
+
+        if (frames == 0) {
+            meanMs = ms;
+        } else {
+            double d = Math.min(ms, limit) - meanMs;
+            meanMs += ALPHA * d;
+            varMs = (1 - ALPHA) * (varMs + ALPHA * d * d);
+        }
+        if (frames < WARMUP_FRAMES) {
+            frames++;
+        }
+
+        if (!spike) {
+            return NONE;
+        }
+        if ((jvmFlags & RuntimeEventSampler.FLAG_GC) != 0) return CAUSE_GC;
+        if (serverOverrun) return CAUSE_SERVER_TICK;
+        if ((jvmFlags & RuntimeEventSampler.FLAG_SAFEPOINT) != 0) return CAUSE_SAFEPOINT;
+        if ((jvmFlags & RuntimeEventSampler.FLAG_JIT) != 0) return CAUSE_JIT;
+        if ((jvmFlags & RuntimeEventSampler.FLAG_CLASS_LOAD) != 0) return CAUSE_CLASS_LOAD;
+        if (allocSpike) return CAUSE_ALLOCATION;
+        return CAUSE_OTHER;
+    }
+}
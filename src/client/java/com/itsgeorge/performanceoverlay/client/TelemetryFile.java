@@ -0,0 +1,155 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Publishes live metrics into a fixed-layout memory-mapped file for readers on the same machine.
+ * Written by the render thread once per frame; readers never block it.
+ *
+ * Layout (version 2, little-endian, {@link #SIZE} bytes):
+ * <pre>
+ * off  type    field
+ *   0  int32   magic 0x4C564F50 ("POVL")
+ *   4  int32   layout version (2)
+ *   8  int64   sequence: odd while a write is in progress, +2 per publish
+ *  16  int64   wall clock, ms since epoch
+ *  24  int64   frames total
+ *  32  float64 last frame (ms)
+ *  40  float64 fps (smoothed)
+ *  48  float64 frametime (ms, smoothed)
+ *  56  float64 avg fps
+ *  64  float64 1% low fps
+ *  72  float64 0.1% low fps
+ *  80  float64 frametime p50 (ms)
+ *  88  float64 frametime p99 (ms)
+ *  96  float64 frametime p99.9 (ms)
+ * 104  int32   stutters
+ * 108  int32   stutter percent
+ * 112  float64 max spike (ms)
+ * 120  int64   GC time in the last second (ms)
+ * 128  int64   heap used (MB)
+ * 136  int64   heap max (MB)
+ * 144  int32   benchmark active (0/1)
+ * 148  int32   reserved (zero)
+ * 152  float64 integrated server MSPT (ms, -1 without one); added in version 2
+ * 160..255     reserved (zero)
+ * </pre>
+ *
+ * Version 1 is the same layout with offset 152 reserved (zero). Fields are only ever added in
+ * reserved space, each with a version bump, so a reader can accept every version up to its own.
+ *
+ * Readers: read the sequence, retry while it's odd, read the fields, read the sequence again,
+ * and retry if it changed. See {@link TelemetryReader}.
+ */
+public final class TelemetryFile {
+    public static final int MAGIC = 0x4C564F50;
+    public static final int VERSION = 2;
+    public static final int SIZE = 256;
+
+    public static final int OFF_MAGIC = 0;
+    public static final int OFF_VERSION = 4;
+    public static final int OFF_SEQ = 8;
+    public static final int OFF_WALL_MS = 16;
+    public static final int OFF_FRAMES = 24;
+    public static final int OFF_LAST_FRAME_MS = 32;
+    public static final int OFF_FPS = 40;
+    public static final int OFF_FT_MS = 48;
+    public static final int OFF_AVG = 56;
+    public static final int OFF_LOW1 = 64;
+    public static final int OFF_LOW01 = 72;
+    public static final int OFF_FT_P50 = 80;
+    public static final int OFF_FT_P99 = 88;
+    public static final int OFF_FT_P999 = 96;
+    public static final int OFF_STUTTERS = 104;
+    public static final int OFF_STUTTER_PCT = 108;
+    public static final int OFF_MAX_SPIKE_MS = 112;
+    public static final int OFF_GC_MS = 120;
+    public static final int OFF_MEM_USED_MB = 128;
+    public static final int OFF_MEM_MAX_MB = 136;
+    public static final int OFF_BENCHMARK = 144;
+    public static final int OFF_MSPT = 152;
+
+    static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buf;
+    private final Path path;
+
+    private long seq = 0;
+
+    private TelemetryFile(FileChannel channel, MappedByteBuffer buf, Path path) {
+        this.channel = channel;
+        this.buf = buf;
+        this.path = path;
+    }
+
+    public static TelemetryFile open(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+
+        FileChannel ch = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer b = ch.map(FileChannel.MapMode.READ_WRITE, 0, SIZE);
+            b.order(ByteOrder.LITTLE_ENDIAN);
+
+            for (int i = 0; i < SIZE; i += 8) {
+                b.putLong(i, 0);
+            }
+            b.putInt(OFF_MAGIC, MAGIC);
+            b.putInt(OFF_VERSION, VERSION);
+
+            return new TelemetryFile(ch, b, file);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public void publish(FpsTracker.Metrics m, long lastFrameNs) {
+        // Seqlock: odd = writing. The store fence keeps field stores from moving above the odd marker.
+        LONGS.setOpaque(buf, OFF_SEQ, ++seq);
+        VarHandle.storeStoreFence();
+
+        buf.putLong(OFF_WALL_MS, System.currentTimeMillis());
+        buf.putLong(OFF_FRAMES, m.framesTotal());
+        buf.putDouble(OFF_LAST_FRAME_MS, lastFrameNs / 1_000_000.0);
+        buf.putDouble(OFF_FPS, m.fps());
+        buf.putDouble(OFF_FT_MS, m.frametimeMs());
+        buf.putDouble(OFF_AVG, m.avgFps());
+        buf.putDouble(OFF_LOW1, m.low1Fps());
+        buf.putDouble(OFF_LOW01, m.low01Fps());
+        buf.putDouble(OFF_FT_P50, m.frametimeP50Ms());
+        buf.putDouble(OFF_FT_P99, m.frametimeP99Ms());
+        buf.putDouble(OFF_FT_P999, m.frametimeP999Ms());
+        buf.putInt(OFF_STUTTERS, m.stutters());
+        buf.putInt(OFF_STUTTER_PCT, m.stutterPercent());
+        buf.putDouble(OFF_MAX_SPIKE_MS, m.maxSpikeMs());
+        buf.putLong(OFF_GC_MS, m.gcPauseMs());
+        buf.putLong(OFF_MEM_USED_MB, m.memUsedMb());
+        buf.putLong(OFF_MEM_MAX_MB, m.memMaxMb());
+        buf.putInt(OFF_BENCHMARK, m.benchmarkActive() ? 1 : 0);
+        buf.putDouble(OFF_MSPT, m.msptMs());
+
+        // Release: everything above is visible before the even sequence.
+        LONGS.setRelease(buf, OFF_SEQ, ++seq);
+    }
+
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
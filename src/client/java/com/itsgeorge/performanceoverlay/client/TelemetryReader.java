@@ -0,0 +1,158 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reader for the live telemetry file written by {@link TelemetryFile}.
+ * Needs only the JDK and the layout constants in {@link TelemetryFile}.
+ *
+ * Standalone use (prints once per second):
+ * <pre>java -cp performanceoverlay.jar com.itsgeorge.performanceoverlay.client.TelemetryReader .minecraft/config/performanceoverlay/telemetry.bin</pre>
+ */
+public final class TelemetryReader implements AutoCloseable {
+    private static final int MAX_RETRIES = 64;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buf;
+    private final int version;
+
+    private TelemetryReader(FileChannel channel, MappedByteBuffer buf, int version) {
+        this.channel = channel;
+        this.buf = buf;
+        this.version = version;
+    }
+
+    public static TelemetryReader open(Path file) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            if (ch.size() < TelemetryFile.SIZE) {
+                throw new IOException("Telemetry file too small: " + ch.size());
+            }
+
+            MappedByteBuffer b = ch.map(FileChannel.MapMode.READ_ONLY, 0, TelemetryFile.SIZE);
+            b.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (b.getInt(TelemetryFile.OFF_MAGIC) != TelemetryFile.MAGIC) {
+                throw new IOException("Not a PerformanceOverlay telemetry file");
+            }
+            int version = b.getInt(TelemetryFile.OFF_VERSION);
+            // Older versions only lack fields added later; newer ones are unknown to this reader
+            if (version < 1 || version > TelemetryFile.VERSION) {
+                throw new IOException("Unsupported telemetry layout version " + version);
+            }
+
+            return new TelemetryReader(ch, b, version);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Layout version of the file (1 .. {@link TelemetryFile#VERSION}).
+     */
+    public int version() {
+        return version;
+    }
+
+    /**
+     * Returns a consistent reading, or null if the writer kept it busy for too long (or never wrote).
+     */
+    public Reading read() {
+        for (int attempt = 0; attempt < MAX_RETRIES; attempt++) {
+            long s1 = (long) TelemetryFile.LONGS.getAcquire(buf, TelemetryFile.OFF_SEQ);
+            if (s1 == 0) {
+                return null;
+            }
+            if ((s1 & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            Reading r = new Reading(
+                    s1,
+                    buf.getLong(TelemetryFile.OFF_WALL_MS),
+                    buf.getLong(TelemetryFile.OFF_FRAMES),
+                    buf.getDouble(TelemetryFile.OFF_LAST_FRAME_MS),
+                    buf.getDouble(TelemetryFile.OFF_FPS),
+                    buf.getDouble(TelemetryFile.OFF_FT_MS),
+                    buf.getDouble(TelemetryFile.OFF_AVG),
+                    buf.getDouble(TelemetryFile.OFF_LOW1),
+                    buf.getDouble(TelemetryFile.OFF_LOW01),
+                    buf.getDouble(TelemetryFile.OFF_FT_P50),
+                    buf.getDouble(TelemetryFile.OFF_FT_P99),
+                    buf.getDouble(TelemetryFile.OFF_FT_P999),
+                    buf.getInt(TelemetryFile.OFF_STUTTERS),
+                    buf.getInt(TelemetryFile.OFF_STUTTER_PCT),
+                    buf.getDouble(TelemetryFile.OFF_MAX_SPIKE_MS),
+                    buf.getLong(TelemetryFile.OFF_GC_MS),
+                    buf.getLong(TelemetryFile.OFF_MEM_USED_MB),
+                    buf.getLong(TelemetryFile.OFF_MEM_MAX_MB),
+                    buf.getInt(TelemetryFile.OFF_BENCHMARK) != 0,
+                    (version >= 2) ? buf.getDouble(TelemetryFile.OFF_MSPT) : -1
+            );
+
+            VarHandle.loadLoadFence();
+            long s2 = (long) TelemetryFile.LONGS.getOpaque(buf, TelemetryFile.OFF_SEQ);
+            if (s1 == s2) {
+                return r;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public record Reading(
+            long sequence,
+            long wallClockMs,
+            long framesTotal,
+            double lastFrameMs,
+            double fps,
+            double frametimeMs,
+            double avgFps,
+            double low1Fps,
+            double low01Fps,
+            double frametimeP50Ms,
+            double frametimeP99Ms,
+            double frametimeP999Ms,
+            int stutters,
+            int stutterPercent,
+            double maxSpikeMs,
+            long gcPauseMs,
+            long memUsedMb,
+            long memMaxMb,
+            boolean benchmarkActive,
+            // -1 without an integrated server, or in a version 1 file
+            double msptMs
+    ) {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 1) {
+            System.err.println("Usage: TelemetryReader <path/to/telemetry.bin>");
+            System.exit(2);
+        }
+
+        try (TelemetryReader reader = open(Path.of(args[0]))) {
+            while (true) {
+                Reading r = reader.read();
+                if (r != null) {
+                    System.out.printf("fps=%.1f avg=%.1f 1%%=%.1f 0.1%%=%.1f ft=%.2fms last=%.2fms stutters=%d frames=%d%n",
+                            r.fps(), r.avgFps(), r.low1Fps(), r.low01Fps(), r.frametimeMs(), r.lastFrameMs(),
+                            r.stutters(), r.framesTotal());
+                }
+                Thread.sleep(1000);
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * CPU utilisation per thread group, from ThreadMXBean CPU time deltas.
+ * 100% = one fully busy core, so worker pools can go above 100%.
+ *
+ * Groups are matched by thread name. GC and JIT threads are not Java threads and can't be enumerated,
+ * so they are reported together as "VM": process CPU minus the CPU of every Java thread we saw.
+ *
+ * The thread list is enumerated into a reused array; ids and groups are only rebuilt when the set of
+ * threads actually changes.
+ */
+public final class ThreadCpuSampler {
+    public static final int GROUP_RENDER = 0;
+    public static final int GROUP_SERVER = 1;
+    public static final int GROUP_WORKERS = 2;
+    public static final int GROUP_OTHER = 3;
+    public static final int GROUP_VM = 4;
+    public static final int GROUP_COUNT = 5;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final com.sun.management.OperatingSystemMXBean os = osBean();
+    private final boolean supported;
+
+    private final ThreadGroup root;
+
+    private Thread[] scan = new Thread[256];
+
+    // Cached thread set (only rebuilt when it changes)
+    private Thread[] known = new Thread[256];
+    private long[] ids = new long[256];
+    private int[] groups = new int[256];
+    private long[] lastCpuNs = new long[256];
+    private int knownCount = 0;
+
+    // Scratch used while rebuilding, so old per-thread baselines can be carried over
+    private long[] prevIds = new long[256];
+    private long[] prevCpuNs = new long[256];
+
+    private long lastSampleNs = 0;
+    private long lastProcessCpuNs = 0;
+
+    private final long[] groupCpuNs = new long[GROUP_COUNT];
+    private final int[] groupPercent = new int[GROUP_COUNT];
+
+    public ThreadCpuSampler() {
+        boolean ok = false;
+        try {
+            if (threads.isThreadCpuTimeSupported()) {
+                if (!threads.isThreadCpuTimeEnabled()) {
+                    threads.setThreadCpuTimeEnabled(true);
+                }
+                ok = true;
+            }
+        } catch (SecurityException | UnsupportedOperationException ignored) {
+        }
+        this.supported = ok;
+
+        ThreadGroup g = Thread.currentThread().getThreadGroup();
+        while (g.getParent() != null) {
+            g = g.getParent();
+        }
+        this.root = g;
+    }
+
+    public boolean isSupported() {
+        return supported;
+    }
+
+    public void reset() {
+        lastSampleNs = 0;
+        knownCount = 0;
+        for (int i = 0; i < GROUP_COUNT; i++) {
+            groupPercent[i] = 0;
+        }
+    }
+
+    public void sample(long nowNs) {
+        if (!supported) {
+            return;
+        }
+
+        boolean first = lastSampleNs == 0;
+
+        refreshThreadSet(first);
+
+        for (int i = 0; i < GROUP_COUNT; i++) {
+            groupCpuNs[i] = 0;
+        }
+
+        long javaTotalNs = 0;
+        for (int i = 0; i < knownCount; i++) {
+            long cpu = threads.getThreadCpuTime(ids[i]);
+            if (cpu < 0) {
+                continue; // died since enumeration
+            }
+
+            long delta = Math.max(0, cpu - lastCpuNs[i]);
+            lastCpuNs[i] = cpu;
+
+            groupCpuNs[groups[i]] += delta;
+            javaTotalNs += delta;
+        }
+
+        long processCpuNs = (os != null) ? os.getProcessCpuTime() : -1;
+        if (processCpuNs >= 0 && !first) {
+            groupCpuNs[GROUP_VM] = Math.max(0, (processCpuNs - lastProcessCpuNs) - javaTotalNs);
+        }
+        lastProcessCpuNs = processCpuNs;
+
+        if (!first) {
+            long wallNs = nowNs - lastSampleNs;
+            for (int i = 0; i < GROUP_COUNT; i++) {
+                groupPercent[i] = (wallNs > 0) ? (int) Math.round((groupCpuNs[i] * 100.0) / wallNs) : 0;
+            }
+        }
+
+        lastSampleNs = nowNs;
+    }
+
+    public int percent(int group) {
+        return groupPercent[group];
+    }
+
+    private void refreshThreadSet(boolean first) {
+        int n = root.enumerate(scan, true);
+        while (n >= scan.length) {
+            scan = new Thread[scan.length * 2];
+            n = root.enumerate(scan, true);
+        }
+
+        if (!first && n == knownCount && sameThreads(n)) {
+            return;
+        }
+
+        // Remember baselines of threads we already know
+        if (prevIds.length < knownCount) {
+            prevIds = new long[ids.length];
+            prevCpuNs = new long[ids.length];
+        }
+        System.arraycopy(ids, 0, prevIds, 0, knownCount);
+        System.arraycopy(lastCpuNs, 0, prevCpuNs, 0, knownCount);
+        int prevCount = knownCount;
+
+        if (known.length < n) {
+            int cap = Math.max(n, known.length * 2);
+            known = new Thread[cap];
+            ids = new long[cap];
+            groups = new int[cap];
+            lastCpuNs = new long[cap];
+        }
+
+        for (int i = 0; i < n; i++) {
+            Thread t = scan[i];
+            long id = t.threadId();
+
+            known[i] = t;
+            ids[i] = id;
+            groups[i] = classify(t.getName());
+
+            long baseline = first ? threads.getThreadCpuTime(id) : 0; // new threads count from their start
+            for (int j = 0; j < prevCount; j++) {
+                if (prevIds[j] == id) {
+                    baseline = prevCpuNs[j];
+                    break;
+                }
+            }
+            lastCpuNs[i] = Math.max(0, baseline);
+        }
+
+        for (int i = n; i < knownCount; i++) {
+            known[i] = null;
+        }
+        for (int i = 0; i < n; i++) {
+            scan[i] = null;
+        }
+
+        knownCount = n;
+    }
+
+    private boolean sameThreads(int n) {
+        for (int i = 0; i < n; i++) {
+            if (scan[i] != known[i]) {
+                return false;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            scan[i] = null;
+        }
+        return true;
+    }
+
+    private static int classify(String name) {
+        if (name == null) {
+            return GROUP_OTHER;
+        }
+        if (name.equals("Render thread")) {
+            return GROUP_RENDER;
+        }
+        if (name.equals("Server thread")) {
+            return GROUP_SERVER;
+        }
+        if (name.startsWith("Worker-Main-")) {
+            return GROUP_WORKERS;
+        }
+        return GROUP_OTHER;
+    }
+
+    private static com.sun.management.OperatingSystemMXBean osBean() {
+        try {
+            if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean b) {
+                return b;
+            }
+        } catch (Throwable ignored) {
+        }
+        return null;
+    }
+}
@@ -0,0 +1,90 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-producer / single-consumer ring of tick intervals.
+ * The integrated server thread writes ticks, the render thread drains them.
+ * If the reader falls a full ring behind, the oldest ticks are dropped.
+ */
+public final class TickRing {
+    private final long[] startNs;
+    private final long[] endNs;
+    private final int mask;
+
+    private final AtomicLong writeSeq = new AtomicLong();
+    private long readSeq = 0;
+
+    // Writer-local
+    private long pendingStartNs = 0;
+
+    public TickRing(int capacityPow2) {
+        int cap = Integer.highestOneBit(Math.max(2, capacityPow2));
+        this.startNs = new long[cap];
+        this.endNs = new long[cap];
+        this.mask = cap - 1;
+    }
+
+    // ---------- Writer (server thread) ----------
+
+    public void tickStart(long nowNs) {
+        pendingStartNs = nowNs;
+    }
+
+    public void tickEnd(long nowNs) {
+        if (pendingStartNs == 0) {
+            return;
+        }
+
+        long seq = writeSeq.get();
+        int idx = (int) (seq & mask);
+        startNs[idx] = pendingStartNs;
+        endNs[idx] = nowNs;
+        writeSeq.lazySet(seq + 1);
+
+        pendingStartNs = 0;
+    }
+
+    // ---------- Reader (render thread) ----------
+
+    /**
+     * Hands every tick written since the last drain to the consumer, oldest first.
+     */
+    public void drain(Consumer consumer) {
+        long w = writeSeq.get();
+        int cap = mask + 1;
+
+        // The writer fills slot (writeSeq & mask) before publishing writeSeq + 1, so with a full ring
+        // behind, the oldest unread slot may be mid-write: resync to leave it alone
+        if (w - readSeq >= cap) {
+            readSeq = w - cap + 1;
+        }
+
+        while (readSeq < w) {
+            int idx = (int) (readSeq & mask);
+            long s = startNs[idx];
+            long e = endNs[idx];
+
+            // Overwritten (or being overwritten) while we were reading: skip it
+            VarHandle.loadLoadFence();
+            long now = writeSeq.get();
+            if (now - readSeq >= cap) {
+                readSeq = now - cap + 1;
+                continue;
+            }
+
+            readSeq++;
+            consumer.accept(s, e);
+        }
+    }
+
+    public void skipPending() {
+        readSeq = writeSeq.get();
+    }
+
+    @FunctionalInterface
+    public interface Consumer {
+        void accept(long startNs, long endNs);
+    }
+}
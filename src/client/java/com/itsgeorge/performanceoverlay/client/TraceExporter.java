@@ -0,0 +1,159 @@
+package com.itsgeorge.performanceoverlay.client;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streams benchmark data as Chrome Trace Event JSON (loads in chrome://tracing and ui.perfetto.dev).
+ * Events are written as they happen; nothing is kept in memory besides the writer buffer.
+ *
+ * Tracks:
+ * - Frames: one slice per frame, client ticks nested inside the frame they ran in
+ * - Server: integrated server ticks
+ * - GC: collector pauses, placed at the end of the frame they were detected in
+ * - Markers: instant events (benchmark start/stop, stutters)
+ */
+public final class TraceExporter {
+    private static final int PID = 1;
+
+    private static final int TID_FRAMES = 1;
+    private static final int TID_SERVER = 2;
+    private static final int TID_GC = 3;
+    private static final int TID_MARKERS = 4;
+
+    private final BufferedWriter out;
+    private final long originNs;
+    private final StringBuilder sb = new StringBuilder(160);
+
+    private long lastGcTimeMs;
+
+    private int flushCounter = 0;
+
+    private TraceExporter(BufferedWriter out, long originNs) {
+        this.out = out;
+        this.originNs = originNs;
+        this.lastGcTimeMs = RuntimeEventSampler.totalGcTimeMs();
+    }
+
+    public static TraceExporter open(Path file, long originNs) throws IOException {
+        BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        TraceExporter t = new TraceExporter(w, originNs);
+
+        w.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+        w.write("{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":" + PID + ",\"args\":{\"name\":\"Minecraft\"}}");
+
+        t.threadName(TID_FRAMES, "Frames");
+        t.threadName(TID_SERVER, "Server ticks");
+        t.threadName(TID_GC, "GC");
+        t.threadName(TID_MARKERS, "Markers");
+
+        return t;
+    }
+
+    public void frame(long endNs, long dtNs, boolean stutter) throws IOException {
+        slice(TID_FRAMES, stutter ? "Frame (stutter)" : "Frame", endNs - dtNs, dtNs);
+
+        if (stutter) {
+            sb.setLength(0);
+            sb.append(",\n{\"name\":\"Stutter\",\"ph\":\"i\",\"s\":\"t\",\"pid\":").append(PID)
+                    .append(",\"tid\":").append(TID_MARKERS)
+                    .append(",\"ts\":");
+            appendUs(sb, endNs - originNs);
+            sb.append(",\"args\":{\"ms\":");
+            appendUs(sb, dtNs / 1000);
+            sb.append("}}");
+            out.append(sb);
+        }
+
+        long gcMs = RuntimeEventSampler.totalGcTimeMs();
+        long gcDelta = gcMs - lastGcTimeMs;
+        lastGcTimeMs = gcMs;
+
+        if (gcDelta > 0) {
+            long durNs = gcDelta * 1_000_000L;
+            slice(TID_GC, "GC pause", endNs - durNs, durNs);
+        }
+
+        flushCounter++;
+        if (flushCounter >= 240) {
+            out.flush();
+            flushCounter = 0;
+        }
+    }
+
+    public void clientTick(long startNs, long endNs) throws IOException {
+        slice(TID_FRAMES, "Client tick", startNs, endNs - startNs);
+    }
+
+    public void serverTick(long startNs, long endNs) throws IOException {
+        slice(TID_SERVER, "Server tick", startNs, endNs - startNs);
+    }
+
+    public void marker(long nowNs, String name) throws IOException {
+        sb.setLength(0);
+        sb.append(",\n{\"name\":\"").append(name).append("\",\"ph\":\"i\",\"s\":\"g\",\"pid\":").append(PID)
+                .append(",\"tid\":").append(TID_MARKERS)
+                .append(",\"ts\":");
+        appendUs(sb, nowNs - originNs);
+        sb.append('}');
+        out.append(sb);
+    }
+
+    public void close() throws IOException {
+        try {
+            out.write("\n]}\n");
+            out.flush();
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Closes without throwing; used on error paths where the trace is already lost.
+     */
+    public void closeQuietly() {
+        try {
+            close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void threadName(int tid, String name) throws IOException {
+        out.write(",\n{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":" + PID + ",\"tid\":" + tid
+                + ",\"args\":{\"name\":\"" + name + "\"}}");
+        out.write(",\n{\"name\":\"thread_sort_index\",\"ph\":\"M\",\"pid\":" + PID + ",\"tid\":" + tid
+                + ",\"args\":{\"sort_index\":" + tid + "}}");
+    }
+
+    private void slice(int tid, String name, long startNs, long durNs) throws IOException {
+        if (durNs <= 0) {
+            return;
+        }
+
+        sb.setLength(0);
+        sb.append(",\n{\"name\":\"").append(name).append("\",\"ph\":\"X\",\"pid\":").append(PID)
+                .append(",\"tid\":").append(tid)
+                .append(",\"ts\":");
+        appendUs(sb, Math.max(0, startNs - originNs));
+        sb.append(",\"dur\":");
+        appendUs(sb, durNs);
+        sb.append('}');
+        out.append(sb);
+    }
+
+    // Trace timestamps are microseconds; keep ns precision as 3 decimals.
+    private static void appendUs(StringBuilder sb, long ns) {
+        long whole = ns / 1000;
+        long frac = Math.abs(ns % 1000);
+        sb.append(whole).append('.');
+        if (frac < 10) {
+            sb.append("00");
+        } else if (frac < 100) {
+            sb.append('0');
+        }
+        sb.append(frac);
+    }
+}